@@ -0,0 +1,163 @@
+package org._01_facade.ex01;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AsyncSmartHomeFacade - 기기 명령을 동시에 보내는 비동기 Facade
+ *
+ * SmartHomeFacade는 기기를 차례로 호출하므로 장면 시간이 모든 기기 시간의 합입니다.
+ * 이 Facade는 장면(Scene)의 명령을 한꺼번에 실행기에 보내고, 결과를 하나의 SceneResult로 모읍니다.
+ * 따라서 장면 전체는 가장 느린 기기만큼만 걸립니다.
+ *
+ * 핵심:
+ * - 명령마다 실행기 작업 하나 + CompletableFuture (allOf로 합쳐서 결과 수집)
+ * - 기기별 제한 시간 (orTimeout): 넘기면 TIMED_OUT으로 기록하고 명령 스레드에 인터럽트
+ * - 한 기기의 실패/지연이 다른 기기의 결과를 막지 않음
+ * - 실행기가 명령을 받지 않으면 (종료된 실행기 등) 그 기기를 FAILED로 기록
+ *
+ * 기본 실행기는 명령마다 가상 스레드를 만드는 공용 실행기입니다.
+ * 기기 명령은 대부분 응답을 기다리는 작업이므로, 기다리는 동안 OS 스레드를 차지하지 않고
+ * 기기가 수백 개여도 풀 크기를 정할 필요가 없습니다. 다른 실행기는 생성자로 넘길 수 있습니다.
+ */
+public class AsyncSmartHomeFacade {
+    static final long DEFAULT_TIMEOUT_MILLIS = 2_000;
+
+    private final Thermostat thermostat;
+    private final Lights lights;
+    private final CoffeeMaker coffeeMaker;
+    private final ExecutorService executor;
+    private final long defaultTimeoutMillis;
+
+    /**
+     * 모든 Facade가 기본으로 공유하는 실행기 (처음 사용할 때 생성)
+     */
+    private static class Holder {
+        static final ExecutorService SHARED = newDeviceExecutor();
+    }
+
+    public AsyncSmartHomeFacade(Thermostat thermostat, Lights lights, CoffeeMaker coffeeMaker) {
+        this(thermostat, lights, coffeeMaker, Holder.SHARED, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param executor 기기 명령을 실행할 실행기
+     * @param defaultTimeoutMillis 제한 시간을 지정하지 않은 명령의 제한 시간 (밀리초)
+     */
+    public AsyncSmartHomeFacade(Thermostat thermostat, Lights lights, CoffeeMaker coffeeMaker,
+                                ExecutorService executor, long defaultTimeoutMillis) {
+        if (defaultTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + defaultTimeoutMillis);
+        }
+        this.thermostat = thermostat;
+        this.lights = lights;
+        this.coffeeMaker = coffeeMaker;
+        this.executor = executor;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    /**
+     * 기기 명령용 실행기 생성 (명령마다 가상 스레드, 응답 없는 기기가 프로그램 종료를 막지 않음)
+     */
+    static ExecutorService newDeviceExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * 기상 장면 - 온도 22도, 조명 켜기, 커피 내리기
+     */
+    public Scene wakeUpScene() {
+        return new Scene("wake up")
+                .add("thermostat", () -> thermostat.setTemperature(22))
+                .add("lights", lights::on)
+                .add("coffee maker", coffeeMaker::brewCoffee);
+    }
+
+    /**
+     * 외출 장면 - 온도 18도, 조명 끄기
+     */
+    public Scene leaveHomeScene() {
+        return new Scene("leave home")
+                .add("thermostat", () -> thermostat.setTemperature(18))
+                .add("lights", lights::off);
+    }
+
+    public CompletableFuture<SceneResult> wakeUp() {
+        System.out.println("Waking up...");
+        return run(wakeUpScene());
+    }
+
+    public CompletableFuture<SceneResult> leaveHome() {
+        System.out.println("Leaving home...");
+        return run(leaveHomeScene());
+    }
+
+    /**
+     * 장면의 모든 명령을 동시에 실행
+     *
+     * 반환된 작업은 예외로 끝나지 않습니다. (기기별 실패/시간 초과는 SceneResult에 기록)
+     *
+     * @return 모든 기기가 끝나거나 제한 시간을 넘기면 완료되는 작업
+     */
+    public CompletableFuture<SceneResult> run(Scene scene) {
+        long begin = System.nanoTime();
+        List<CompletableFuture<SceneResult.DeviceResult>> futures = new ArrayList<>();
+        for (Scene.Step step : scene.getSteps()) {
+            futures.add(dispatch(step, begin));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<SceneResult.DeviceResult> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<SceneResult.DeviceResult> future : futures) {
+                        results.add(future.join()); // 모두 완료됨 - 기다리지 않음
+                    }
+                    return new SceneResult(scene.getName(), results, System.nanoTime() - begin);
+                });
+    }
+
+    /**
+     * 명령 하나를 실행기에 보내고, 제한 시간과 결과 변환을 연결
+     *
+     * 실행기가 명령을 거부하면 예외를 던지지 않고 FAILED 결과로 바로 완료합니다.
+     */
+    private CompletableFuture<SceneResult.DeviceResult> dispatch(Scene.Step step, long begin) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    step.getCommand().run();
+                    done.complete(null);
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(new SceneResult.DeviceResult(
+                    step.getDevice(), SceneResult.Status.FAILED, System.nanoTime() - begin, e));
+        }
+
+        long timeout = step.getTimeoutMillis() > 0 ? step.getTimeoutMillis() : defaultTimeoutMillis;
+        return done.orTimeout(timeout, TimeUnit.MILLISECONDS).handle((ignored, error) -> {
+            long elapsed = System.nanoTime() - begin;
+            if (error == null) {
+                return new SceneResult.DeviceResult(step.getDevice(), SceneResult.Status.SUCCEEDED, elapsed, null);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                task.cancel(true); // 응답 없는 명령을 중단 (인터럽트에 반응하는 명령만 멈춤)
+                return new SceneResult.DeviceResult(step.getDevice(), SceneResult.Status.TIMED_OUT, elapsed, null);
+            }
+            return new SceneResult.DeviceResult(step.getDevice(), SceneResult.Status.FAILED, elapsed, cause);
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package org._01_facade.ex01;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scene - 한 번에 실행할 기기 명령들의 묶음 (예: 기상, 외출, 취침)
+ *
+ * 각 명령은 서로 독립적이라고 가정하므로 AsyncSmartHomeFacade가 동시에 실행합니다.
+ * 기기가 많아도 장면 전체는 가장 느린 기기만큼만 걸립니다.
+ *
+ * 사용 예:
+ * new Scene("wake up")
+ *         .add("thermostat", () -> thermostat.setTemperature(22))
+ *         .add("coffee maker", coffeeMaker::brewCoffee, 5_000);
+ */
+public class Scene {
+    /**
+     * 기기 명령 하나
+     */
+    static final class Step {
+        private final String device;       // 결과에 표시할 기기 이름
+        private final Runnable command;    // 실행할 명령
+        private final long timeoutMillis;  // 0이면 파사드의 기본 제한 시간 사용
+
+        private Step(String device, Runnable command, long timeoutMillis) {
+            this.device = device;
+            this.command = command;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        String getDevice() {
+            return device;
+        }
+
+        Runnable getCommand() {
+            return command;
+        }
+
+        long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+    }
+
+    private final String name;
+    private final List<Step> steps = new ArrayList<>();
+
+    public Scene(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 기본 제한 시간을 쓰는 명령 추가
+     *
+     * @return this (연쇄 호출용)
+     */
+    public Scene add(String device, Runnable command) {
+        return add(device, command, 0);
+    }
+
+    /**
+     * @param timeoutMillis 이 기기의 제한 시간 (밀리초, 0이면 파사드의 기본값)
+     * @return this (연쇄 호출용)
+     */
+    public Scene add(String device, Runnable command, long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeoutMillis);
+        }
+        steps.add(new Step(device, command, timeoutMillis));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+}
@@ -0,0 +1,116 @@
+package org._01_facade.ex01;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SceneBenchmark - 장면을 순차 실행할 때와 동시에 실행할 때의 소요 시간 비교
+ *
+ * 1. 실제 기기(Thermostat, Lights, CoffeeMaker)로 기상/외출 장면을 비동기 실행하고 결과 출력
+ * 2. 응답 시간이 20~80ms인 가상 기기 DEVICES개로 집 전체 장면 실행
+ *    - 순차: SmartHomeFacade처럼 차례로 호출 (모든 기기 시간의 합)
+ *    - 동시: AsyncSmartHomeFacade.run (가장 느린 기기 시간에 가까워야 함)
+ * 3. 응답 없는 기기와 예외를 던지는 기기가 섞인 장면: 나머지 기기는 성공하고,
+ *    장면은 제한 시간만큼만 걸리며, 응답 없는 명령은 인터럽트되는지 확인
+ * 4. 종료된 실행기: 명령이 거부되어도 run이 예외 없이 완료되고 모든 기기가 FAILED인지 확인
+ */
+public class SceneBenchmark {
+    private static final int DEVICES = 100;
+    private static final int MIN_LATENCY_MILLIS = 20;
+    private static final int MAX_LATENCY_MILLIS = 80;
+    private static final long HUNG_TIMEOUT_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        AsyncSmartHomeFacade smartHome = new AsyncSmartHomeFacade(new Thermostat(), new Lights(), new CoffeeMaker());
+
+        System.out.println("=== 비동기 스마트홈 Facade 벤치마크 ===");
+        printResult(smartHome.wakeUp().join());
+        printResult(smartHome.leaveHome().join());
+
+        // 집 전체 장면
+        SplittableRandom random = new SplittableRandom(42);
+        Scene wholeHome = new Scene("whole home");
+        long slowest = 0;
+        for (int i = 0; i < DEVICES; i++) {
+            int latency = MIN_LATENCY_MILLIS + random.nextInt(MAX_LATENCY_MILLIS - MIN_LATENCY_MILLIS + 1);
+            slowest = Math.max(slowest, latency);
+            wholeHome.add("device-" + i, () -> respond(latency));
+        }
+        smartHome.run(wholeHome).join(); // 워밍업: 스레드 생성
+
+        long begin = System.nanoTime();
+        for (Scene.Step step : wholeHome.getSteps()) {
+            step.getCommand().run();
+        }
+        long sequential = System.nanoTime() - begin;
+        SceneResult parallel = smartHome.run(wholeHome).join();
+        System.out.printf("Whole home (%d devices, slowest %d ms): sequential %.1f ms | async %.1f ms | x%.1f | %s%n",
+                DEVICES, slowest, sequential / 1e6, parallel.getElapsedNanos() / 1e6,
+                (double) sequential / parallel.getElapsedNanos(), parallel.allSucceeded() ? "OK" : "FAILED");
+
+        // 응답 없는 기기 + 실패하는 기기
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Scene faulty = new Scene("faulty devices")
+                .add("lights", () -> respond(30))
+                .add("thermostat", () -> respond(50))
+                .add("hung speaker", () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown(); // 제한 시간 초과로 중단됨
+                    }
+                }, HUNG_TIMEOUT_MILLIS)
+                .add("broken blinds", () -> {
+                    throw new IllegalStateException("motor jammed");
+                });
+        SceneResult result = smartHome.run(faulty).join();
+        printResult(result);
+        boolean ok = result.count(SceneResult.Status.SUCCEEDED) == 2
+                && result.count(SceneResult.Status.TIMED_OUT) == 1
+                && result.count(SceneResult.Status.FAILED) == 1
+                && result.getElapsedNanos() < TimeUnit.MILLISECONDS.toNanos(HUNG_TIMEOUT_MILLIS * 2)
+                && interrupted.await(1, TimeUnit.SECONDS);
+        System.out.println("Timeout bounded scene, hung command interrupted, others unaffected: "
+                + (ok ? "OK" : "FAILED"));
+
+        // 종료된 실행기
+        ExecutorService closed = Executors.newSingleThreadExecutor();
+        closed.shutdown();
+        AsyncSmartHomeFacade stopped = new AsyncSmartHomeFacade(new Thermostat(), new Lights(), new CoffeeMaker(),
+                closed, AsyncSmartHomeFacade.DEFAULT_TIMEOUT_MILLIS);
+        boolean recorded;
+        try {
+            CompletableFuture<SceneResult> rejected = stopped.run(stopped.wakeUpScene());
+            recorded = !rejected.isCompletedExceptionally()
+                    && rejected.join().count(SceneResult.Status.FAILED) == rejected.join().getDevices().size();
+        } catch (RejectedExecutionException e) {
+            recorded = false; // run이 예외를 그대로 던짐
+        }
+        System.out.println("Rejected commands recorded as FAILED, scene completes normally: "
+                + (recorded ? "OK" : "FAILED"));
+        System.out.println("=====================================");
+    }
+
+    /**
+     * 기기 응답 대기 흉내 (인터럽트되면 즉시 중단)
+     */
+    private static void respond(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void printResult(SceneResult result) {
+        System.out.println(result);
+        for (SceneResult.DeviceResult device : result.getDevices()) {
+            System.out.println("  " + device);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org._01_facade.ex01;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SceneResult - 장면 실행 결과 (기기별 결과를 모은 것)
+ *
+ * 기기 하나가 실패하거나 제한 시간을 넘겨도 나머지 기기의 결과는 그대로 담깁니다.
+ */
+public class SceneResult {
+    /**
+     * 기기별 실행 상태
+     */
+    public enum Status {
+        SUCCEEDED,  // 제한 시간 안에 완료
+        FAILED,     // 명령이 예외를 던짐
+        TIMED_OUT   // 제한 시간 초과 (명령 스레드에 인터럽트를 보냄)
+    }
+
+    /**
+     * 기기 하나의 결과
+     */
+    public static final class DeviceResult {
+        private final String device;
+        private final Status status;
+        private final long elapsedNanos;
+        private final Throwable error;  // FAILED일 때의 원인 (나머지는 null)
+
+        DeviceResult(String device, Status status, long elapsedNanos, Throwable error) {
+            this.device = device;
+            this.status = status;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getDevice() {
+            return device;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s (%.1f ms)%s", device, status, elapsedNanos / 1e6,
+                    error == null ? "" : " - " + error);
+        }
+    }
+
+    private final String scene;
+    private final List<DeviceResult> devices;
+    private final long elapsedNanos;
+
+    SceneResult(String scene, List<DeviceResult> devices, long elapsedNanos) {
+        this.scene = scene;
+        this.devices = Collections.unmodifiableList(devices);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getScene() {
+        return scene;
+    }
+
+    /**
+     * @return 기기별 결과 (장면에 추가한 순서)
+     */
+    public List<DeviceResult> getDevices() {
+        return devices;
+    }
+
+    /**
+     * @return 장면 전체 소요 시간 (가장 느린 기기 기준)
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public boolean allSucceeded() {
+        return count(Status.SUCCEEDED) == devices.size();
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        for (DeviceResult device : devices) {
+            if (device.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d devices, %d succeeded, %d failed, %d timed out in %.1f ms",
+                scene, devices.size(), count(Status.SUCCEEDED), count(Status.FAILED), count(Status.TIMED_OUT),
+                elapsedNanos / 1e6);
+    }
+}
@@ -10,6 +10,8 @@ package org._01_facade.ex01;
  * 이 클래스는 클라이언트가 각 기기의 세부적인 조작법을 알 필요 없이
  * 'wakeUp()', 'leaveHome()' 같은 직관적인 메서드를 통해
  * 여러 기기를 한번에 제어할 수 있게 해줍니다.
+ *
+ * 기기는 차례로 호출됩니다. 기기를 동시에 제어하려면 AsyncSmartHomeFacade를 사용하세요.
  */
 public class SmartHomeFacade {
     // 서브시스템 컴포넌트들을 private으로 캡슐화
@@ -0,0 +1,155 @@
+package org._09_proxy.ex01;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 로딩된 RealImage를 파일 이름별로 공유하는 크기 제한 캐시
+ *
+ * 여러 ProxyImage가 같은 파일을 가리키면 RealImage는 한 번만 로딩되어 공유됩니다.
+ * 캐시는 완성된 이미지가 아니라 로딩 작업(CompletableFuture)을 보관하므로,
+ * 로딩이 끝나기 전에 같은 파일을 요청한 호출들도 진행 중인 로딩 하나에 합류합니다.
+ *
+ * 핵심:
+ * - 로딩은 백그라운드 실행기에서 수행 (요청 스레드는 잠금을 잡은 채 기다리지 않음)
+ * - 같은 파일의 동시 요청은 로딩 한 번으로 합쳐짐 (coalescing)
+ * - 최대 개수를 넘으면 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+ * - 로딩이 실패하면 항목을 지워 다음 요청이 다시 시도할 수 있게 함
+ *
+ * ProxyImage는 로딩 작업을 약한 참조로만 들고 있으므로, 캐시에서 제거된 이미지는
+ * 표시 중이 아니면 GC가 회수할 수 있고 다음 요청에서 다시 로딩됩니다.
+ *
+ * 직접 만든 캐시는 다 쓰면 close()로 로딩 스레드를 정리해야 합니다. (공용 캐시 shared()는 닫지 않음)
+ */
+class ImageCache implements AutoCloseable {
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, CompletableFuture<RealImage>> entries;
+    private final ExecutorService loader;
+    private final Function<String, RealImage> loadFunction;
+
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    /**
+     * 모든 ProxyImage가 기본으로 공유하는 캐시 (처음 사용할 때 생성)
+     */
+    private static class Holder {
+        static final ImageCache SHARED = new ImageCache(DEFAULT_CAPACITY, RealImage::new);
+    }
+
+    /**
+     * @param capacity 보관할 최대 이미지 수
+     * @param loadFunction 파일 이름으로 RealImage를 로딩하는 함수 (백그라운드 스레드에서 호출)
+     */
+    ImageCache(int capacity, Function<String, RealImage> loadFunction) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.loadFunction = loadFunction;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<RealImage>> eldest) {
+                boolean evict = size() > capacity;
+                if (evict) {
+                    evictions++;
+                }
+                return evict;
+            }
+        };
+        AtomicInteger threads = new AtomicInteger();
+        this.loader = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), task -> {
+            Thread thread = new Thread(task, "image-loader-" + threads.incrementAndGet());
+            thread.setDaemon(true); // 로딩 중이어도 프로그램 종료를 막지 않음
+            return thread;
+        });
+    }
+
+    static ImageCache shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * 파일의 로딩 작업을 반환 (없으면 백그라운드 로딩을 시작)
+     *
+     * @param fileName 이미지 파일 이름
+     * @return 로딩이 끝나면 RealImage로 완료되는 작업 (이미 로딩되었으면 완료된 상태)
+     */
+    CompletableFuture<RealImage> load(String fileName) {
+        CompletableFuture<RealImage> future;
+        synchronized (this) {
+            future = entries.get(fileName);
+            if (future != null) {
+                hits++;
+                return future;
+            }
+            misses++;
+            future = new CompletableFuture<>();
+            entries.put(fileName, future);
+        }
+
+        // 잠금 밖에서 로딩 시작
+        CompletableFuture<RealImage> pending = future;
+        try {
+            loader.execute(() -> {
+                try {
+                    pending.complete(loadFunction.apply(fileName));
+                } catch (RuntimeException | Error e) {
+                    fail(fileName, pending, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(fileName, pending, e); // 이미 닫힌 캐시
+        }
+        return future;
+    }
+
+    /**
+     * 실패한 로딩은 캐시에 남기지 않음 (다음 요청이 다시 시도)
+     */
+    private void fail(String fileName, CompletableFuture<RealImage> pending, Throwable cause) {
+        synchronized (this) {
+            entries.remove(fileName, pending);
+        }
+        pending.completeExceptionally(cause);
+    }
+
+    /**
+     * 로딩 스레드를 정리 (이미 시작한 로딩은 끝까지 진행, 이후 새 로딩은 실패)
+     */
+    @Override
+    public void close() {
+        loader.shutdown();
+    }
+
+    /**
+     * @return 캐시에 있는 이미지(로딩 중 포함) 수
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return 요청 수, 적중/미스, 제거 수 요약
+     */
+    synchronized String describe() {
+        int requests = hits + misses;
+        return String.format("requests=%d, hits=%d (%.1f%%), loads=%d, evictions=%d, cached=%d",
+                requests, hits, requests == 0 ? 0.0 : 100.0 * hits / requests, misses, evictions, entries.size());
+    }
+
+    synchronized int getHitCount() {
+        return hits;
+    }
+
+    synchronized int getLoadCount() {
+        return misses;
+    }
+}
@@ -0,0 +1,144 @@
+package org._09_proxy.ex01;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * ImageLoadBenchmark - 공유 캐시와 비동기 로딩의 효과 측정
+ *
+ * 디스크 읽기를 LATENCY_MS만큼 잠드는 것으로 흉내 내고, 여러 스레드가 같은 파일들을 표시할 때:
+ * - 캐시 없음: 프록시마다 RealImage를 따로 로딩 (기존 방식)
+ * - 공유 캐시: 같은 파일은 한 번만 로딩하고, 동시 요청은 진행 중인 로딩에 합류
+ * - 미리 불러오기: 모든 프록시의 loadAsync를 먼저 호출한 뒤 기다림 (로딩이 겹쳐 진행됨)
+ * 의 경과 시간과 로딩 횟수를 비교하고, 같은 파일의 프록시들이 RealImage 하나를 공유하는지 확인합니다.
+ * 마지막으로 캐시에서 제거된 이미지가 프록시가 살아 있어도 회수되고, 다시 요청하면 로딩되는지 확인합니다.
+ */
+public class ImageLoadBenchmark {
+    private static final int FILES = 8;
+    private static final int THREADS = 4;
+    private static final int LATENCY_MS = 20;
+
+    public static void main(String[] args) throws Exception {
+        String[] files = new String[FILES];
+        for (int i = 0; i < FILES; i++) {
+            files[i] = "gallery-" + i + ".jpg";
+        }
+        Function<String, RealImage> slowDisk = fileName -> {
+            sleep(LATENCY_MS);
+            return new RealImage(fileName);
+        };
+
+        System.out.println("=== 이미지 로딩 벤치마크 ===");
+
+        // 1. 캐시 없음: 스레드마다 모든 파일을 직접 로딩
+        long start = System.nanoTime();
+        runThreads(files, slowDisk);
+        long uncached = System.nanoTime() - start;
+
+        // 2. 공유 캐시: 스레드마다 새 프록시를 만들어도 파일당 한 번만 로딩
+        ImageCache cache = new ImageCache(FILES, slowDisk);
+        start = System.nanoTime();
+        List<RealImage> shared = runThreads(files, fileName -> new ProxyImage(fileName, cache).loadAsync().join());
+        long cached = System.nanoTime() - start;
+        String cacheStats = cache.describe();
+
+        // 3. 미리 불러오기: 로딩을 모두 시작한 뒤 기다림
+        ImageCache prefetchCache = new ImageCache(FILES, slowDisk);
+        start = System.nanoTime();
+        List<CompletableFuture<RealImage>> loads = new ArrayList<>();
+        for (String file : files) {
+            loads.add(new ProxyImage(file, prefetchCache).loadAsync());
+        }
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).join();
+        long prefetched = System.nanoTime() - start;
+
+        System.out.printf("No cache        | %6.1f ms | loads=%d%n", uncached / 1e6, THREADS * FILES);
+        System.out.printf("Shared cache    | %6.1f ms | %s%n", cached / 1e6, cacheStats);
+        System.out.printf("Prefetch async  | %6.1f ms | loads=%d (sequential would take ~%d ms)%n",
+                prefetched / 1e6, prefetchCache.getLoadCount(), FILES * LATENCY_MS);
+
+        Map<RealImage, Boolean> distinct = new IdentityHashMap<>();
+        for (RealImage image : shared) {
+            distinct.put(image, Boolean.TRUE);
+        }
+        System.out.println("One RealImage per file: " + (distinct.size() == FILES ? "OK" : "FAILED"));
+        cache.close();
+        prefetchCache.close();
+
+        // 4. 제거된 이미지 회수: 크기 1짜리 캐시에서 다른 파일을 로딩하면 첫 이미지가 밀려남
+        RealImage.setVerbose(false);
+        boolean freed;
+        boolean reloaded;
+        try (ImageCache small = new ImageCache(1, RealImage::new)) {
+            ProxyImage first = new ProxyImage(files[0], small);
+            WeakReference<RealImage> evicted = new WeakReference<>(first.loadAsync().join());
+            new ProxyImage(files[1], small).loadAsync().join();
+            freed = awaitCleared(evicted);
+            reloaded = first.loadAsync().join().getFileName().equals(files[0]) && small.getLoadCount() == 3;
+        }
+        RealImage.setVerbose(true);
+        System.out.println("Evicted image collectable while its proxy lives: " + (freed ? "OK" : "FAILED")
+                + ", reloaded on next request: " + (reloaded ? "OK" : "FAILED"));
+        System.out.println("============================");
+    }
+
+    /**
+     * 스레드마다 모든 파일을 차례로 로딩 (스레드마다 시작 파일을 달리함)
+     *
+     * @return 모든 스레드가 받은 이미지들
+     */
+    private static List<RealImage> runThreads(String[] files, Function<String, RealImage> load) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<RealImage>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * files.length / THREADS;
+            futures.add(pool.submit(() -> {
+                start.await();
+                List<RealImage> images = new ArrayList<>();
+                for (int i = 0; i < files.length; i++) {
+                    images.add(load.apply(files[(offset + i) % files.length]));
+                }
+                return images;
+            }));
+        }
+        start.countDown();
+
+        List<RealImage> images = new ArrayList<>();
+        for (Future<List<RealImage>> future : futures) {
+            images.addAll(future.get());
+        }
+        pool.shutdown();
+        return images;
+    }
+
+    /**
+     * GC를 요청하며 참조가 회수될 때까지 잠시 기다림
+     *
+     * @return 회수되었으면 true
+     */
+    private static boolean awaitCleared(WeakReference<?> reference) {
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            sleep(10);
+        }
+        return reference.get() == null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org._09_proxy.ex01;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * PrefetchBenchmark - 갤러리 미리 불러오기의 적중률과 절약 시간 측정
+ *
+ * 느린 디스크(DISK_MS)에서 이미지를 읽는 갤러리를 여러 방식으로 넘겨 보며,
+ * 미리 불러오기 창 크기(0 = 미리 불러오기 없음)별로 적중률과 기다린 시간을 비교합니다.
+ * 사용자는 이미지마다 THINK_MS 동안 머문다고 가정합니다. (그동안 다음 이미지가 로딩됨)
+ *
+ * 넘기는 방식:
+ * - forward: 처음부터 끝까지 한 장씩
+ * - backward: 끝에서 처음으로 한 장씩
+ * - every 2nd: 두 장씩 건너뛰며
+ * - random: 임의 위치로 이동 (예측이 맞지 않는 경우)
+ *
+ * 끝으로 캐시에서 밀려난 이미지를 다시 보면 miss로 집계되는지,
+ * 갤러리를 닫은 뒤 로딩 스레드가 남지 않는지 확인합니다.
+ */
+public class PrefetchBenchmark {
+    private static final int IMAGES = 40;
+    private static final long DISK_MS = 15;
+    private static final long THINK_MS = 10;
+    private static final int[] WINDOWS = {0, 1, 3, 6};
+
+    public static void main(String[] args) {
+        RealImage.setVerbose(false);
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < IMAGES; i++) {
+            files.add("gallery-" + i + ".jpg");
+        }
+
+        System.out.println("=== 갤러리 미리 불러오기 벤치마크 ===");
+        System.out.printf("Images: %d, disk %d ms/read, think time %d ms/view%n", IMAGES, DISK_MS, THINK_MS);
+        for (String pattern : new String[]{"forward", "backward", "every 2nd", "random"}) {
+            int[] order = order(pattern);
+            for (int window : WINDOWS) {
+                try (PrefetchingGallery gallery = new PrefetchingGallery(files, window, new SimulatedDisk(DISK_MS))) {
+                    for (int index : order) {
+                        gallery.open(index);
+                        sleep(THINK_MS);
+                    }
+                    System.out.printf("%-9s window=%d | %s%n", pattern, window, gallery.describe());
+                }
+            }
+        }
+
+        evictedReview();
+        int leftover = liveLoaderThreads();
+        System.out.println("Loader threads left after closing galleries: " + leftover
+                + " " + (leftover == 0 ? "OK" : "FAILED"));
+        RealImage.setVerbose(true);
+        System.out.println("=====================================");
+    }
+
+    /**
+     * 크기 4짜리 캐시에서 첫 이미지를 본 뒤 다른 이미지들로 밀어내고 다시 봄
+     * (미리 불러오기가 없으므로 다시 본 것도 디스크를 기다린 miss여야 함)
+     */
+    private static void evictedReview() {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            files.add("evict-" + i + ".jpg");
+        }
+        try (PrefetchingGallery gallery = new PrefetchingGallery(files, 0, new SimulatedDisk(1), 4)) {
+            WeakReference<Image> first = new WeakReference<>(gallery.open(0));
+            for (int i = 1; i < files.size(); i++) {
+                gallery.open(i);
+            }
+            for (int i = 0; i < 50 && first.get() != null; i++) {
+                System.gc();
+                sleep(10);
+            }
+            gallery.open(0);
+            boolean ok = gallery.getLateCount() == 0 && gallery.getMissCount() == files.size() + 1;
+            System.out.println("Evicted image viewed again counts as miss: " + (ok ? "OK" : "FAILED")
+                    + " (" + gallery.describe() + ")");
+        }
+    }
+
+    /**
+     * @return 아직 살아 있는 이미지 로딩 스레드 수 (종료를 잠시 기다림)
+     */
+    private static int liveLoaderThreads() {
+        int live = 0;
+        for (int i = 0; i < 50; i++) {
+            live = 0;
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith("image-loader-")) {
+                    live++;
+                }
+            }
+            if (live == 0) {
+                break;
+            }
+            sleep(10);
+        }
+        return live;
+    }
+
+    private static int[] order(String pattern) {
+        int[] order;
+        switch (pattern) {
+            case "forward":
+                order = new int[IMAGES];
+                for (int i = 0; i < IMAGES; i++) {
+                    order[i] = i;
+                }
+                return order;
+            case "backward":
+                order = new int[IMAGES];
+                for (int i = 0; i < IMAGES; i++) {
+                    order[i] = IMAGES - 1 - i;
+                }
+                return order;
+            case "every 2nd":
+                order = new int[IMAGES / 2];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i * 2;
+                }
+                return order;
+            default:
+                Random random = new Random(11);
+                order = new int[IMAGES];
+                for (int i = 0; i < IMAGES; i++) {
+                    order[i] = random.nextInt(IMAGES);
+                }
+                return order;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org._09_proxy.ex01;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 갤러리 단위의 프록시 관리자 - 다음에 볼 이미지를 미리 불러옴
+ *
+ * 갤러리의 이미지마다 ProxyImage를 두고, 사용자가 이미지를 볼 때마다
+ * 지금까지의 이동 방향과 간격으로 다음에 볼 이미지들을 예측하여 백그라운드에서 미리 로딩합니다.
+ * 예측이 맞으면 그 이미지를 볼 때 디스크를 기다리지 않습니다.
+ *
+ * 예측 규칙:
+ * - 직전 이미지에서 이번 이미지로 이동한 간격(stride)이 같은 방향으로 이어진다고 가정
+ * - 처음 보거나, 같은 이미지를 다시 보거나, 간격이 MAX_STRIDE보다 크면 (점프) 앞쪽으로 한 칸씩
+ * - 예측 위치 중 앞에서부터 window개까지만 미리 로딩 (bounded prefetch window)
+ *
+ * 통계:
+ * - hit: 볼 때 이미 로딩이 끝나 있음 / late: 미리 로딩 중이라 남은 시간만 기다림 / miss: 미리 로딩하지 않음
+ * - 절약한 시간 = 모든 조회가 디스크를 기다렸을 시간(평균 읽기 시간 × 조회 수) - 실제로 기다린 시간
+ *   (다시 본 이미지가 캐시에 남아 있어 줄어든 시간도 포함)
+ *
+ * 요청 여부는 위치가 아니라 로딩 작업(CompletableFuture)마다 기억합니다.
+ * 캐시에서 밀려난 이미지를 다시 보면 새 로딩이 시작되므로 late가 아니라 miss로 집계됩니다.
+ * (약한 참조로 기억하므로 밀려난 작업을 붙잡아 두지 않음)
+ *
+ * 갤러리는 자신의 캐시(로딩 스레드 포함)를 가지므로 다 쓰면 close()로 정리해야 합니다.
+ *
+ * 화면 스레드 하나에서 사용한다고 가정하므로 스레드 안전하지 않습니다. (로딩만 백그라운드에서 진행)
+ */
+class PrefetchingGallery implements AutoCloseable {
+    /**
+     * 이보다 멀리 이동하면 규칙적인 넘김이 아니라 점프로 봄
+     */
+    static final int MAX_STRIDE = 8;
+
+    private final List<ProxyImage> images = new ArrayList<>();
+    private final int window;
+    private final SimulatedDisk disk;
+    private final ImageCache cache;
+
+    // 이미 요청한 로딩 작업들 (CompletableFuture는 동일성으로 비교)
+    private final Set<CompletableFuture<RealImage>> requested = Collections.newSetFromMap(new WeakHashMap<>());
+    private int lastIndex = -1;
+    private int stride = 1;
+
+    private int views;
+    private int hits;
+    private int late;
+    private int misses;
+    private int prefetches;
+    private long waitedNanos;
+
+    /**
+     * @param fileNames 갤러리 순서대로의 이미지 파일들
+     * @param window 한 번에 미리 불러올 최대 이미지 수
+     * @param disk 이미지를 읽을 디스크
+     */
+    PrefetchingGallery(List<String> fileNames, int window, SimulatedDisk disk) {
+        // 미리 불러온 이미지가 보기 전에 밀려나지 않도록 창보다 넉넉하게 보관
+        this(fileNames, window, disk, Math.max(ImageCache.DEFAULT_CAPACITY, window * 4));
+    }
+
+    /**
+     * @param capacity 캐시에 보관할 최대 이미지 수
+     */
+    PrefetchingGallery(List<String> fileNames, int window, SimulatedDisk disk, int capacity) {
+        if (window < 0) {
+            throw new IllegalArgumentException("window must not be negative: " + window);
+        }
+        this.window = window;
+        this.disk = disk;
+        this.cache = new ImageCache(capacity, disk::read);
+        for (String fileName : fileNames) {
+            images.add(new ProxyImage(fileName, cache));
+        }
+    }
+
+    /**
+     * 이미지를 보여줌 (로딩이 끝날 때까지 기다린 뒤 표시)
+     *
+     * @param index 갤러리 위치
+     */
+    void show(int index) {
+        open(index).display();
+    }
+
+    /**
+     * 이미지를 볼 수 있게 준비 (표시는 하지 않음)
+     *
+     * 기다리기 전에 다음 이미지들의 미리 불러오기를 먼저 시작하므로,
+     * 현재 이미지를 기다리는 동안에도 다음 이미지들이 함께 로딩됩니다.
+     *
+     * @param index 갤러리 위치
+     * @return 로딩이 끝난 이미지
+     */
+    Image open(int index) {
+        ProxyImage proxy = images.get(index);
+        boolean ready = proxy.isLoaded();
+        CompletableFuture<RealImage> loading = proxy.loadAsync();
+        boolean prefetched = !requested.add(loading); // 이미 요청한 작업이면 미리 불러온 것
+
+        learn(index);
+        prefetch(index);
+
+        long start = System.nanoTime();
+        RealImage image;
+        try {
+            image = loading.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : e;
+        }
+        waitedNanos += System.nanoTime() - start;
+
+        views++;
+        if (ready) {
+            hits++;
+        } else if (prefetched) {
+            late++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /**
+     * 직전 위치와 비교하여 이동 간격 갱신
+     */
+    private void learn(int index) {
+        if (lastIndex >= 0) {
+            int step = index - lastIndex;
+            stride = step == 0 || Math.abs(step) > MAX_STRIDE ? 1 : step;
+        }
+        lastIndex = index;
+    }
+
+    /**
+     * 예측한 다음 위치들 중 아직 요청하지 않은 이미지의 로딩을 시작
+     * (이미 요청했으면 프록시가 같은 작업을 돌려주므로 새로 세지 않음)
+     */
+    private void prefetch(int index) {
+        for (int k = 1; k <= window; k++) {
+            int next = index + stride * k;
+            if (next < 0 || next >= images.size()) {
+                break;
+            }
+            if (requested.add(images.get(next).loadAsync())) {
+                prefetches++;
+            }
+        }
+    }
+
+    int size() {
+        return images.size();
+    }
+
+    int getLateCount() {
+        return late;
+    }
+
+    int getMissCount() {
+        return misses;
+    }
+
+    /**
+     * 갤러리의 캐시와 로딩 스레드를 정리
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+    /**
+     * @return 조회당 평균 대기 시간과 절약한 시간을 포함한 통계 요약
+     */
+    String describe() {
+        long withoutPrefetch = views * disk.averageReadNanos();
+        return String.format("views=%d, hits=%d, late=%d, misses=%d (hit rate %.1f%%), prefetched=%d, "
+                        + "waited=%.1f ms (%.2f ms/view), saved=%.1f ms",
+                views, hits, late, misses, views == 0 ? 0.0 : 100.0 * hits / views, prefetches,
+                waitedNanos / 1e6, views == 0 ? 0.0 : waitedNanos / 1e6 / views,
+                (withoutPrefetch - waitedNanos) / 1e6);
+    }
+}
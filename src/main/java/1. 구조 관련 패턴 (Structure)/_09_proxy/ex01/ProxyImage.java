@@ -1,33 +1,92 @@
 package org._09_proxy.ex01;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Proxy 클래스
  * - RealSubject에 대한 대리자 역할
  * - 실제 객체 생성을 필요한 시점까지 지연시킴 (Lazy Initialization)
  * - 클라이언트의 요청을 제어하고 관리
+ *
+ * 로딩은 ImageCache의 백그라운드 실행기에서 수행되며,
+ * 같은 파일을 가리키는 프록시들은 캐시를 통해 RealImage 하나를 공유합니다.
+ * - loadAsync(): 기다리지 않고 로딩만 시작 (미리 불러오기)
+ * - display(): 로딩이 끝날 때까지 기다린 뒤 표시
+ * 여러 스레드가 동시에 처음 호출해도 로딩은 한 번만 일어납니다.
+ *
+ * 로딩 작업은 약한 참조로만 기억합니다. 캐시가 항목을 보관하는 동안은 그대로 재사용하고,
+ * 캐시에서 제거되어 회수되면 다음 호출에서 캐시에 다시 요청합니다.
+ * (프록시가 살아 있어도 캐시의 크기 제한이 실제 메모리를 제한함)
  */
 class ProxyImage implements Image {
-    private RealImage realImage;  // 실제 객체에 대한 참조 (지연 생성)
-    private String fileName;      // 실제 객체 생성을 위해 필요한 정보
+    private volatile WeakReference<CompletableFuture<RealImage>> realImage;  // 실제 객체의 로딩 작업 (지연 생성)
+    private final String fileName;  // 실제 객체 생성을 위해 필요한 정보
+    private final ImageCache cache; // 로딩된 이미지를 공유하는 캐시
 
     public ProxyImage(String fileName) {
+        this(fileName, ImageCache.shared());
+    }
+
+    ProxyImage(String fileName, ImageCache cache) {
         this.fileName = fileName;
+        this.cache = cache;
         // RealImage 객체는 실제 필요한 시점까지 생성하지 않음
     }
 
     /**
      * display() 호출 시 실제 객체를 생성하고 작업을 위임
-     * - 처음 호출 시에만 RealImage 객체를 생성 (Lazy Loading)
-     * - 이후 호출에서는 기존 객체를 재사용
+     * - 처음 호출 시에만 RealImage 로딩을 요청 (Lazy Loading)
+     * - 이후 호출에서는 기존 객체를 재사용 (캐시에서 제거되어 회수되었으면 다시 요청)
      */
     @Override
     public void display() {
-        if (realImage == null) {
-            // 실제로 필요한 시점에 RealImage 객체 생성
-            realImage = new RealImage(fileName);
+        RealImage image;
+        try {
+            image = loadAsync().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : e;
         }
         // 실제 작업을 RealImage에 위임
-        realImage.display();
+        image.display();
+    }
+
+    /**
+     * 기다리지 않고 백그라운드 로딩을 시작
+     *
+     * @return 로딩이 끝나면 완료되는 작업 (이미 로딩되었으면 완료된 상태)
+     */
+    public CompletableFuture<RealImage> loadAsync() {
+        CompletableFuture<RealImage> loading = current();
+        if (loading == null || loading.isCompletedExceptionally()) {
+            synchronized (this) {
+                loading = current();
+                if (loading == null || loading.isCompletedExceptionally()) { // 회수되었거나 실패했으면 다시 요청
+                    loading = cache.load(fileName);
+                    realImage = new WeakReference<>(loading);
+                }
+            }
+        }
+        return loading;
+    }
+
+    /**
+     * @return 기억하고 있는 로딩 작업 (요청한 적이 없거나 회수되었으면 null)
+     */
+    private CompletableFuture<RealImage> current() {
+        WeakReference<CompletableFuture<RealImage>> reference = realImage;
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * @return 로딩이 끝나 바로 표시할 수 있으면 true
+     */
+    public boolean isLoaded() {
+        CompletableFuture<RealImage> loading = current();
+        return loading != null && loading.isDone() && !loading.isCompletedExceptionally();
     }
 
     /**
@@ -38,4 +97,4 @@ class ProxyImage implements Image {
     public String getFileName() {
         return fileName;
     }
-}
\ No newline at end of file
+}
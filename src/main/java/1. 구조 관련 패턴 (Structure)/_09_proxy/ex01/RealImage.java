@@ -6,6 +6,13 @@ package org._09_proxy.ex01;
  * - 비용이 큰 작업(이미지 로딩)을 포함
  */
 class RealImage implements Image {
+    /**
+     * 로딩 로그 출력 여부 (기본값 true)
+     *
+     * 벤치마크처럼 이미지를 대량으로 로딩할 때는 끌 수 있습니다.
+     */
+    private static volatile boolean verbose = true;
+
     private String fileName;
 
     public RealImage(String fileName) {
@@ -13,12 +20,22 @@ class RealImage implements Image {
         loadFromDisk(); // 생성자에서 즉시 디스크에서 이미지를 로드
     }
 
+    public static void setVerbose(boolean enabled) {
+        verbose = enabled;
+    }
+
+    public static boolean isVerbose() {
+        return verbose;
+    }
+
     /**
      * 실제로 비용이 큰 작업을 수행하는 메소드
      * - 디스크에서 이미지 파일을 읽어오는 작업을 시뮬레이션
      */
     private void loadFromDisk() {
-        System.out.println("Loading " + fileName);
+        if (verbose) {
+            System.out.println("Loading " + fileName);
+        }
     }
 
     /**
@@ -0,0 +1,54 @@
+package org._09_proxy.ex01;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 느린 디스크를 흉내 내는 이미지 로더
+ *
+ * 이미지를 읽을 때마다 지정한 시간만큼 잠든 뒤 RealImage를 만듭니다.
+ * 실제 걸린 읽기 횟수와 시간을 모아 두므로, 미리 불러오기가 줄여 준 대기 시간을
+ * "프리페치가 없었다면 기다렸을 시간"과 비교할 수 있습니다.
+ *
+ * ImageCache의 로딩 함수로 사용합니다: new ImageCache(capacity, disk::read)
+ */
+class SimulatedDisk {
+    private final long latencyMillis;
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+
+    /**
+     * @param latencyMillis 이미지 하나를 읽는 데 걸리는 시간 (밀리초)
+     */
+    SimulatedDisk(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * 이미지를 디스크에서 읽음 (호출한 스레드가 읽는 시간만큼 멈춤)
+     */
+    RealImage read(String fileName) {
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading " + fileName, e);
+        }
+        RealImage image = new RealImage(fileName);
+        reads.incrementAndGet();
+        readNanos.addAndGet(System.nanoTime() - start);
+        return image;
+    }
+
+    long getReadCount() {
+        return reads.get();
+    }
+
+    /**
+     * @return 읽기 한 번의 평균 시간 (나노초, 읽은 적이 없으면 설정한 지연 시간)
+     */
+    long averageReadNanos() {
+        long count = reads.get();
+        return count == 0 ? latencyMillis * 1_000_000 : readNanos.get() / count;
+    }
+}
@@ -0,0 +1,174 @@
+package org._09_proxy.ex02;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 계좌 엔진 - 여러 계좌를 계좌 번호로 관리하는 동시 처리용 저장소
+ *
+ * 계좌마다 RealBankAccount 하나를 두고, 거래는 해당 계좌의 잔액 CAS로만 처리합니다.
+ * 엔진 전체나 계좌 단위의 잠금이 없으므로 서로 다른 계좌의 거래는 서로 기다리지 않고,
+ * 같은 계좌(인기 계좌)에 거래가 몰려도 실패한 CAS만 다시 시도합니다.
+ *
+ * 핵심:
+ * - 계좌 조회: ConcurrentHashMap (잠금 없는 읽기)
+ * - 금액: 최소 단위 long (Money)
+ * - 출금의 잔액 확인과 차감은 원자적 (잔액은 음수가 되지 않음)
+ *
+ * BankAccountProxy는 엔진의 계좌를 감싸서 인증/로깅을 추가할 수 있습니다.
+ *
+ * open(path, policy)로 만든 엔진은 계좌 개설과 모든 거래를 TransactionLedger에 기록하고,
+ * 다시 열 때 원장을 재생하여 잔액을 복원합니다.
+ */
+class AccountEngine implements AutoCloseable {
+    private final ConcurrentMap<String, RealBankAccount> accounts = new ConcurrentHashMap<>();
+    private final TransactionLedger ledger; // null이면 메모리에만 보관
+
+    AccountEngine() {
+        this(null);
+    }
+
+    private AccountEngine(TransactionLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * 원장 파일을 사용하는 엔진 생성
+     *
+     * 원장을 재생하여 계좌별 잔액을 먼저 합산한 뒤, 최종 잔액으로 계좌를 한 번씩만 만듭니다.
+     *
+     * @param ledgerPath 원장 파일 (없으면 새로 만듦)
+     * @param policy fsync 정책
+     * @return 복원된 엔진
+     * @throws IOException 원장을 읽거나 만들 수 없는 경우
+     */
+    static AccountEngine open(Path ledgerPath, TransactionLedger.FsyncPolicy policy) throws IOException {
+        Map<String, long[]> balances = new LinkedHashMap<>();
+        TransactionLedger ledger = TransactionLedger.open(ledgerPath, policy, new TransactionLedger.Replayer() {
+            @Override
+            public void opened(String accountNumber, long initialMinor) {
+                balances.put(accountNumber, new long[]{initialMinor});
+            }
+
+            @Override
+            public void applied(String accountNumber, long deltaMinor) {
+                balances.get(accountNumber)[0] += deltaMinor;
+            }
+        });
+
+        AccountEngine engine = new AccountEngine(ledger);
+        for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+            engine.accounts.put(entry.getKey(), new RealBankAccount(entry.getKey(), entry.getValue()[0], ledger));
+        }
+        return engine;
+    }
+
+    /**
+     * 계좌 개설
+     *
+     * @param accountNumber 계좌 번호
+     * @param initialMinor 초기 잔액 (최소 단위)
+     * @return 개설된 계좌
+     * @throws IllegalStateException 이미 있는 계좌 번호인 경우
+     */
+    RealBankAccount open(String accountNumber, long initialMinor) {
+        RealBankAccount account = new RealBankAccount(accountNumber, initialMinor, ledger);
+        if (ledger == null) {
+            if (accounts.putIfAbsent(accountNumber, account) != null) {
+                throw new IllegalStateException("Account already exists: " + accountNumber);
+            }
+            return account;
+        }
+
+        // 원장이 중복을 거르고, 개설 레코드가 거래 레코드보다 먼저 기록되도록 등록 전에 추가
+        try {
+            ledger.checkWritable(); // 실패한 원장에는 계좌를 추가하지 않음
+            long seq = ledger.appendOpen(accountNumber, initialMinor);
+            accounts.put(accountNumber, account);
+            ledger.awaitDurable(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write transaction ledger", e);
+        }
+        return account;
+    }
+
+    /**
+     * @return 해당 번호의 계좌
+     * @throws IllegalArgumentException 없는 계좌 번호인 경우
+     */
+    RealBankAccount account(String accountNumber) {
+        RealBankAccount account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account: " + accountNumber);
+        }
+        return account;
+    }
+
+    /**
+     * @return 입금 후 잔액 (최소 단위)
+     */
+    long deposit(String accountNumber, long minor) {
+        return account(accountNumber).depositMinor(minor);
+    }
+
+    /**
+     * @return 출금 후 잔액 (최소 단위), 잔액이 부족하면 -1
+     */
+    long withdraw(String accountNumber, long minor) {
+        return account(accountNumber).tryWithdrawMinor(minor);
+    }
+
+    long balance(String accountNumber) {
+        return account(accountNumber).getBalanceMinor();
+    }
+
+    /**
+     * 모든 계좌 잔액의 합 (거래 중에 호출하면 계좌마다 읽은 시점이 다를 수 있음)
+     */
+    long totalBalance() {
+        long total = 0;
+        for (RealBankAccount account : accounts.values()) {
+            total = Math.addExact(total, account.getBalanceMinor());
+        }
+        return total;
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    Collection<RealBankAccount> accounts() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+
+    /**
+     * 엔진의 계좌를 감싸는 보호 프록시 생성
+     */
+    BankAccountProxy proxy(String accountNumber, String password) {
+        return new BankAccountProxy(account(accountNumber), password);
+    }
+
+    /**
+     * @return 원장 통계 (원장을 사용하지 않으면 그 사실을 반환)
+     */
+    String ledgerStats() {
+        return ledger == null ? "no ledger" : ledger.describe();
+    }
+
+    /**
+     * 남은 원장 레코드를 기록하고 파일을 닫음 (원장이 없으면 아무 일도 하지 않음)
+     */
+    @Override
+    public void close() throws IOException {
+        if (ledger != null) {
+            ledger.close();
+        }
+    }
+}
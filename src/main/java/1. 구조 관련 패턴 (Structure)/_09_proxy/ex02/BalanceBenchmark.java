@@ -0,0 +1,166 @@
+package org._09_proxy.ex02;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * BalanceBenchmark - 계좌 엔진의 동시 입출금 처리량과 정확성 측정
+ *
+ * ACCOUNTS개의 계좌에 여러 스레드가 입금/출금을 섞어 보내며 다음을 측정합니다.
+ * - uniform: 모든 계좌에 고르게 분산
+ * - hot: 거래의 90%가 인기 계좌 HOT_ACCOUNTS개에 몰림 (같은 잔액에 CAS 경쟁)
+ * - 비교 기준: 계좌마다 synchronized로 잠그는 방식
+ *
+ * 정확성 검증:
+ * - 모든 잔액의 합 = 초기 합 + 성공한 입금 - 성공한 출금 (갱신 손실 없음)
+ * - 음수 잔액 없음 (출금 확인과 차감이 원자적)
+ */
+public class BalanceBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int HOT_ACCOUNTS = 4;
+    private static final int OPS_PER_THREAD = 1_000_000;
+    private static final long INITIAL_MINOR = 10_000 * Money.SCALE;
+
+    /**
+     * 비교용: 잠금으로 보호하는 잔액
+     */
+    private static final class LockedBalance {
+        private long balance = INITIAL_MINOR;
+
+        synchronized void deposit(long minor) {
+            balance += minor;
+        }
+
+        synchronized boolean withdraw(long minor) {
+            if (balance < minor) {
+                return false;
+            }
+            balance -= minor;
+            return true;
+        }
+
+        synchronized long get() {
+            return balance;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        RealBankAccount.setVerbose(false);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== 계좌 엔진 동시 거래 벤치마크 ===");
+        System.out.printf("Accounts: %,d, ops/thread: %,d, cores: %d%n", ACCOUNTS, OPS_PER_THREAD, cores);
+        for (int i = 0; i < 4; i++) {
+            run(i % 2 == 1, 2, false); // 워밍업: JIT 컴파일
+        }
+
+        boolean correct = true;
+        for (boolean hot : new boolean[]{false, true}) {
+            for (int threads = 1; threads <= Math.max(4, cores * 2); threads *= 2) {
+                correct &= run(hot, threads, true);
+            }
+        }
+        System.out.println("Balances consistent, none negative: " + (correct ? "OK" : "FAILED"));
+        System.out.println("===================================");
+    }
+
+    /**
+     * 같은 거래 순서를 CAS 엔진과 잠금 방식에 각각 실행
+     * (계좌 번호 조회 비용은 빼고 잔액 갱신만 비교하도록 두 방식 모두 배열로 계좌를 찾음)
+     *
+     * @return CAS 엔진과 잠금 방식 모두 잔액 합이 맞고 음수 잔액이 없으면 true
+     */
+    private static boolean run(boolean hot, int threads, boolean report) throws Exception {
+        AccountEngine engine = new AccountEngine();
+        RealBankAccount[] accounts = new RealBankAccount[ACCOUNTS];
+        LockedBalance[] locked = new LockedBalance[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = engine.open(String.format("100-%06d", i), INITIAL_MINOR);
+            locked[i] = new LockedBalance();
+        }
+
+        long[] casNet = new long[1];
+        long casNanos = execute(threads, hot, (account, deposit, minor) -> {
+            if (deposit) {
+                accounts[account].depositMinor(minor);
+                return minor;
+            }
+            return accounts[account].tryWithdrawMinor(minor) >= 0 ? -minor : 0;
+        }, casNet);
+
+        long[] lockedNet = new long[1];
+        long lockedNanos = execute(threads, hot, (account, deposit, minor) -> {
+            if (deposit) {
+                locked[account].deposit(minor);
+                return minor;
+            }
+            return locked[account].withdraw(minor) ? -minor : 0;
+        }, lockedNet);
+
+        long expected = ACCOUNTS * INITIAL_MINOR;
+        boolean casOk = engine.totalBalance() == expected + casNet[0];
+        long lockedTotal = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            casOk &= accounts[i].getBalanceMinor() >= 0;
+            lockedTotal += locked[i].get();
+        }
+        boolean lockedOk = lockedTotal == expected + lockedNet[0];
+
+        if (report) {
+            long ops = (long) threads * OPS_PER_THREAD;
+            System.out.printf("%-7s threads=%2d | CAS %,12.0f ops/s | synchronized %,12.0f ops/s | %s%n",
+                    hot ? "hot" : "uniform", threads,
+                    ops / (casNanos / 1e9), ops / (lockedNanos / 1e9), casOk && lockedOk ? "OK" : "FAILED");
+        }
+        return casOk && lockedOk;
+    }
+
+    private interface Operation {
+        /**
+         * @return 잔액 합의 변화량 (실패한 출금은 0)
+         */
+        long apply(int account, boolean deposit, long minor);
+    }
+
+    /**
+     * @param net 성공한 거래로 인한 잔액 합의 변화량을 받을 배열
+     * @return 경과 시간 (나노초)
+     */
+    private static long execute(int threads, boolean hot, Operation operation, long[] net) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = 31L * t + 7;
+            futures.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                long change = 0;
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int account = hot && random.nextInt(10) < 9
+                            ? random.nextInt(HOT_ACCOUNTS)
+                            : random.nextInt(ACCOUNTS);
+                    boolean deposit = random.nextBoolean();
+                    // 출금액을 더 크게 하여 잔액 부족(실패)도 자주 일어나게 함
+                    long minor = (1 + random.nextInt(deposit ? 5_000 : 8_000)) * Money.SCALE;
+                    change += operation.apply(account, deposit, minor);
+                }
+                return change;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Long> future : futures) {
+            net[0] += future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+}
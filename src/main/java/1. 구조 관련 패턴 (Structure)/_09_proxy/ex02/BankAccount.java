@@ -1,12 +1,41 @@
 package org._09_proxy.ex02;
 
+import java.util.List;
+
 /**
  * Subject 인터페이스
  * - 은행 계좌의 기본 기능을 정의
  * - Proxy와 RealSubject가 공통으로 구현
+ *
+ * 일괄 거래(depositAll, transferAll)는 여러 건을 한 번의 호출로 처리하여
+ * 프록시의 인증/로깅과 원장 기록 대기를 건마다가 아니라 한 번만 치르게 합니다.
+ *
+ * 거래 원장(TransactionLedger)을 사용하는 계좌의 장애 시 보장:
+ * - 거래는 원장 레코드가 파일에 기록된 뒤에 반환 (반환된 거래는 다시 열어도 남음)
+ * - 기록이 실패하면 그 묶음에 들어 있던 거래는 UncheckedIOException을 던지며,
+ *   메모리 잔액에는 이미 반영되어 있을 수 있음 (파일에는 없을 수 있음)
+ * - 원장의 실패는 되돌릴 수 없으므로, 이후 그 원장의 계좌에 대한 입금/출금/이체는
+ *   잔액을 바꾸기 전에 UncheckedIOException으로 거부 (잔액 조회는 가능)
+ * - 다시 열면 파일에 기록된 거래까지만 복원
  */
 public interface BankAccount {
     void deposit(double amount);    // 입금
     void withdraw(double amount);   // 출금
     double getBalance();           // 잔액 조회
-}
\ No newline at end of file
+
+    /**
+     * 일괄 입금 (기본 구현: 한 건씩 deposit)
+     */
+    default void depositAll(double... amounts) {
+        for (double amount : amounts) {
+            deposit(amount);
+        }
+    }
+
+    /**
+     * 이 계좌에서 여러 계좌로 일괄 이체 (전부 성공하거나 전부 실패)
+     *
+     * @return 모두 이체되었으면 true
+     */
+    boolean transferAll(List<Transfer> transfers);
+}
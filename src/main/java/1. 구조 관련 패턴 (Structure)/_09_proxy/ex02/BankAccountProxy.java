@@ -1,46 +1,81 @@
 package org._09_proxy.ex02;
 
+import java.util.List;
+
 /**
  * Protection Proxy 클래스
  * - 실제 은행 계좌에 대한 접근을 제어
  * - 인증, 권한 검사, 로깅 등의 부가 기능 제공
  * - 보안이 중요한 금융 서비스에서 활용
+ *
+ * 원장을 사용하는 AccountEngine의 계좌를 감싸면(AccountEngine.proxy),
+ * 입금/출금은 거래가 원장 파일에 기록된 뒤에 완료됩니다.
+ *
+ * 인증은 SessionManager에 맡깁니다.
+ * - authenticate: 느린 해시로 비밀번호를 검증하고 세션 토큰을 받음 (로그인할 때만 비용 발생)
+ * - 거래마다: 토큰이 유효한지 맵에서 한 번 조회 (만료되면 다시 인증 필요)
+ * - 실패 횟수는 계좌별로 관리자에 있으므로, 같은 계좌의 프록시를 여러 개 만들어도 잠금을 피할 수 없음
+ * - 계좌를 직접 만드는 공개 생성자는 프록시 전용 관리자를 쓰고,
+ *   AccountEngine의 계좌를 감싸는 프록시만 공용 관리자를 공유
+ *
+ * 일괄 거래(depositAll, transferAll)는 인증 확인과 거래 로그를 묶음당 한 번만 수행합니다.
  */
 public class BankAccountProxy implements BankAccount {
-    private RealBankAccount realAccount;    // 실제 계좌 객체 참조
-    private String userPassword;            // 사용자 비밀번호
-    private String correctPassword;         // 올바른 비밀번호
-    private boolean isAuthenticated;        // 인증 상태
-    private int failedAttempts;            // 실패 횟수
+    /**
+     * 안내/거래 로그 출력 여부 (기본값 true, 벤치마크에서는 끌 수 있음)
+     */
+    private static volatile boolean verbose = true;
+
+    private final RealBankAccount realAccount;  // 실제 계좌 객체 참조
+    private final SessionManager sessions;      // 비밀번호 검증 / 세션 / 잠금 관리
+    private volatile String sessionToken;       // 현재 세션 토큰 (인증 전이나 로그아웃 후에는 null)
 
     public BankAccountProxy(String accountNumber, double initialBalance, String password) {
-        this.correctPassword = password;
-        this.isAuthenticated = false;
-        this.failedAttempts = 0;
-        // 실제 계좌는 인증 후 필요시 생성 (Lazy Loading)
-        this.realAccount = new RealBankAccount(accountNumber, initialBalance);
-        System.out.println("계좌 프록시가 생성되었습니다. 사용하려면 인증이 필요합니다.");
+        // 새 계좌는 다른 프록시와 공유되지 않으므로 자신만의 세션 관리자를 사용
+        this(new RealBankAccount(accountNumber, initialBalance), password, new SessionManager(
+                SessionManager.DEFAULT_ITERATIONS, SessionManager.DEFAULT_TTL_MILLIS, SessionManager.DEFAULT_MAX_ATTEMPTS));
+    }
+
+    /**
+     * AccountEngine의 계좌를 감싸는 프록시 (공용 세션 관리자 사용)
+     *
+     * @throws IllegalStateException 계좌가 이미 다른 비밀번호로 등록된 경우
+     */
+    BankAccountProxy(RealBankAccount realAccount, String password) {
+        this(realAccount, password, SessionManager.shared());
+    }
+
+    /**
+     * @param password 계좌 비밀번호 (이미 등록된 계좌면 등록된 비밀번호와 같아야 함)
+     * @param sessions 인증에 사용할 세션 관리자
+     * @throws IllegalStateException 계좌가 이미 다른 비밀번호로 등록된 경우
+     */
+    BankAccountProxy(RealBankAccount realAccount, String password, SessionManager sessions) {
+        this.realAccount = realAccount;
+        this.sessions = sessions;
+        sessions.register(realAccount, password);
+        print("계좌 프록시가 생성되었습니다. 사용하려면 인증이 필요합니다.");
     }
 
     /**
      * 사용자 인증 메소드
-     * - 비밀번호 확인
-     * - 실패 횟수 관리
+     * - 비밀번호 확인 (성공하면 세션 토큰 발급)
+     * - 실패 횟수 관리 (계좌별)
      */
     public boolean authenticate(String password) {
-        if (failedAttempts >= 3) {
-            System.out.println("❌ 계좌가 잠겼습니다. 고객센터에 문의하세요.");
+        SessionManager.Login login = sessions.login(realAccount, password);
+        if (login.isLocked()) {
+            print("❌ 계좌가 잠겼습니다. 고객센터에 문의하세요.");
             return false;
         }
 
-        if (correctPassword.equals(password)) {
-            isAuthenticated = true;
-            failedAttempts = 0;
-            System.out.println("✅ 인증 성공!");
+        if (login.succeeded()) {
+            sessions.logout(sessionToken); // 이전 세션이 있으면 정리
+            sessionToken = login.getToken();
+            print("✅ 인증 성공!");
             return true;
         } else {
-            failedAttempts++;
-            System.out.println("❌ 인증 실패! 남은 시도 횟수: " + (3 - failedAttempts));
+            print("❌ 인증 실패! 남은 시도 횟수: " + login.getRemainingAttempts());
             return false;
         }
     }
@@ -49,18 +84,32 @@ public class BankAccountProxy implements BankAccount {
      * 인증 상태 확인 후 접근 제어
      */
     private boolean checkAuthentication() {
-        if (!isAuthenticated) {
-            System.out.println("🔒 접근 거부: 인증이 필요합니다.");
+        if (!sessions.isValid(sessionToken, realAccount)) {
+            print("🔒 접근 거부: 인증이 필요합니다.");
             return false;
         }
         return true;
     }
 
+    public static void setVerbose(boolean enabled) {
+        verbose = enabled;
+    }
+
+    public static boolean isVerbose() {
+        return verbose;
+    }
+
+    private static void print(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
     /**
      * 로그 기록 메소드
      */
     private void logTransaction(String operation, double amount) {
-        System.out.println("📝 거래 로그: " + operation + " - " + amount + "원");
+        print("📝 거래 로그: " + operation + " - " + amount + "원");
     }
 
     /**
@@ -83,7 +132,7 @@ public class BankAccountProxy implements BankAccount {
 
         // 추가 보안: 큰 금액 출금 시 추가 확인
         if (amount > 1000000) {
-            System.out.println("⚠️ 고액 출금 경고: 100만원 초과 출금은 별도 인증이 필요합니다.");
+            print("⚠️ 고액 출금 경고: 100만원 초과 출금은 별도 인증이 필요합니다.");
             return;
         }
 
@@ -102,11 +151,57 @@ public class BankAccountProxy implements BankAccount {
         return realAccount.getBalance();
     }
 
+    /**
+     * 일괄 입금 - 인증 확인과 로그를 한 번만 수행한 뒤 위임
+     */
+    @Override
+    public void depositAll(double... amounts) {
+        if (!checkAuthentication()) return;
+
+        double total = 0;
+        for (double amount : amounts) {
+            total += amount;
+        }
+        logTransaction("일괄 입금 시도 (" + amounts.length + "건)", total);
+        realAccount.depositAll(amounts);
+    }
+
+    /**
+     * 일괄 이체 - 인증 확인과 고액 검사를 한 번에 수행한 뒤 위임
+     *
+     * 받는 계좌는 프록시여도 인증이 필요 없습니다. (보내는 계좌의 인증만 확인)
+     */
+    @Override
+    public boolean transferAll(List<Transfer> transfers) {
+        if (!checkAuthentication()) return false;
+
+        double total = 0;
+        for (Transfer transfer : transfers) {
+            // 단건 출금과 같은 기준: 한 건이라도 100만원을 넘으면 묶음 전체 거부
+            if (transfer.getAmount() > 1000000) {
+                print("⚠️ 고액 이체 경고: 100만원 초과 이체는 별도 인증이 필요합니다.");
+                return false;
+            }
+            total += transfer.getAmount();
+        }
+
+        logTransaction("일괄 이체 시도 (" + transfers.size() + "건)", total);
+        return realAccount.transferAll(transfers);
+    }
+
+    /**
+     * @return 감싼 실제 계좌 (이체를 받을 때 사용)
+     */
+    RealBankAccount getRealAccount() {
+        return realAccount;
+    }
+
     /**
      * 로그아웃 기능
      */
     public void logout() {
-        isAuthenticated = false;
-        System.out.println("🚪 로그아웃 되었습니다.");
+        sessions.logout(sessionToken);
+        sessionToken = null;
+        print("🚪 로그아웃 되었습니다.");
     }
 }
\ No newline at end of file
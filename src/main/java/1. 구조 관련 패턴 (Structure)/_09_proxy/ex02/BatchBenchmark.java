@@ -0,0 +1,280 @@
+package org._09_proxy.ex02;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatchBenchmark - 일괄 이체(급여 지급)와 여러 계좌 묶음 이체의 성능/정확성 측정
+ *
+ * 1. 급여: 회사 계좌 프록시 하나에서 직원 EMPLOYEES명에게 지급
+ *    - 건별: transferAll(이체 1건)을 직원 수만큼 호출 (건마다 인증 확인, 로그, 원장 기록 대기)
+ *    - 일괄: transferAll(전체 목록)을 한 번 호출 (상계 후 출금 1번, 원장 대기 1번)
+ *    원장 없음 / PERIODIC / EVERY_COMMIT 정책별로 비교
+ * 2. 교착/정확성: 여러 스레드가 겹치는 계좌들 사이의 묶음 이체(A→B와 B→A 포함)와
+ *    잠금 없는 단건 입출금을 섞어 실행한 뒤, 잔액 합 보존, 음수 잔액 없음, 원장 재생 결과를 확인
+ * 3. 장애 시점: 묶음 이체만 동시에 실행한 원장을 묶음(CRC 프레임) 경계와 프레임 중간에서 잘라 다시 열고,
+ *    어느 지점에서 끊겨도 잔액 합이 보존되는지 (이체가 반쯤 복원되지 않는지) 확인
+ */
+public class BatchBenchmark {
+    private static final int EMPLOYEES = 5_000;
+    private static final double SALARY = 3_000;
+    private static final String PASSWORD = "1234";
+    private static final SessionManager SESSIONS = new SessionManager(1, 60_000, 3);
+
+    private static final int MIXED_ACCOUNTS = 50;
+    private static final int MIXED_THREADS = 8;
+    private static final int MIXED_OPS_PER_THREAD = 20_000;
+    private static final long MIXED_INITIAL = 10_000 * Money.SCALE;
+
+    public static void main(String[] args) throws Exception {
+        RealBankAccount.setVerbose(false);
+        BankAccountProxy.setVerbose(false);
+        Path dir = Files.createTempDirectory("batch");
+
+        System.out.println("=== 일괄 이체 벤치마크 ===");
+        for (int i = 0; i < 5; i++) {
+            payroll(dir, null, false); // 워밍업: JIT 컴파일
+        }
+        boolean paid = payroll(dir, null, true);
+        paid &= payroll(dir, TransactionLedger.FsyncPolicy.PERIODIC, true);
+        paid &= payroll(dir, TransactionLedger.FsyncPolicy.EVERY_COMMIT, true);
+        System.out.println("Payroll balances: " + (paid ? "OK" : "FAILED"));
+
+        mixed(dir.resolve("mixed.ledger"));
+        crashCuts(dir.resolve("cuts.ledger"), dir.resolve("cut.ledger"));
+
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+        System.out.println("========================");
+    }
+
+    /**
+     * 건별 지급과 일괄 지급을 각각 새 엔진에서 실행
+     *
+     * @param policy 원장 fsync 정책 (null이면 원장 없이 메모리에서만)
+     * @return 두 방식 모두 회사/직원 잔액이 기대값과 같으면 true
+     */
+    private static boolean payroll(Path dir, TransactionLedger.FsyncPolicy policy, boolean report)
+            throws Exception {
+        String label = policy == null ? "no ledger" : "ledger " + policy;
+        long[] single = new long[1];
+        long[] batch = new long[1];
+        boolean ok = pay(dir.resolve("single.ledger"), policy, false, single)
+                & pay(dir.resolve("batch.ledger"), policy, true, batch);
+        if (report) {
+            System.out.printf("%-21s %,d payments | one by one %8.1f ms | batch %6.1f ms | x%,.0f%n",
+                    label, EMPLOYEES, single[0] / 1e6, batch[0] / 1e6, (double) single[0] / batch[0]);
+        }
+        return ok;
+    }
+
+    /**
+     * @param elapsed 지급에 걸린 시간(나노초)을 받을 배열
+     * @return 회사/직원 잔액이 기대값과 같으면 true
+     */
+    private static boolean pay(Path ledger, TransactionLedger.FsyncPolicy policy, boolean batched, long[] elapsed)
+            throws Exception {
+        try (AccountEngine engine = policy == null ? new AccountEngine() : AccountEngine.open(ledger, policy)) {
+            long initial = (long) (EMPLOYEES * SALARY * 2) * Money.SCALE;
+            BankAccountProxy company = new BankAccountProxy(engine.open("900-000000", initial), PASSWORD, SESSIONS);
+            company.authenticate(PASSWORD);
+            List<Transfer> transfers = new ArrayList<>(EMPLOYEES);
+            for (int i = 0; i < EMPLOYEES; i++) {
+                transfers.add(new Transfer(engine.open(String.format("910-%06d", i), 0), SALARY));
+            }
+
+            long begin = System.nanoTime();
+            boolean done = true;
+            if (batched) {
+                done = company.transferAll(transfers);
+            } else {
+                for (Transfer transfer : transfers) {
+                    done &= company.transferAll(List.of(transfer));
+                }
+            }
+            elapsed[0] = System.nanoTime() - begin;
+
+            long salary = Money.toMinor(SALARY);
+            boolean ok = done && engine.balance("900-000000") == initial - EMPLOYEES * salary;
+            for (int i = 0; i < EMPLOYEES; i++) {
+                ok &= engine.balance(String.format("910-%06d", i)) == salary;
+            }
+            return ok;
+        } finally {
+            Files.deleteIfExists(ledger);
+        }
+    }
+
+    /**
+     * 묶음 이체와 단건 거래를 동시에 실행 (교착 상태가 생기면 제한 시간 안에 끝나지 않음)
+     */
+    private static void mixed(Path path) throws Exception {
+        Map<String, Long> expected = new HashMap<>();
+        long[] counts = new long[2]; // 성공한 묶음, 잔액 부족으로 거부된 묶음
+        boolean ok;
+        long elapsed;
+        try (AccountEngine engine = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE)) {
+            RealBankAccount[] accounts = new RealBankAccount[MIXED_ACCOUNTS];
+            for (int i = 0; i < MIXED_ACCOUNTS; i++) {
+                accounts[i] = engine.open(String.format("920-%06d", i), MIXED_INITIAL);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(MIXED_THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < MIXED_THREADS; t++) {
+                long seed = 13L * t + 5;
+                futures.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long[] result = new long[3]; // 성공, 거부, 단건 거래로 인한 잔액 합 변화
+                    start.await();
+                    for (int i = 0; i < MIXED_OPS_PER_THREAD; i++) {
+                        if (random.nextInt(4) == 0) {
+                            // 잠금 없는 단건 거래
+                            RealBankAccount account = accounts[random.nextInt(MIXED_ACCOUNTS)];
+                            long minor = (1 + random.nextInt(2_000)) * Money.SCALE;
+                            if (random.nextBoolean()) {
+                                account.depositMinor(minor);
+                                result[2] += minor;
+                            } else if (account.tryWithdrawMinor(minor) >= 0) {
+                                result[2] -= minor;
+                            }
+                            continue;
+                        }
+                        TransferBatch batch = new TransferBatch();
+                        int legs = 1 + random.nextInt(5);
+                        for (int leg = 0; leg < legs; leg++) {
+                            int from = random.nextInt(MIXED_ACCOUNTS);
+                            int to = random.nextInt(MIXED_ACCOUNTS);
+                            batch.add(accounts[from], accounts[to], (1 + random.nextInt(5_000)) * Money.SCALE);
+                            if (random.nextBoolean()) {
+                                batch.add(accounts[to], accounts[from], (1 + random.nextInt(5_000)) * Money.SCALE);
+                            }
+                        }
+                        result[batch.execute() ? 0 : 1]++;
+                    }
+                    return result;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            long net = 0;
+            for (Future<long[]> future : futures) {
+                long[] result = future.get(60, TimeUnit.SECONDS);
+                counts[0] += result[0];
+                counts[1] += result[1];
+                net += result[2];
+            }
+            elapsed = System.nanoTime() - begin;
+            pool.shutdown();
+
+            ok = engine.totalBalance() == MIXED_ACCOUNTS * MIXED_INITIAL + net;
+            for (RealBankAccount account : accounts) {
+                ok &= account.getBalanceMinor() >= 0;
+                expected.put(account.getAccountNumber(), account.getBalanceMinor());
+            }
+        }
+
+        boolean replayed = true;
+        try (AccountEngine reopened = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE)) {
+            for (Map.Entry<String, Long> entry : expected.entrySet()) {
+                replayed &= reopened.balance(entry.getKey()) == entry.getValue();
+            }
+        }
+        System.out.printf("Mixed: %d threads, %,d batches committed, %,d rejected (insufficient), %.1f ms%n",
+                MIXED_THREADS, counts[0], counts[1], elapsed / 1e6);
+        System.out.println("No deadlock, total conserved, none negative: " + (ok ? "OK" : "FAILED")
+                + ", ledger replay: " + (replayed ? "OK" : "FAILED"));
+    }
+
+    /**
+     * 묶음 이체만 동시에 실행한 원장을 프레임 경계와 프레임 중간에서 잘라서 다시 열기
+     *
+     * 돈은 계좌 사이에서만 옮겨지므로, 어느 경계에서 잘라도 복원된 잔액 합 = 복원된 계좌 수 × 초기 잔액이어야 합니다.
+     * (이체의 레코드가 두 프레임에 나뉘어 기록되면 그 사이에서 자른 원장은 합이 맞지 않음)
+     */
+    private static void crashCuts(Path path, Path cut) throws Exception {
+        int accounts = 20;
+        long initial = 1_000 * Money.SCALE;
+        try (AccountEngine engine = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE)) {
+            RealBankAccount[] opened = new RealBankAccount[accounts];
+            for (int i = 0; i < accounts; i++) {
+                opened[i] = engine.open(String.format("930-%06d", i), initial);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(MIXED_THREADS + 1);
+            List<Future<?>> futures = new ArrayList<>();
+            // 계좌 개설을 계속 기록하여 이체 도중에도 프레임이 자주 끊기게 함 (개설도 잔액 합 규칙을 지킴)
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    engine.open(String.format("931-%06d", i), initial);
+                }
+                return null;
+            }));
+            for (int t = 0; t < MIXED_THREADS; t++) {
+                long seed = 31L * t + 7;
+                futures.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 1_000; i++) {
+                        TransferBatch batch = new TransferBatch();
+                        for (int leg = 0; leg < 8; leg++) {
+                            batch.add(opened[random.nextInt(accounts)], opened[random.nextInt(accounts)],
+                                    (1 + random.nextInt(100)) * Money.SCALE);
+                        }
+                        batch.execute();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+        }
+
+        // 프레임 경계 찾기: [magic][version] 뒤에 [길이][CRC][payload]가 이어짐
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        List<Integer> boundaries = new ArrayList<>();
+        int position = 8;
+        while (position + 8 <= bytes.length) {
+            position += 8 + buffer.getInt(position);
+            boundaries.add(position);
+        }
+
+        int step = Math.max(1, boundaries.size() / 300); // 자를 프레임은 최대 300개
+        int checked = 0;
+        boolean conserved = true;
+        for (int i = 0; i < boundaries.size(); i += step) {
+            int end = boundaries.get(i);
+            int previous = i == 0 ? 8 : boundaries.get(i - 1);
+            // 프레임 경계에서 자른 경우와, 그 프레임을 쓰던 도중 끊긴 경우 (끊긴 프레임은 버려져야 함)
+            for (int length : new int[]{end, (previous + end) / 2}) {
+                Files.write(cut, Arrays.copyOf(bytes, length));
+                try (AccountEngine reopened = AccountEngine.open(cut, TransactionLedger.FsyncPolicy.NONE)) {
+                    conserved &= reopened.totalBalance() == reopened.size() * initial;
+                }
+                checked++;
+            }
+        }
+        Files.deleteIfExists(cut);
+        System.out.printf("Crash cuts: %,d frames, %d cut points replayed, total conserved at every cut: %s%n",
+                boundaries.size(), checked, conserved ? "OK" : "FAILED");
+    }
+}
@@ -0,0 +1,224 @@
+package org._09_proxy.ex02;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LedgerBenchmark - 거래 원장의 처리량, 커밋 지연, 재생 속도 측정
+ *
+ * 원장을 사용하는 AccountEngine의 계좌들을 BankAccountProxy로 감싸고,
+ * 여러 스레드가 프록시를 통해 입금/출금을 보내며 다음을 측정합니다.
+ * - fsync 정책(NONE, PERIODIC, EVERY_COMMIT) × 스레드 수(1, 8, 32)별 초당 거래 수
+ * - 거래 한 건의 완료 시간 p50 / p99 (원장 기록 대기 포함)
+ * - 묶음당 평균 레코드 수 (동시 요청이 많을수록 fsync 한 번이 여러 거래를 처리)
+ * - 원장을 다시 열었을 때 모든 계좌 잔액이 같은지, 대량 원장의 재생 시간
+ * - 원장 기록이 실패한 뒤의 입금/출금/이체가 잔액을 바꾸지 않고 거부되는지
+ */
+public class LedgerBenchmark {
+    private static final int ACCOUNTS = 1_000;
+    private static final int OPS_PER_THREAD = 3_000;
+    private static final int[] THREADS = {1, 8, 32};
+    private static final String PASSWORD = "1234";
+    // 인증 비용은 SessionBenchmark에서 따로 측정하므로 여기서는 해시를 가볍게 함
+    private static final SessionManager SESSIONS = new SessionManager(1, 60_000, 3);
+
+    public static void main(String[] args) throws Exception {
+        int replayRecords = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        RealBankAccount.setVerbose(false);
+        BankAccountProxy.setVerbose(false);
+        Path dir = Files.createTempDirectory("ledger");
+
+        System.out.println("=== 거래 원장 벤치마크 ===");
+        run(dir.resolve("warmup.ledger"), TransactionLedger.FsyncPolicy.NONE, 8, false);
+
+        boolean restored = true;
+        for (TransactionLedger.FsyncPolicy policy : TransactionLedger.FsyncPolicy.values()) {
+            for (int threads : THREADS) {
+                restored &= run(dir.resolve(policy + "-" + threads + ".ledger"), policy, threads, true);
+            }
+        }
+        System.out.println("Balances restored from ledger: " + (restored ? "OK" : "FAILED"));
+
+        // 대량 원장 재생
+        Path path = dir.resolve("replay.ledger");
+        Map<String, Long> expected = new HashMap<>();
+        try (AccountEngine engine = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE)) {
+            RealBankAccount[] accounts = openAccounts(engine);
+            SplittableRandom random = new SplittableRandom(3);
+            for (int i = 0; i < replayRecords; i++) {
+                RealBankAccount account = accounts[random.nextInt(ACCOUNTS)];
+                long minor = (1 + random.nextInt(5_000)) * Money.SCALE;
+                if (random.nextBoolean()) {
+                    account.depositMinor(minor);
+                } else {
+                    account.tryWithdrawMinor(minor);
+                }
+            }
+            for (RealBankAccount account : accounts) {
+                expected.put(account.getAccountNumber(), account.getBalanceMinor());
+            }
+        }
+        long bytes = Files.size(path);
+        long start = System.nanoTime();
+        try (AccountEngine engine = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE)) {
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Replay ledger: %,d bytes in %.1f ms (%,.0f MB/s), balances %s%n",
+                    bytes, elapsed / 1e6, bytes / 1e6 / (elapsed / 1e9),
+                    matches(engine, expected) ? "OK" : "FAILED");
+        }
+
+        failFast(dir.resolve("failed.ledger"));
+
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+        System.out.println("==========================");
+    }
+
+    /**
+     * 프록시를 통한 동시 거래를 실행하고, 원장을 다시 열어 잔액을 비교
+     *
+     * @return 다시 연 엔진의 모든 잔액이 같으면 true
+     */
+    private static boolean run(Path path, TransactionLedger.FsyncPolicy policy, int threads, boolean report)
+            throws Exception {
+        Map<String, Long> expected = new HashMap<>();
+        long elapsed;
+        long[] latencies;
+        String stats;
+        try (AccountEngine engine = AccountEngine.open(path, policy)) {
+            openAccounts(engine);
+            BankAccountProxy[] proxies = new BankAccountProxy[ACCOUNTS];
+            for (int i = 0; i < ACCOUNTS; i++) {
+                proxies[i] = new BankAccountProxy(engine.account(number(i)), PASSWORD, SESSIONS);
+                proxies[i].authenticate(PASSWORD);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = 17L * t + 1;
+                futures.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long[] took = new long[OPS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        BankAccountProxy proxy = proxies[random.nextInt(ACCOUNTS)];
+                        double amount = 1 + random.nextInt(5_000);
+                        long begin = System.nanoTime();
+                        if (random.nextBoolean()) {
+                            proxy.deposit(amount);
+                        } else {
+                            proxy.withdraw(amount);
+                        }
+                        took[i] = System.nanoTime() - begin;
+                    }
+                    return took;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            latencies = new long[threads * OPS_PER_THREAD];
+            int filled = 0;
+            for (Future<long[]> future : futures) {
+                long[] took = future.get();
+                System.arraycopy(took, 0, latencies, filled, took.length);
+                filled += took.length;
+            }
+            elapsed = System.nanoTime() - begin;
+            pool.shutdown();
+
+            stats = engine.ledgerStats();
+            for (RealBankAccount account : engine.accounts()) {
+                expected.put(account.getAccountNumber(), account.getBalanceMinor());
+            }
+        }
+
+        boolean same;
+        try (AccountEngine reopened = AccountEngine.open(path, policy)) {
+            same = matches(reopened, expected);
+        }
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-12s threads=%2d | %,9.0f tx/s | p50 %7.1f us | p99 %8.1f us | %s%n",
+                    policy, threads, latencies.length / (elapsed / 1e9),
+                    latencies[latencies.length / 2] / 1e3, latencies[(int) (latencies.length * 0.99)] / 1e3, stats);
+        }
+        return same;
+    }
+
+    /**
+     * 원장 파일을 닫아 다음 기록을 실패시킨 뒤, 이후의 거래가 잔액을 바꾸지 않고 거부되는지 확인
+     */
+    private static void failFast(Path path) throws Exception {
+        AccountEngine engine = AccountEngine.open(path, TransactionLedger.FsyncPolicy.NONE);
+        RealBankAccount from = engine.open("700-000000", 1_000 * Money.SCALE);
+        RealBankAccount to = engine.open("700-000001", 1_000 * Money.SCALE);
+        engine.close();
+        boolean firstFailed = throwsUnchecked(() -> from.depositMinor(Money.SCALE));
+
+        long fromBefore = from.getBalanceMinor();
+        long toBefore = to.getBalanceMinor();
+        boolean rejected = throwsUnchecked(() -> from.depositMinor(Money.SCALE))
+                & throwsUnchecked(() -> from.tryWithdrawMinor(Money.SCALE))
+                & throwsUnchecked(() -> new TransferBatch().add(from, to, Money.SCALE).execute())
+                & throwsUnchecked(() -> engine.open("700-000002", 0));
+        boolean unchanged = from.getBalanceMinor() == fromBefore && to.getBalanceMinor() == toBefore
+                && engine.size() == 2;
+        System.out.println("Mutations rejected after ledger failure: "
+                + (firstFailed && rejected && unchanged ? "OK" : "FAILED"));
+    }
+
+    /**
+     * @return 작업이 UncheckedIOException을 던졌으면 true
+     */
+    private static boolean throwsUnchecked(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (UncheckedIOException e) {
+            return true;
+        }
+    }
+
+    private static RealBankAccount[] openAccounts(AccountEngine engine) {
+        RealBankAccount[] accounts = new RealBankAccount[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = engine.open(number(i), 50_000 * Money.SCALE);
+        }
+        return accounts;
+    }
+
+    private static boolean matches(AccountEngine engine, Map<String, Long> expected) {
+        if (engine.size() != expected.size()) {
+            return false;
+        }
+        for (Map.Entry<String, Long> entry : expected.entrySet()) {
+            if (engine.balance(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String number(int i) {
+        return String.format("200-%06d", i);
+    }
+}
@@ -0,0 +1,41 @@
+package org._09_proxy.ex02;
+
+/**
+ * 금액 변환 도우미 - 고정 소수점(long) 최소 단위
+ *
+ * 잔액을 double로 더하고 빼면 반올림 오차가 쌓이고, 원자적으로 갱신할 수도 없습니다.
+ * 계좌는 금액을 최소 단위(1/100원)의 long으로 보관하고,
+ * 기존 double API와의 변환만 이 클래스에서 처리합니다.
+ *
+ * 예: 50000.0원 → 5,000,000 / 0.1원 → 10
+ */
+final class Money {
+    /**
+     * 1원 = 100 최소 단위
+     */
+    static final long SCALE = 100;
+
+    private Money() {
+    }
+
+    /**
+     * @param amount 원 단위 금액
+     * @return 최소 단위 금액 (1/100원 미만은 반올림)
+     * @throws IllegalArgumentException 숫자가 아니거나 long 범위를 넘는 경우
+     */
+    static long toMinor(double amount) {
+        double scaled = amount * SCALE;
+        if (Double.isNaN(scaled) || Math.abs(scaled) >= 0x1p63) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        return Math.round(scaled);
+    }
+
+    /**
+     * @param minor 최소 단위 금액
+     * @return 원 단위 금액 (표시용)
+     */
+    static double toAmount(long minor) {
+        return (double) minor / SCALE;
+    }
+}
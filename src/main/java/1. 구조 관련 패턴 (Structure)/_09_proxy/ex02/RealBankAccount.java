@@ -1,18 +1,83 @@
 package org._09_proxy.ex02;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * RealSubject 클래스
  * - 실제 은행 계좌 기능을 구현
  * - 모든 금융 거래 로직을 담당
+ *
+ * 잔액은 최소 단위(1/100원) long으로 AtomicLong에 보관하고 CAS로 갱신합니다.
+ * - 입금: 잠금 없이 더하기 (오버플로는 예외)
+ * - 출금: 현재 잔액을 읽어 부족하면 실패, 충분하면 CAS로 교체 (다른 스레드가 먼저 바꿨으면 다시 시도)
+ * 잔액 확인과 차감이 한 번의 CAS로 이루어지므로 동시에 출금해도 잔액이 음수가 되지 않고,
+ * 동시에 입금해도 갱신이 사라지지 않습니다.
+ *
+ * 거래 원장(TransactionLedger)이 연결된 계좌는 성공한 거래를 원장에 기록하고,
+ * 기록이 파일에 반영된 뒤에 반환합니다. (잠금을 잡지 않으므로 기다리는 동안 다른 거래를 막지 않음)
+ * - 입금: 원장에 먼저 추가한 뒤 잔액 반영
+ * - 출금: 잔액 반영에 성공한 뒤 원장에 추가
+ * 이 순서 덕분에 출금 레코드는 그 출금이 기대한 입금 레코드보다 항상 뒤에 있으므로,
+ * 장애 후 원장의 어느 지점까지 재생해도 잔액이 음수가 되지 않습니다.
+ * 원장 기록이 한 번 실패하면 이후의 입금/출금은 잔액을 바꾸기 전에 거부합니다. (BankAccount 참고)
+ *
+ * 여러 계좌에 걸친 이체는 TransferBatch가 처리합니다. (계좌마다 잠금 하나, 잠금 순서는 계좌 생성 순번)
  */
 public class RealBankAccount implements BankAccount {
-    private double balance;         // 계좌 잔액
-    private String accountNumber;   // 계좌 번호
+    /**
+     * 거래 로그 출력 여부 (기본값 true)
+     *
+     * 계좌를 대량으로 만들거나 거래를 반복하는 벤치마크에서는 끌 수 있습니다.
+     */
+    private static volatile boolean verbose = true;
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final AtomicLong balance;     // 계좌 잔액 (최소 단위)
+    private final String accountNumber;   // 계좌 번호
+    private final TransactionLedger ledger; // 거래 원장 (null이면 기록하지 않음)
+    private final long id = IDS.incrementAndGet();                // 일괄 이체의 잠금 순서
+    private final ReentrantLock transferLock = new ReentrantLock(); // 일괄 이체끼리만 사용 (단건 거래는 잠금 없음)
 
     public RealBankAccount(String accountNumber, double initialBalance) {
+        this(accountNumber, Money.toMinor(initialBalance));
+    }
+
+    /**
+     * @param accountNumber 계좌 번호
+     * @param initialMinor 초기 잔액 (최소 단위, 0 이상)
+     */
+    RealBankAccount(String accountNumber, long initialMinor) {
+        this(accountNumber, initialMinor, null);
+    }
+
+    /**
+     * @param accountNumber 계좌 번호
+     * @param initialMinor 초기 잔액 (최소 단위, 0 이상)
+     * @param ledger 거래를 기록할 원장 (개설 레코드는 호출자가 기록, null이면 기록하지 않음)
+     */
+    RealBankAccount(String accountNumber, long initialMinor, TransactionLedger ledger) {
+        if (initialMinor < 0) {
+            throw new IllegalArgumentException("Initial balance must not be negative: " + initialMinor);
+        }
         this.accountNumber = accountNumber;
-        this.balance = initialBalance;
-        System.out.println("실제 은행 계좌 " + accountNumber + " 개설됨 (초기 잔액: " + initialBalance + "원)");
+        this.balance = new AtomicLong(initialMinor);
+        this.ledger = ledger;
+        if (verbose) {
+            System.out.println("실제 은행 계좌 " + accountNumber + " 개설됨 (초기 잔액: " + Money.toAmount(initialMinor) + "원)");
+        }
+    }
+
+    public static void setVerbose(boolean enabled) {
+        verbose = enabled;
+    }
+
+    public static boolean isVerbose() {
+        return verbose;
     }
 
     /**
@@ -20,12 +85,7 @@ public class RealBankAccount implements BankAccount {
      */
     @Override
     public void deposit(double amount) {
-        if (amount > 0) {
-            balance += amount;
-            System.out.println(amount + "원 입금 완료. 현재 잔액: " + balance + "원");
-        } else {
-            System.out.println("입금액은 0원보다 커야 합니다.");
-        }
+        applyDeposit(amount);
     }
 
     /**
@@ -33,14 +93,7 @@ public class RealBankAccount implements BankAccount {
      */
     @Override
     public void withdraw(double amount) {
-        if (amount > 0 && amount <= balance) {
-            balance -= amount;
-            System.out.println(amount + "원 출금 완료. 현재 잔액: " + balance + "원");
-        } else if (amount > balance) {
-            System.out.println("잔액이 부족합니다. 현재 잔액: " + balance + "원");
-        } else {
-            System.out.println("출금액은 0원보다 커야 합니다.");
-        }
+        applyWithdraw(amount);
     }
 
     /**
@@ -48,11 +101,274 @@ public class RealBankAccount implements BankAccount {
      */
     @Override
     public double getBalance() {
-        System.out.println("잔액 조회: " + balance + "원");
-        return balance;
+        double current = Money.toAmount(balance.get());
+        if (verbose) {
+            System.out.println("잔액 조회: " + current + "원");
+        }
+        return current;
+    }
+
+    /**
+     * 일괄 입금 - 유효한 금액을 합쳐 잔액 갱신과 원장 기록을 한 번만 수행
+     *
+     * 0원 이하의 금액은 단건 입금처럼 건너뜁니다.
+     */
+    @Override
+    public void depositAll(double... amounts) {
+        long total = 0;
+        int count = 0;
+        for (double amount : amounts) {
+            long minor = Money.toMinor(amount);
+            if (minor > 0) {
+                total = Math.addExact(total, minor);
+                count++;
+            } else if (verbose) {
+                System.out.println("입금액은 0원보다 커야 합니다.");
+            }
+        }
+        if (total > 0) {
+            long current = depositMinor(total);
+            if (verbose) {
+                System.out.println(count + "건 일괄 입금 완료 (" + Money.toAmount(total) + "원). 현재 잔액: "
+                        + Money.toAmount(current) + "원");
+            }
+        }
+    }
+
+    /**
+     * 일괄 이체 - 모든 이체가 함께 성공하거나 하나도 반영되지 않음
+     *
+     * @return 모두 이체되었으면 true (금액이 잘못되었거나 잔액이 부족하면 false)
+     */
+    @Override
+    public boolean transferAll(List<Transfer> transfers) {
+        TransferBatch batch = new TransferBatch();
+        long total = 0;
+        for (Transfer transfer : transfers) {
+            long minor = Money.toMinor(transfer.getAmount());
+            if (minor <= 0) {
+                if (verbose) {
+                    System.out.println("이체액은 0원보다 커야 합니다.");
+                }
+                return false;
+            }
+            batch.add(this, resolve(transfer.getTo()), minor);
+            total = Math.addExact(total, minor);
+        }
+
+        boolean done = batch.execute();
+        if (verbose) {
+            if (done) {
+                System.out.println(transfers.size() + "건 일괄 이체 완료 (" + Money.toAmount(total) + "원). 현재 잔액: "
+                        + Money.toAmount(balance.get()) + "원");
+            } else {
+                System.out.println("잔액이 부족합니다. 현재 잔액: " + Money.toAmount(balance.get()) + "원");
+            }
+        }
+        return done;
+    }
+
+    /**
+     * 이체 대상의 실제 계좌 (프록시면 감싼 계좌, 받는 쪽은 인증이 필요 없음)
+     *
+     * @throws IllegalArgumentException 실제 계좌를 알 수 없는 BankAccount 구현인 경우
+     */
+    static RealBankAccount resolve(BankAccount account) {
+        if (account instanceof RealBankAccount real) {
+            return real;
+        }
+        if (account instanceof BankAccountProxy proxy) {
+            return proxy.getRealAccount();
+        }
+        throw new IllegalArgumentException("Unsupported transfer target: " + account);
+    }
+
+    /**
+     * 입금 처리 후 성공 여부 반환 (프록시가 성공한 거래만 원장에 기록할 때 사용)
+     *
+     * @return 입금되었으면 true
+     */
+    boolean applyDeposit(double amount) {
+        long minor = Money.toMinor(amount);
+        if (minor > 0) {
+            long current = depositMinor(minor);
+            if (verbose) {
+                System.out.println(amount + "원 입금 완료. 현재 잔액: " + Money.toAmount(current) + "원");
+            }
+            return true;
+        }
+        if (verbose) {
+            System.out.println("입금액은 0원보다 커야 합니다.");
+        }
+        return false;
+    }
+
+    /**
+     * 출금 처리 후 성공 여부 반환
+     *
+     * @return 출금되었으면 true (금액이 잘못되었거나 잔액이 부족하면 false)
+     */
+    boolean applyWithdraw(double amount) {
+        long minor = Money.toMinor(amount);
+        if (minor <= 0) {
+            if (verbose) {
+                System.out.println("출금액은 0원보다 커야 합니다.");
+            }
+            return false;
+        }
+
+        long current = tryWithdrawMinor(minor);
+        if (verbose) {
+            if (current >= 0) {
+                System.out.println(amount + "원 출금 완료. 현재 잔액: " + Money.toAmount(current) + "원");
+            } else {
+                System.out.println("잔액이 부족합니다. 현재 잔액: " + Money.toAmount(balance.get()) + "원");
+            }
+        }
+        return current >= 0;
+    }
+
+    /**
+     * 최소 단위 입금 (로그 없음)
+     *
+     * @param minor 입금액 (최소 단위, 양수)
+     * @return 입금 후 잔액
+     * @throws ArithmeticException 잔액이 long 범위를 넘는 경우 (잔액은 바뀌지 않음)
+     * @throws UncheckedIOException 원장 기록에 실패한 경우 (이미 실패한 원장이면 잔액은 바뀌지 않음)
+     */
+    long depositMinor(long minor) {
+        if (minor <= 0) {
+            throw new IllegalArgumentException("Deposit must be positive: " + minor);
+        }
+        ensureWritable();
+        long seq = record(minor);
+        long next;
+        try {
+            next = addMinor(minor);
+        } catch (ArithmeticException e) {
+            record(-minor); // 먼저 기록한 입금을 취소
+            throw e;
+        }
+        commit(seq);
+        return next;
+    }
+
+    /**
+     * 최소 단위 출금 (로그 없음)
+     *
+     * 잔액이 부족하면 아무것도 바꾸지 않습니다.
+     *
+     * @param minor 출금액 (최소 단위, 양수)
+     * @return 출금 후 잔액, 잔액이 부족하면 -1
+     * @throws UncheckedIOException 원장 기록에 실패한 경우 (이미 실패한 원장이면 잔액은 바뀌지 않음)
+     */
+    long tryWithdrawMinor(long minor) {
+        if (minor <= 0) {
+            throw new IllegalArgumentException("Withdrawal must be positive: " + minor);
+        }
+        ensureWritable();
+        long next = subtractMinor(minor);
+        if (next >= 0) {
+            commit(record(-minor));
+        }
+        return next;
+    }
+
+    /**
+     * 잔액에 더하기 (원장 기록 없음, 기록 순서는 호출자 책임)
+     *
+     * @return 더한 후 잔액
+     * @throws ArithmeticException 잔액이 long 범위를 넘는 경우 (잔액은 바뀌지 않음)
+     */
+    long addMinor(long minor) {
+        while (true) {
+            long current = balance.get();
+            long next = Math.addExact(current, minor);
+            if (balance.compareAndSet(current, next)) {
+                return next;
+            }
+            Thread.onSpinWait(); // 다른 스레드가 먼저 갱신함 - 새 값으로 다시 시도
+        }
+    }
+
+    /**
+     * 잔액이 충분하면 빼기 (원장 기록 없음)
+     *
+     * @return 뺀 후 잔액, 잔액이 부족하면 -1 (잔액은 바뀌지 않음)
+     */
+    long subtractMinor(long minor) {
+        while (true) {
+            long current = balance.get();
+            if (current < minor) {
+                return -1;
+            }
+            if (balance.compareAndSet(current, current - minor)) {
+                return current - minor;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 원장이 이미 실패했으면 잔액을 바꾸기 전에 거부 (원장이 없으면 아무 일도 하지 않음)
+     *
+     * @throws UncheckedIOException 이전 원장 기록이 실패한 경우
+     */
+    void ensureWritable() {
+        if (ledger != null) {
+            try {
+                ledger.checkWritable();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Transaction ledger failed; account is read-only", e);
+            }
+        }
+    }
+
+    /**
+     * 원장에 변화량 레코드 추가 (기다리지 않음)
+     *
+     * @return commit에 넘길 순번 (원장이 없으면 0)
+     */
+    long record(long deltaMinor) {
+        return ledger == null ? 0 : ledger.appendDelta(accountNumber, deltaMinor);
+    }
+
+    /**
+     * 원장 레코드가 파일에 기록될 때까지 대기 (순번이 0이면 바로 반환)
+     */
+    void commit(long seq) {
+        if (seq > 0) {
+            try {
+                ledger.awaitDurable(seq);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write transaction ledger", e);
+            }
+        }
+    }
+
+    /**
+     * @return 현재 잔액 (최소 단위, 로그 없음)
+     */
+    long getBalanceMinor() {
+        return balance.get();
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * @return 거래를 기록하는 원장 (없으면 null)
+     */
+    TransactionLedger getLedger() {
+        return ledger;
+    }
+
+    ReentrantLock getTransferLock() {
+        return transferLock;
     }
 
     public String getAccountNumber() {
         return accountNumber;
     }
-}
\ No newline at end of file
+}
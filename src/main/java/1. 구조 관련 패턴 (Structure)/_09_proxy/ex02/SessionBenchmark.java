@@ -0,0 +1,194 @@
+package org._09_proxy.ex02;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionBenchmark - 세션 토큰 인증의 비용, 만료 정리, 잠금 정확성 측정
+ *
+ * 1. 인증된 거래 한 건의 비용: 세션 토큰 조회(BankAccountProxy) vs 거래마다 느린 해시로 비밀번호 검증
+ * 2. 만료: TTL이 짧은 세션을 계속 만들어도 맵에 남는 세션 수가 한정되는지
+ * 3. 잠금: 여러 스레드가 동시에 틀린 비밀번호를 보내도 해시 검증이 정확히 maxAttempts번만 일어나는지,
+ *    여러 스레드가 동시에 올바른 비밀번호로 로그인하면 모두 성공하는지 (잠금으로 거부되지 않음)
+ * 4. 격리: 번호가 같은 별개의 계좌는 잠금을 공유하지 않고, 같은 계좌에 다른 비밀번호를 등록하면 거부되는지
+ */
+public class SessionBenchmark {
+    private static final int ACCOUNTS = 64;
+    private static final int[] THREADS = {1, 8, 32};
+    private static final int TOKEN_OPS_PER_THREAD = 200_000;
+    private static final int HASH_OPS_PER_THREAD = 20;
+    private static final String PASSWORD = "1234";
+
+    public static void main(String[] args) throws Exception {
+        RealBankAccount.setVerbose(false);
+        BankAccountProxy.setVerbose(false);
+
+        System.out.println("=== 세션 인증 벤치마크 ===");
+        SessionManager sessions = new SessionManager(
+                SessionManager.DEFAULT_ITERATIONS, SessionManager.DEFAULT_TTL_MILLIS, Integer.MAX_VALUE);
+        AccountEngine engine = new AccountEngine();
+        BankAccountProxy[] proxies = new BankAccountProxy[ACCOUNTS];
+        long setup = System.nanoTime();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            proxies[i] = new BankAccountProxy(
+                    engine.open(String.format("300-%06d", i), 0), PASSWORD, sessions);
+            proxies[i].authenticate(PASSWORD);
+        }
+        System.out.printf("Register + login %d accounts (PBKDF2 x %,d): %.1f ms%n",
+                ACCOUNTS, SessionManager.DEFAULT_ITERATIONS, (System.nanoTime() - setup) / 1e6);
+
+        measure(1, 50_000, (i) -> proxies[i % ACCOUNTS].deposit(1)); // 워밍업
+        for (int threads : THREADS) {
+            double token = measure(threads, TOKEN_OPS_PER_THREAD, (i) -> proxies[i % ACCOUNTS].deposit(1));
+            double hashed = measure(threads, HASH_OPS_PER_THREAD, (i) -> {
+                BankAccountProxy proxy = proxies[i % ACCOUNTS];
+                proxy.authenticate(PASSWORD); // 거래마다 비밀번호 검증
+                proxy.deposit(1);
+            });
+            System.out.printf("threads=%2d | session token %,12.0f tx/s | hash per call %,8.0f tx/s | x%,.0f%n",
+                    threads, token, hashed, token / hashed);
+        }
+
+        expiry();
+        lockout();
+        isolation();
+        System.out.println("==========================");
+    }
+
+    private interface Task {
+        void run(int i);
+    }
+
+    /**
+     * @return 초당 처리 건수
+     */
+    private static double measure(int threads, int opsPerThread, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    task.run(offset + i);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return (double) threads * opsPerThread / (elapsed / 1e9);
+    }
+
+    /**
+     * TTL 50ms 세션을 라운드마다 대량으로 만들고, 맵 크기의 최댓값을 확인
+     * (로그인 SWEEP_INTERVAL번마다 만료 세션을 정리하므로 라운드 크기 근처에서 멈춰야 함)
+     */
+    private static void expiry() throws InterruptedException {
+        SessionManager sessions = new SessionManager(1, 50, 3);
+        RealBankAccount account = new RealBankAccount("400-000000", 0L);
+        sessions.register(account, PASSWORD);
+        int rounds = 20;
+        int perRound = 10_000;
+        int peak = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < perRound; i++) {
+                sessions.login(account, PASSWORD);
+            }
+            peak = Math.max(peak, sessions.sessionCount());
+            Thread.sleep(60);
+        }
+        int total = rounds * perRound;
+        System.out.printf("Expiry: %,d sessions created, peak live %,d, bounded: %s%n",
+                total, peak, peak < 2 * perRound ? "OK" : "FAILED");
+    }
+
+    /**
+     * 실제 해시 비용으로 여러 스레드가 동시에 틀린 비밀번호를 보냄
+     */
+    private static void lockout() throws Exception {
+        int maxAttempts = SessionManager.DEFAULT_MAX_ATTEMPTS;
+        SessionManager sessions = new SessionManager(SessionManager.DEFAULT_ITERATIONS, 60_000, maxAttempts);
+        RealBankAccount account = new RealBankAccount("500-000000", 0L);
+        sessions.register(account, PASSWORD);
+
+        int threads = 16;
+        int attemptsPerThread = 10;
+        AtomicInteger verified = new AtomicInteger();
+        AtomicInteger locked = new AtomicInteger();
+        long[] took = new long[threads * attemptsPerThread];
+        AtomicInteger index = new AtomicInteger();
+        measure(threads, attemptsPerThread, (i) -> {
+            long begin = System.nanoTime();
+            SessionManager.Login login = sessions.login(account, "wrong");
+            took[index.getAndIncrement()] = System.nanoTime() - begin;
+            if (login.isLocked()) {
+                locked.incrementAndGet();
+            } else {
+                verified.incrementAndGet();
+            }
+        });
+        boolean stillLocked = sessions.login(account, PASSWORD).isLocked();
+        sessions.unlock(account);
+        boolean unlocked = sessions.login(account, PASSWORD).succeeded();
+
+        Arrays.sort(took);
+        System.out.printf("Lockout: %d concurrent wrong attempts -> %d verified (max %d), %d rejected "
+                        + "(median %.1f us, no hashing), correct password while locked rejected: %s, after unlock: %s%n",
+                took.length, verified.get(), maxAttempts, locked.get(), took[took.length / 2] / 1e3,
+                stillLocked ? "OK" : "FAILED", unlocked ? "OK" : "FAILED");
+
+        // 올바른 비밀번호로 동시에 로그인: maxAttempts보다 많은 스레드가 겹쳐도 모두 성공해야 함
+        AtomicInteger succeeded = new AtomicInteger();
+        int correctThreads = 16;
+        int correctPerThread = 4;
+        measure(correctThreads, correctPerThread, (i) -> {
+            if (sessions.login(account, PASSWORD).succeeded()) {
+                succeeded.incrementAndGet();
+            }
+        });
+        System.out.printf("Concurrent correct logins: %d of %d succeeded: %s%n", succeeded.get(),
+                correctThreads * correctPerThread,
+                succeeded.get() == correctThreads * correctPerThread ? "OK" : "FAILED");
+    }
+
+    /**
+     * 번호가 같은 계좌 둘: 한쪽을 잠가도 다른 쪽은 자기 비밀번호로 로그인되어야 하고,
+     * 엔진 계좌에 다른 비밀번호로 프록시를 만들면 조용히 무시하지 않고 예외가 나야 함
+     */
+    private static void isolation() {
+        BankAccountProxy first = new BankAccountProxy("600-000000", 0, PASSWORD);
+        for (int i = 0; i < SessionManager.DEFAULT_MAX_ATTEMPTS; i++) {
+            first.authenticate("wrong");
+        }
+        BankAccountProxy second = new BankAccountProxy("600-000000", 0, "5678");
+        boolean separate = !first.authenticate(PASSWORD) && second.authenticate("5678");
+
+        SessionManager sessions = new SessionManager(1, 60_000, 3);
+        RealBankAccount shared = new AccountEngine().open("600-000001", 0);
+        new BankAccountProxy(shared, PASSWORD, sessions);
+        boolean samePassword = new BankAccountProxy(shared, PASSWORD, sessions).authenticate(PASSWORD);
+        boolean rejected;
+        try {
+            new BankAccountProxy(shared, "5678", sessions);
+            rejected = false;
+        } catch (IllegalStateException e) {
+            rejected = true;
+        }
+        System.out.println("Same-numbered accounts keep separate lockout: " + (separate ? "OK" : "FAILED")
+                + ", different password for a registered account rejected: "
+                + (samePassword && rejected ? "OK" : "FAILED"));
+    }
+}
@@ -0,0 +1,319 @@
+package org._09_proxy.ex02;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * 세션 관리자 - 비밀번호 검증 결과를 짧게 유지되는 세션 토큰으로 캐싱
+ *
+ * 비밀번호는 평문 대신 솔트를 붙인 느린 해시(PBKDF2)로만 보관하므로 검증 한 번에 수 밀리초가 걸립니다.
+ * 로그인할 때만 이 비용을 치르고, 이후의 거래는 세션 토큰을 맵에서 한 번 찾는 것으로 인증합니다.
+ *
+ * 핵심:
+ * - 자격 증명: 계좌 → (솔트, 해시), 비교는 상수 시간 (MessageDigest.isEqual)
+ * - 세션: 토큰 → (계좌, 만료 시각) ConcurrentHashMap, 만료된 세션은 조회할 때와 주기적 정리 때 제거
+ * - 잠금: 계좌별 연속 실패 횟수 (여러 프록시/스레드가 공유), 최대 횟수에 도달하면 해시 계산 없이 거부
+ *   (실패 횟수는 검증이 실패한 뒤에만 늘어나므로, 동시에 들어온 올바른 로그인은 잠금으로 거부되지 않음)
+ *
+ * 계좌는 계좌 번호가 아니라 RealBankAccount 객체(생성 순번)로 구분합니다.
+ * 번호가 같아도 따로 만든 계좌는 자격 증명과 잠금 상태를 공유하지 않으며,
+ * 이미 등록된 계좌에 다른 비밀번호를 등록하려 하면 예외로 알립니다.
+ *
+ * 모든 메서드는 스레드 안전합니다.
+ */
+class SessionManager {
+    static final int DEFAULT_ITERATIONS = 10_000;
+    static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final int SWEEP_INTERVAL = 1024; // 로그인 이만큼마다 만료 세션 정리
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * 로그인 결과
+     */
+    static final class Login {
+        private final String token;
+        private final int remainingAttempts;
+        private final boolean locked;
+
+        private Login(String token, int remainingAttempts, boolean locked) {
+            this.token = token;
+            this.remainingAttempts = remainingAttempts;
+            this.locked = locked;
+        }
+
+        boolean succeeded() { return token != null; }
+        /** 성공 시 세션 토큰 (실패하면 null) */
+        String getToken() { return token; }
+        /** 잠기기 전까지 남은 시도 횟수 */
+        int getRemainingAttempts() { return remainingAttempts; }
+        /** 계좌가 잠겨 있어 검증하지 않았으면 true */
+        boolean isLocked() { return locked; }
+    }
+
+    /**
+     * 저장된 자격 증명 (평문 비밀번호는 보관하지 않음)
+     */
+    private static final class Credential {
+        final byte[] salt;
+        final byte[] hash;
+
+        Credential(byte[] salt, byte[] hash) {
+            this.salt = salt;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * 계좌별 시도 상태 - 연속 실패 횟수와 검증 중인 시도 수
+     *
+     * 실패 + 검증 중 시도가 최대 횟수에 닿으면 새 시도는 검증 중인 시도가 끝날 때까지 기다립니다.
+     * 그래서 잠기기 전까지 틀린 비밀번호의 해시 검증은 최대 횟수를 넘지 않고,
+     * 올바른 비밀번호는 실제로 잠긴 경우가 아니면 (기다릴 수는 있어도) 거부되지 않습니다.
+     */
+    private static final class Attempts {
+        private int failed;
+        private int inFlight;
+
+        /**
+         * 검증할 차례를 차지
+         *
+         * @return 차지했으면 true, 계좌가 잠겼으면 false
+         */
+        synchronized boolean acquire(int maxAttempts) {
+            boolean interrupted = false;
+            while (failed < maxAttempts && (long) failed + inFlight >= maxAttempts) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // 검증 결과를 기다린 뒤 인터럽트 상태 복원
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failed >= maxAttempts) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        /**
+         * 검증 결과를 반영하고 차례를 돌려줌
+         *
+         * @return 잠기기 전까지 남은 시도 횟수
+         */
+        synchronized int release(boolean valid, int maxAttempts) {
+            inFlight--;
+            failed = valid ? 0 : failed + 1;
+            notifyAll();
+            return Math.max(0, maxAttempts - failed);
+        }
+
+        synchronized void abandon() {
+            inFlight--;
+            notifyAll();
+        }
+
+        synchronized void reset() {
+            failed = 0;
+            notifyAll();
+        }
+    }
+
+    private static final class Session {
+        final long accountId;
+        final long expiresAt; // System.nanoTime 기준
+
+        Session(long accountId, long expiresAt) {
+            this.accountId = accountId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int iterations;
+    private final long ttlNanos;
+    private final int maxAttempts;
+    private final ConcurrentMap<Long, Credential> credentials = new ConcurrentHashMap<>(); // 계좌 순번 → 자격 증명
+    private final ConcurrentMap<Long, Attempts> attempts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger logins = new AtomicInteger();
+
+    /**
+     * AccountEngine의 계좌를 감싸는 프록시들이 공유하는 관리자 (처음 사용할 때 생성)
+     */
+    private static class Holder {
+        static final SessionManager SHARED =
+                new SessionManager(DEFAULT_ITERATIONS, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param iterations 비밀번호 해시 반복 횟수 (클수록 느리고 안전)
+     * @param ttlMillis 세션 유효 시간 (밀리초)
+     * @param maxAttempts 계좌가 잠기기까지의 연속 실패 횟수
+     */
+    SessionManager(int iterations, long ttlMillis, int maxAttempts) {
+        if (iterations < 1 || ttlMillis < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("iterations, ttl and maxAttempts must be positive");
+        }
+        this.iterations = iterations;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxAttempts = maxAttempts;
+    }
+
+    static SessionManager shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * 계좌 비밀번호 등록
+     *
+     * 이미 등록된 계좌(같은 계좌에 프록시를 또 만드는 경우)면 비밀번호가 같은지만 확인하고 아무것도 바꾸지 않습니다.
+     *
+     * @throws IllegalStateException 이미 다른 비밀번호로 등록된 계좌인 경우
+     */
+    void register(RealBankAccount account, String password) {
+        Credential credential = credentials.get(account.getId());
+        if (credential == null) {
+            byte[] salt = new byte[16];
+            RANDOM.nextBytes(salt);
+            Credential created = new Credential(salt, hash(password, salt));
+            credential = credentials.putIfAbsent(account.getId(), created);
+            if (credential == null) {
+                return;
+            }
+        }
+        if (!MessageDigest.isEqual(credential.hash, hash(password, credential.salt))) {
+            throw new IllegalStateException("Account " + account.getAccountNumber()
+                    + " is already registered with a different password");
+        }
+    }
+
+    /**
+     * 비밀번호를 검증하고 성공하면 새 세션을 만듦
+     *
+     * 해시를 계산하기 전에 검증할 차례를 차지하고(Attempts), 실패 횟수는 검증이 실패한 뒤에만 올립니다.
+     * 여러 스레드가 동시에 틀린 비밀번호를 보내도 잠기기 전까지 검증되는 시도는 정확히 maxAttempts번이고,
+     * 동시에 들어온 올바른 로그인은 모두 성공합니다. (성공하면 실패 횟수를 0으로 초기화)
+     *
+     * @return 로그인 결과 (잠긴 계좌는 해시를 계산하지 않고 바로 거부)
+     */
+    Login login(RealBankAccount account, String password) {
+        long accountId = account.getId();
+        Attempts state = attempts.computeIfAbsent(accountId, key -> new Attempts());
+        if (!state.acquire(maxAttempts)) {
+            return new Login(null, 0, true);
+        }
+
+        boolean valid;
+        try {
+            Credential credential = credentials.get(accountId);
+            valid = credential != null && password != null
+                    && MessageDigest.isEqual(credential.hash, hash(password, credential.salt));
+        } catch (RuntimeException | Error e) {
+            state.abandon(); // 검증 자체가 실패하면 실패 횟수에 넣지 않음
+            throw e;
+        }
+        int remaining = state.release(valid, maxAttempts);
+        if (!valid) {
+            return new Login(null, remaining, false);
+        }
+
+        if (logins.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweepExpired();
+        }
+        String token = newToken();
+        sessions.put(token, new Session(accountId, System.nanoTime() + ttlNanos));
+        return new Login(token, maxAttempts, false);
+    }
+
+    /**
+     * 세션 토큰이 해당 계좌에 대해 유효한지 확인 (거래마다 호출되는 빠른 경로: 맵 조회 한 번)
+     */
+    boolean isValid(String token, RealBankAccount account) {
+        if (token == null) {
+            return false;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return false;
+        }
+        if (System.nanoTime() - session.expiresAt > 0) {
+            sessions.remove(token, session); // 만료된 세션 제거
+            return false;
+        }
+        return session.accountId == account.getId();
+    }
+
+    /**
+     * 세션 종료 (없는 토큰이면 아무 일도 하지 않음)
+     */
+    void logout(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * 잠긴 계좌의 실패 횟수 초기화 (고객센터 처리)
+     */
+    void unlock(RealBankAccount account) {
+        Attempts state = attempts.get(account.getId());
+        if (state != null) {
+            state.reset();
+        }
+    }
+
+    /**
+     * 만료된 세션을 모두 제거
+     *
+     * @return 제거한 세션 수
+     */
+    int sweepExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<Map.Entry<String, Session>> it = sessions.entrySet().iterator(); it.hasNext(); ) {
+            if (now - it.next().getValue().expiresAt > 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return 맵에 남아 있는 세션 수 (만료되었지만 아직 제거되지 않은 세션 포함)
+     */
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private byte[] hash(String password, byte[] salt) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, 256);
+        try {
+            // SecretKeyFactory는 스레드 안전이 보장되지 않으므로 호출마다 생성
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,505 @@
+package org._09_proxy.ex02;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 추가 전용 거래 원장 - 여러 스레드의 거래를 묶어서 파일에 기록 (group commit)
+ *
+ * 성공한 거래만 잔액 변화량(delta)으로 기록하고, 다시 열 때 재생하여 계좌 잔액을 복원합니다.
+ *
+ * 파일 구조 (빅 엔디언):
+ * [magic "LEDG" 4바이트][version int]
+ * { [payload 길이 int][payload CRC32 int][payload] } × 묶음 수
+ *
+ * payload의 레코드 (정수는 가변 길이, 변화량은 zigzag 인코딩):
+ * - OPEN  [1][계좌 id][UTF-8 길이][계좌 번호][초기 잔액]
+ * - DELTA [2][계좌 id][변화량 (입금 +, 출금 -)]
+ *
+ * 기록 순서와 잔액 반영 순서:
+ * 계좌 잔액은 잠금 없이 CAS로 바뀌므로, 같은 계좌의 두 거래가 원장에는 반대 순서로 기록될 수 있습니다.
+ * 재생은 잔액 확인 없이 변화량을 더하기만 하므로 (덧셈은 순서와 무관) 최종 잔액은 항상 같습니다.
+ * (입금은 반영 전에, 출금은 반영 후에 기록하는 규칙은 RealBankAccount 참고)
+ *
+ * 그룹 커밋:
+ * append는 메모리 버퍼에 인코딩만 하고 순번을 돌려줍니다. awaitDurable을 호출한 스레드 중 하나가
+ * 쌓인 레코드를 한 묶음으로 기록하고(정책에 따라 fsync), 나머지는 그 결과를 기다립니다.
+ */
+class TransactionLedger implements AutoCloseable {
+    static final int MAGIC = 0x4C454447; // "LEDG"
+    static final int VERSION = 1;
+    static final long DEFAULT_PERIODIC_MILLIS = 10;
+
+    private static final byte OPEN = 1;
+    private static final byte DELTA = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    /**
+     * 디스크 강제 기록(fsync) 정책
+     */
+    enum FsyncPolicy {
+        /** 운영체제 버퍼까지만 기록 (프로세스 장애에는 안전, 전원 장애에는 최근 거래 유실 가능) */
+        NONE,
+        /** 묶음마다 fsync (커밋이 반환되면 전원 장애에도 보존) */
+        EVERY_COMMIT,
+        /** 마지막 fsync 후 지정한 시간이 지난 뒤의 묶음에서만 fsync (fsync 비용을 시간 간격으로 제한) */
+        PERIODIC
+    }
+
+    /**
+     * 재생 시 레코드를 받는 콜백
+     */
+    interface Replayer {
+        void opened(String accountNumber, long initialMinor);
+
+        void applied(String accountNumber, long deltaMinor);
+    }
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long periodicNanos;
+    private final Map<String, Integer> accountIds = new HashMap<>();
+    private String[] accountNumbers = new String[16]; // 재생 중 id → 계좌 번호
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+    private byte[] pending = new byte[8192];
+    private byte[] spare = new byte[8192];
+    private int pendingLength;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private volatile IOException failure; // 한 번 실패하면 이후 모든 기록이 실패 (잠금 없이 확인 가능)
+    private long lastForce = System.nanoTime();
+
+    private long batches;
+    private long forces;
+    private long records;
+    private long bytesWritten;
+
+    private TransactionLedger(FileChannel channel, FsyncPolicy policy, long periodicMillis) {
+        this.channel = channel;
+        this.policy = policy;
+        this.periodicNanos = periodicMillis * 1_000_000;
+    }
+
+    /**
+     * @see #open(Path, FsyncPolicy, long, Replayer)
+     */
+    static TransactionLedger open(Path path, FsyncPolicy policy, Replayer replayer) throws IOException {
+        return open(path, policy, DEFAULT_PERIODIC_MILLIS, replayer);
+    }
+
+    /**
+     * 원장 파일을 열어 기존 레코드를 재생한 뒤 이어서 기록할 수 있도록 준비
+     *
+     * 마지막 묶음이 기록 도중 끊겼거나 CRC가 맞지 않으면 그 지점부터 잘라냅니다.
+     *
+     * @param path 원장 파일 (없으면 새로 만듦)
+     * @param policy fsync 정책
+     * @param periodicMillis PERIODIC 정책의 fsync 간격 (밀리초)
+     * @param replayer 기존 레코드를 받을 콜백
+     * @return 열린 원장
+     * @throws IOException 읽기/쓰기 실패 또는 원장 파일이 아닌 경우
+     */
+    static TransactionLedger open(Path path, FsyncPolicy policy, long periodicMillis, Replayer replayer)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            TransactionLedger ledger = new TransactionLedger(channel, policy, periodicMillis);
+            long valid = ledger.replay(path, replayer);
+            channel.truncate(valid);
+            channel.position(valid);
+            if (valid == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(channel, header);
+                channel.force(true);
+            }
+            ledger.accountNumbers = null; // 재생이 끝나면 필요 없음
+            return ledger;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 계좌 개설 레코드 추가
+     *
+     * @return awaitDurable에 넘길 순번
+     * @throws IllegalStateException 이미 기록된 계좌 번호인 경우
+     */
+    long appendOpen(String accountNumber, long initialMinor) {
+        lock.lock();
+        try {
+            if (accountIds.containsKey(accountNumber)) {
+                throw new IllegalStateException("Account already in ledger: " + accountNumber);
+            }
+            int id = accountIds.size();
+            accountIds.put(accountNumber, id);
+            byte[] bytes = accountNumber.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(1 + 5 + 5 + bytes.length + 10);
+            pending[pendingLength++] = OPEN;
+            putVarint(id);
+            putVarint(bytes.length);
+            System.arraycopy(bytes, 0, pending, pendingLength, bytes.length);
+            pendingLength += bytes.length;
+            putVarlong(initialMinor);
+            records++;
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 잔액 변화 레코드 추가 (성공한 거래만 기록)
+     *
+     * @param accountNumber 계좌 번호 (appendOpen으로 기록된 계좌)
+     * @param deltaMinor 변화량 (입금 +, 출금 -, 최소 단위)
+     * @return awaitDurable에 넘길 순번
+     * @throws IllegalArgumentException 원장에 없는 계좌인 경우
+     */
+    long appendDelta(String accountNumber, long deltaMinor) {
+        lock.lock();
+        try {
+            Integer id = accountIds.get(accountNumber);
+            if (id == null) {
+                throw new IllegalArgumentException("Account not in ledger: " + accountNumber);
+            }
+            ensureCapacity(1 + 5 + 10);
+            pending[pendingLength++] = DELTA;
+            putVarint(id);
+            putVarlong((deltaMinor << 1) ^ (deltaMinor >> 63)); // zigzag: 작은 음수도 짧게
+            records++;
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 여러 계좌의 변화 레코드를 한 번에 추가 (일괄 이체용)
+     *
+     * 한 번의 잠금 안에서 모두 인코딩하므로 레코드들은 항상 같은 묶음(CRC 단위)에 들어갑니다.
+     * 재생은 온전한 묶음까지만 하므로, 장애 후에 이체의 일부 계좌만 복원되는 일이 없습니다.
+     *
+     * @param accountNumbers 계좌 번호들 (appendOpen으로 기록된 계좌)
+     * @param deltas 계좌별 변화량 (입금 +, 출금 -, 최소 단위)
+     * @return awaitDurable에 넘길 순번 (마지막 레코드의 순번, 레코드가 없으면 0)
+     * @throws IllegalArgumentException 원장에 없는 계좌가 있는 경우 (아무것도 추가하지 않음)
+     */
+    long appendBatch(String[] accountNumbers, long[] deltas) {
+        if (accountNumbers.length != deltas.length) {
+            throw new IllegalArgumentException("accounts and deltas differ in length");
+        }
+        if (accountNumbers.length == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            int[] ids = new int[accountNumbers.length];
+            for (int i = 0; i < ids.length; i++) {
+                Integer id = accountIds.get(accountNumbers[i]);
+                if (id == null) {
+                    throw new IllegalArgumentException("Account not in ledger: " + accountNumbers[i]);
+                }
+                ids[i] = id;
+            }
+            ensureCapacity(ids.length * (1 + 5 + 10));
+            for (int i = 0; i < ids.length; i++) {
+                pending[pendingLength++] = DELTA;
+                putVarint(ids[i]);
+                putVarlong((deltas[i] << 1) ^ (deltas[i] >> 63));
+            }
+            records += ids.length;
+            appendedSeq += ids.length;
+            return appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 이전 묶음의 기록이 실패했으면 그 예외를 던짐
+     *
+     * 실패 후에는 어떤 레코드도 파일에 기록되지 않으므로, 호출자는 잔액을 바꾸기 전에 확인해야 합니다.
+     *
+     * @throws IOException 이전 기록 실패
+     */
+    void checkWritable() throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * 해당 순번까지의 레코드가 파일에 기록될 때까지 대기 (그룹 커밋)
+     *
+     * @param seq append가 돌려준 순번
+     * @throws IOException 기록 실패 (이후의 모든 커밋도 같은 예외로 실패)
+     */
+    void awaitDurable(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (flushing) {
+                    committed.awaitUninterruptibly();
+                    continue;
+                }
+
+                // 이 스레드가 묶음을 기록 (버퍼를 교체하여 다른 스레드는 계속 추가 가능)
+                flushing = true;
+                byte[] batch = pending;
+                int length = pendingLength;
+                long target = appendedSeq;
+                pending = spare;
+                pendingLength = 0;
+
+                lock.unlock();
+                IOException error = null;
+                boolean forced = false;
+                try {
+                    forced = writeBatch(batch, length);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+
+                spare = batch;
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = target;
+                    batches++;
+                    forces += forced ? 1 : 0;
+                    bytesWritten += FRAME_HEADER_BYTES + length;
+                }
+                committed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 변화 레코드를 추가하고 기록될 때까지 대기
+     */
+    void commitDelta(String accountNumber, long deltaMinor) throws IOException {
+        awaitDurable(appendDelta(accountNumber, deltaMinor));
+    }
+
+    /**
+     * @return 레코드 수 / 묶음 수 / fsync 수 / 바이트 수 요약
+     */
+    String describe() {
+        lock.lock();
+        try {
+            return String.format("records=%d, batches=%d (%.1f records/batch), fsyncs=%d, bytes=%d, policy=%s",
+                    records, batches, batches == 0 ? 0.0 : (double) durableSeq / batches,
+                    forces, bytesWritten, policy);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 남은 레코드를 기록하고 (정책과 관계없이 fsync) 파일을 닫음
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        lock.lock();
+        try {
+            last = appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            awaitDurable(last);
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return fsync를 수행했으면 true
+     */
+    private boolean writeBatch(byte[] batch, int length) throws IOException {
+        if (length == 0) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(batch, 0, length);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).putInt(length).putInt((int) crc.getValue());
+        header.flip();
+        writeFully(channel, header);
+        writeFully(channel, ByteBuffer.wrap(batch, 0, length));
+
+        boolean force = policy == FsyncPolicy.EVERY_COMMIT
+                || (policy == FsyncPolicy.PERIODIC && System.nanoTime() - lastForce >= periodicNanos);
+        if (force) {
+            channel.force(false);
+            lastForce = System.nanoTime(); // 묶음을 기록하는 스레드만 접근
+        }
+        return force;
+    }
+
+    /**
+     * 파일의 묶음들을 차례로 재생
+     *
+     * @return 마지막으로 온전한 묶음의 끝 위치 (빈 파일이면 0)
+     */
+    private long replay(Path path, Replayer replayer) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Ledger too large to map: " + path);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a transaction ledger: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ledger version " + version + ": " + path);
+        }
+
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start; // 기록 도중 끊긴 묶음
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            try {
+                replayBatch(payload, replayer, path);
+            } catch (BufferUnderflowException | IllegalStateException | NegativeArraySizeException
+                     | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupt ledger batch at offset " + start + ": " + path, e);
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    private void replayBatch(ByteBuffer payload, Replayer replayer, Path path) throws IOException {
+        while (payload.hasRemaining()) {
+            byte type = payload.get();
+            switch (type) {
+                case OPEN: {
+                    int id = getVarint(payload);
+                    byte[] bytes = new byte[getVarint(payload)];
+                    payload.get(bytes);
+                    String accountNumber = new String(bytes, StandardCharsets.UTF_8);
+                    long initialMinor = getVarlong(payload);
+                    if (id != accountIds.size()) {
+                        throw new IOException("Unexpected account id " + id + " in " + path);
+                    }
+                    accountIds.put(accountNumber, id);
+                    if (id == accountNumbers.length) {
+                        accountNumbers = Arrays.copyOf(accountNumbers, id * 2);
+                    }
+                    accountNumbers[id] = accountNumber;
+                    replayer.opened(accountNumber, initialMinor);
+                    break;
+                }
+                case DELTA: {
+                    int id = getVarint(payload);
+                    long zigzag = getVarlong(payload);
+                    if (id < 0 || id >= accountIds.size()) {
+                        throw new IOException("Unknown account id " + id + " in " + path);
+                    }
+                    replayer.applied(accountNumbers[id], (zigzag >>> 1) ^ -(zigzag & 1));
+                    break;
+                }
+                default:
+                    throw new IOException("Corrupt ledger record type " + type + ": " + path);
+            }
+            records++;
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (pendingLength + additional > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + additional));
+        }
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            pending[pendingLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        pending[pendingLength++] = (byte) value;
+    }
+
+    private void putVarlong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            pending[pendingLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        pending[pendingLength++] = (byte) value;
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private static long getVarlong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varlong");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org._09_proxy.ex02;
+
+/**
+ * 이체 한 건 - 받는 계좌와 금액 (보내는 계좌는 transferAll을 호출한 계좌)
+ */
+public final class Transfer {
+    private final BankAccount to;   // 받는 계좌 (실제 계좌 또는 프록시)
+    private final double amount;    // 이체 금액
+
+    public Transfer(BankAccount to, double amount) {
+        this.to = to;
+        this.amount = amount;
+    }
+
+    public BankAccount getTo() {
+        return to;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,181 @@
+package org._09_proxy.ex02;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 여러 계좌에 걸친 이체 묶음 - 모든 이체가 함께 반영되거나 하나도 반영되지 않음
+ *
+ * 핵심:
+ * - 상계: 계좌별 순변화량으로 합쳐서 처리 (급여 1만 건 = 회사 계좌 출금 1번 + 직원 입금 1만 번)
+ * - 잠금 순서: 관련 계좌의 잠금을 계좌 생성 순번 오름차순으로 잡으므로,
+ *   A→B 묶음과 B→A 묶음이 동시에 실행되어도 교착 상태가 생기지 않음
+ * - 출금 먼저: 순변화량이 음수인 계좌를 모두 CAS로 차감한 뒤에 입금하므로,
+ *   하나라도 잔액이 부족하면 차감한 금액만 되돌리면 됨 (입금된 돈은 되돌릴 필요 없음)
+ * - 원장: 모든 차감이 성공한 뒤 레코드를 appendBatch로 한꺼번에 추가하고, 잠금을 푼 뒤 한 번만 기다림
+ *   (같은 원장의 레코드는 같은 CRC 묶음에 들어가므로 장애 후 재생해도 이체가 반쯤 복원되지 않음)
+ *
+ * 단건 입금/출금은 잠금 없이 CAS로 진행되므로 묶음 도중의 잔액을 볼 수 있지만,
+ * 다른 묶음은 같은 계좌를 잠그므로 되돌려질 중간 상태를 보고 잘못 실패하지 않습니다.
+ */
+class TransferBatch {
+    private static final Comparator<RealBankAccount> LOCK_ORDER =
+            Comparator.comparingLong(RealBankAccount::getId);
+
+    private final Map<RealBankAccount, long[]> net = new HashMap<>(); // 계좌 → 순변화량 (최소 단위)
+    private int size;
+
+    /**
+     * 이체 한 건 추가
+     *
+     * @param minor 이체 금액 (최소 단위, 양수)
+     * @return this (연쇄 호출용)
+     */
+    TransferBatch add(RealBankAccount from, RealBankAccount to, long minor) {
+        if (minor <= 0) {
+            throw new IllegalArgumentException("Transfer must be positive: " + minor);
+        }
+        long[] out = net.computeIfAbsent(from, key -> new long[1]);
+        out[0] = Math.subtractExact(out[0], minor);
+        long[] in = net.computeIfAbsent(to, key -> new long[1]);
+        in[0] = Math.addExact(in[0], minor);
+        size++;
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 묶음 실행
+     *
+     * @return 모두 반영되었으면 true, 잔액이 부족한 계좌가 있으면 false (잔액은 바뀌지 않음)
+     * @throws ArithmeticException 받는 계좌의 잔액이 long 범위를 넘게 되는 경우 (잔액은 바뀌지 않음)
+     * @throws java.io.UncheckedIOException 원장 기록에 실패한 경우
+     *         (이미 실패한 원장이면 잔액은 바뀌지 않고, 기다리는 중에 실패했으면 잔액은 이미 반영됨)
+     */
+    boolean execute() {
+        RealBankAccount[] accounts = net.keySet().toArray(new RealBankAccount[0]);
+        Arrays.sort(accounts, LOCK_ORDER);
+        long[] deltas = new long[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            deltas[i] = net.get(accounts[i])[0];
+        }
+        long[] seqs;
+
+        for (RealBankAccount account : accounts) {
+            account.getTransferLock().lock();
+        }
+        try {
+            // 0. 원장이 이미 실패했으면 아무것도 바꾸지 않고 거부
+            for (RealBankAccount account : accounts) {
+                account.ensureWritable();
+            }
+
+            // 1. 출금 계좌 차감 (실패하면 되돌리고 종료)
+            int lacking = debit(accounts, deltas);
+            if (lacking >= 0) {
+                undo(accounts, deltas, lacking);
+                return false;
+            }
+            if (!fits(accounts, deltas)) {
+                undo(accounts, deltas, accounts.length);
+                throw new ArithmeticException("Balance would overflow");
+            }
+
+            // 2. 원장 기록 (출금은 반영 후, 입금은 반영 전 - RealBankAccount의 순서 규칙)
+            seqs = record(accounts, deltas);
+
+            // 3. 입금 계좌 반영
+            for (int i = 0; i < accounts.length; i++) {
+                if (deltas[i] > 0) {
+                    accounts[i].addMinor(deltas[i]);
+                }
+            }
+        } finally {
+            for (int i = accounts.length - 1; i >= 0; i--) {
+                accounts[i].getTransferLock().unlock();
+            }
+        }
+
+        // 잠금을 푼 뒤 기다림 (원장마다 한 번)
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i].commit(seqs[i]);
+        }
+        return true;
+    }
+
+    /**
+     * 순변화량이 음수인 계좌를 차례로 차감
+     *
+     * @return 잔액이 부족한 첫 계좌의 위치 (모두 차감했으면 -1)
+     */
+    private static int debit(RealBankAccount[] accounts, long[] deltas) {
+        for (int i = 0; i < accounts.length; i++) {
+            if (deltas[i] < 0 && accounts[i].subtractMinor(-deltas[i]) < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 원장별로 변화 레코드를 한 번에 추가
+     *
+     * 보통은 모든 계좌가 같은 엔진의 원장을 쓰므로 appendBatch 한 번입니다.
+     * (다른 원장의 계좌가 섞이면 원장마다 따로 추가하므로, 원자성은 원장 단위로만 보장)
+     *
+     * @return 계좌별 commit 순번 (원장마다 처음 나온 계좌에만 기록, 나머지는 0)
+     */
+    private static long[] record(RealBankAccount[] accounts, long[] deltas) {
+        long[] seqs = new long[accounts.length];
+        boolean[] recorded = new boolean[accounts.length];
+        String[] numbers = new String[accounts.length];
+        long[] amounts = new long[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            TransactionLedger ledger = accounts[i].getLedger();
+            if (recorded[i] || deltas[i] == 0 || ledger == null) {
+                continue;
+            }
+            int count = 0;
+            for (int j = i; j < accounts.length; j++) {
+                if (!recorded[j] && deltas[j] != 0 && accounts[j].getLedger() == ledger) {
+                    recorded[j] = true;
+                    numbers[count] = accounts[j].getAccountNumber();
+                    amounts[count++] = deltas[j];
+                }
+            }
+            seqs[i] = count == accounts.length
+                    ? ledger.appendBatch(numbers, amounts)
+                    : ledger.appendBatch(Arrays.copyOf(numbers, count), Arrays.copyOf(amounts, count));
+        }
+        return seqs;
+    }
+
+    /**
+     * 받는 계좌들이 입금 후에도 long 범위 안인지 확인
+     * (잠금 없는 단건 입금과 동시에 넘치는 경우는 addMinor가 예외로 알림)
+     */
+    private static boolean fits(RealBankAccount[] accounts, long[] deltas) {
+        for (int i = 0; i < accounts.length; i++) {
+            if (deltas[i] > 0 && accounts[i].getBalanceMinor() > Long.MAX_VALUE - deltas[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 앞에서부터 count개 계좌 중 차감한 계좌에 금액을 되돌림 (원장에는 아직 기록하지 않았으므로 기록 없음)
+     */
+    private static void undo(RealBankAccount[] accounts, long[] deltas, int count) {
+        for (int i = 0; i < count; i++) {
+            if (deltas[i] < 0) {
+                accounts[i].addMinor(-deltas[i]);
+            }
+        }
+    }
+}
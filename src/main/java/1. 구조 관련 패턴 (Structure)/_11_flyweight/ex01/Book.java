@@ -37,7 +37,9 @@ class Book {
     public Book(String title) {
         this.title = title;
         // 실제 환경에서는 여기에 책 로딩 등의 무거운 작업이 있을 수 있음
-        System.out.println("Creating book flyweight for: " + title);
+        if (BookFactory.isVerbose()) {
+            System.out.println("Creating book flyweight for: " + title);
+        }
     }
 
     /**
@@ -86,6 +88,15 @@ class Book {
          */
     }
 
+    /**
+     * 책 제목 반환 (내재적 상태는 불변이므로 공개해도 공유에 안전)
+     *
+     * @return 책 제목
+     */
+    public String getTitle() {
+        return title;
+    }
+
     /**
      * 객체 식별을 위한 디버깅 메서드
      *
@@ -1,7 +1,9 @@
 package org._11_flyweight.ex01;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * BookFactory - Flyweight 팩토리 클래스 (FlyweightFactory)
@@ -17,6 +19,12 @@ import java.util.Map;
  *
  * 이 팩토리는 싱글톤 패턴과 함께 사용되어 전역적으로 하나의
  * 팩토리만 존재하도록 보장합니다.
+ *
+ * 동시성:
+ * Library.borrowBook은 여러 요청 스레드에서 동시에 호출되므로,
+ * 캐시는 ConcurrentHashMap을 사용하고 새 Book 생성은 computeIfAbsent로 원자적으로 처리합니다.
+ * 이미 있는 책의 조회는 잠금 없이 get 한 번으로 끝나며,
+ * 같은 제목을 여러 스레드가 동시에 요청해도 Book은 정확히 하나만 생성됩니다.
  */
 class BookFactory {
     /**
@@ -27,16 +35,33 @@ class BookFactory {
      *
      * 이 Map이 Flyweight 패턴의 핵심으로, 동일한 내재적 상태를
      * 가진 객체들이 중복 생성되지 않도록 보장합니다.
+     * (Bookshelf도 이 캐시를 함께 사용하므로 조회 경로는 하나뿐입니다.)
+     */
+    private static final ConcurrentMap<String, Book> books = new ConcurrentHashMap<>();
+
+    /**
+     * 조회 통계 (여러 스레드가 동시에 증가시켜도 경합이 적은 LongAdder 사용)
+     */
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    /**
+     * 조회/생성 로그 출력 여부
+     *
+     * 동시 처리 시에는 콘솔 출력 잠금이 병목이 되므로 끌 수 있습니다.
+     * (Book, Library의 로그도 이 설정을 따름)
      */
-    private static final Map<String, Book> books = new HashMap<>();
+    private static volatile boolean verbose = true;
 
     /**
-     * 싱글톤 인스턴스
+     * 싱글톤 인스턴스 보관 (지연 초기화 홀더)
      *
      * 애플리케이션 전체에서 하나의 BookFactory만 존재하도록 보장합니다.
-     * 이를 통해 모든 Book Flyweight들이 중앙집중식으로 관리됩니다.
+     * 클래스 초기화는 JVM이 한 번만 수행하므로 별도의 동기화 없이 스레드 안전합니다.
      */
-    private static BookFactory instance;
+    private static class Holder {
+        private static final BookFactory INSTANCE = new BookFactory();
+    }
 
     /**
      * private 생성자 (싱글톤 패턴)
@@ -50,15 +75,23 @@ class BookFactory {
      * 싱글톤 인스턴스 획득
      *
      * @return BookFactory의 유일한 인스턴스
-     *
-     * Thread-safe하지 않은 간단한 구현입니다.
-     * 프로덕션에서는 동기화 처리가 필요할 수 있습니다.
      */
     public static BookFactory getInstance() {
-        if (instance == null) {
-            instance = new BookFactory();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @param enabled 조회/생성 로그 출력 여부 (기본값 true)
+     */
+    public static void setVerbose(boolean enabled) {
+        verbose = enabled;
+    }
+
+    /**
+     * @return 조회/생성 로그 출력 여부
+     */
+    public static boolean isVerbose() {
+        return verbose;
     }
 
     /**
@@ -68,25 +101,37 @@ class BookFactory {
      * @return 해당 제목의 Book 인스턴스 (새로 생성되거나 기존 인스턴스)
      *
      * Flyweight 패턴의 핵심 로직:
-     * 1. 캐시에서 기존 인스턴스 검색
+     * 1. 캐시에서 기존 인스턴스 검색 (잠금 없음)
      * 2. 존재하면 기존 인스턴스 반환 (메모리 절약)
-     * 3. 존재하지 않으면 새 인스턴스 생성 후 캐시에 저장
+     * 3. 존재하지 않으면 computeIfAbsent로 새 인스턴스를 원자적으로 생성 후 저장
+     *    (동시에 같은 제목을 요청한 스레드들은 모두 같은 인스턴스를 받음)
      */
     public Book getBook(String title) {
-        // 캐시에서 기존 인스턴스 확인
+        // 캐시에서 기존 인스턴스 확인 (대부분의 호출은 여기서 끝남)
         Book book = books.get(title);
 
         if (book == null) {
-            // 기존 인스턴스가 없으면 새로 생성
-            book = new Book(title);
-            books.put(title, book);
+            // 기존 인스턴스가 없으면 새로 생성 (경쟁 시 한 스레드만 생성)
+            boolean[] created = new boolean[1];
+            book = books.computeIfAbsent(title, key -> {
+                created[0] = true;
+                return new Book(key);
+            });
 
-            System.out.println("Factory: Created new flyweight for '" + title + "'");
-            System.out.println("Factory: Total flyweights created: " + books.size());
-        } else {
-            System.out.println("Factory: Reusing existing flyweight for '" + title + "'");
+            if (created[0]) {
+                misses.increment();
+                if (verbose) {
+                    System.out.println("Factory: Created new flyweight for '" + title + "'");
+                    System.out.println("Factory: Total flyweights created: " + books.size());
+                }
+                return book;
+            }
         }
 
+        hits.increment();
+        if (verbose) {
+            System.out.println("Factory: Reusing existing flyweight for '" + title + "'");
+        }
         return book;
 
         /*
@@ -111,6 +156,20 @@ class BookFactory {
         return books.size();
     }
 
+    /**
+     * @return 기존 Flyweight를 재사용한 조회 횟수
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 새 Flyweight를 생성한 조회 횟수
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
     /**
      * 캐시에 저장된 모든 책 제목 출력 (디버깅용)
      *
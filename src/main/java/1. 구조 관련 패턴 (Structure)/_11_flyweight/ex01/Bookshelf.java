@@ -0,0 +1,9 @@
+package org._11_flyweight.ex01;
+
+// FlyweightFactory class
+// 별도 캐시를 두지 않고 BookFactory의 공유 캐시를 사용 (같은 제목이면 같은 Book 인스턴스)
+class Bookshelf {
+    public static Book getBook(String title) {
+        return BookFactory.getInstance().getBook(title);
+    }
+}
@@ -0,0 +1,188 @@
+package org._11_flyweight.ex01;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * BorrowBenchmark - 여러 요청 스레드의 동시 대출 벤치마크
+ *
+ * 여러 스레드가 동시에 Library.borrowBook과 BookFactory.getBook을 호출할 때
+ * 처리량이 스레드 수에 따라 어떻게 변하는지 측정합니다.
+ *
+ * 측정 항목:
+ * - 스레드 수(1, 2, 4, ... 코어 수 × 2)별 초당 대출 건수
+ * - 모든 대출이 기록되었는지, 제목마다 Book 인스턴스가 하나뿐인지 검증
+ * - Bookshelf를 통한 조회도 같은 인스턴스를 반환하는지 검증
+ * - 대출과 반납이 섞여 동시에 실행된 뒤 제목/대출자/대출일 색인이 기록과 일치하는지 검증
+ *
+ * 참고: 측정 구간 동안에는 BookFactory.setVerbose(false)로 로그를 꺼서
+ * 콘솔 출력 잠금이 결과를 왜곡하지 않도록 합니다.
+ */
+public class BorrowBenchmark {
+    private static final int TITLES = 1_000;
+    private static final int BORROWS_PER_THREAD = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        String[] titles = new String[TITLES];
+        for (int i = 0; i < TITLES; i++) {
+            titles[i] = "Book #" + i;
+        }
+
+        System.out.println("=== Library 동시 대출 벤치마크 ===");
+        System.out.println("Available cores: " + cores);
+
+        boolean previous = BookFactory.isVerbose();
+        BookFactory.setVerbose(false);
+        try {
+            // 워밍업: JIT 컴파일과 캐시 채우기
+            runBorrows(new Library(), titles, 1);
+
+            boolean recorded = true;
+            for (int threads = 1; threads <= cores * 2; threads *= 2) {
+                Library library = new Library();
+                long elapsed = runBorrows(library, titles, threads);
+                double opsPerSec = (double) threads * BORROWS_PER_THREAD / elapsed * 1_000_000_000L;
+                System.out.printf("threads=%2d | %,12.0f borrows/s | %6.1f ms%n",
+                        threads, opsPerSec, elapsed / 1_000_000.0);
+                recorded &= library.getBorrowCount() == threads * BORROWS_PER_THREAD;
+            }
+
+            BookFactory factory = BookFactory.getInstance();
+            boolean consistent = verifySingleInstancePerTitle(Math.max(2, cores));
+            boolean indexed = verifyIndexesWithReturns(titles, Math.max(2, cores));
+            System.out.println("All borrows recorded: " + (recorded ? "OK" : "FAILED"));
+            System.out.println("Indexes consistent after concurrent returns: " + (indexed ? "OK" : "FAILED"));
+            System.out.println("Single instance per title: " + (consistent ? "OK" : "FAILED"));
+            System.out.printf("Flyweights: %d, hits: %,d, misses: %,d%n",
+                    factory.getFlyweightCount(), factory.getHitCount(), factory.getMissCount());
+        } finally {
+            BookFactory.setVerbose(previous);
+        }
+        System.out.println("=================================");
+    }
+
+    /**
+     * @return 모든 스레드가 시작 신호를 받은 뒤 마지막 스레드가 끝날 때까지의 시간 (나노초)
+     */
+    private static long runBorrows(Library library, String[] titles, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            String borrower = "user-" + t;
+            int offset = t * 7919;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < BORROWS_PER_THREAD; i++) {
+                    library.borrowBook(titles[(offset + i) % titles.length], borrower, "2024-02-01");
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    /**
+     * 스레드마다 대출자 한 명으로 대출/반납을 번갈아 수행한 뒤 색인 합계를 확인
+     *
+     * 스레드는 i번째 대출 후 짝수 i마다 직전 대출을 반납하므로,
+     * 대출자마다 남는 기록 수를 미리 알 수 있습니다.
+     */
+    private static boolean verifyIndexesWithReturns(String[] titles, int threads) throws Exception {
+        Library library = new Library();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        int borrows = 20_000;
+
+        for (int t = 0; t < threads; t++) {
+            String borrower = "member-" + t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                boolean returned = true;
+                for (int i = 0; i < borrows; i++) {
+                    String title = titles[i % titles.length];
+                    library.borrowBook(title, borrower, "2024-03-" + String.format("%02d", 1 + i % 28));
+                    if (i % 2 == 0) {
+                        returned &= library.returnBook(title, borrower);
+                    }
+                }
+                return returned;
+            }));
+        }
+        start.countDown();
+
+        boolean ok = true;
+        for (Future<Boolean> future : futures) {
+            ok &= future.get();
+        }
+        pool.shutdown();
+
+        int byTitle = 0;
+        for (String title : titles) {
+            byTitle += library.countByTitle(title);
+        }
+        int byBorrower = 0;
+        for (int t = 0; t < threads; t++) {
+            byBorrower += library.recordsByBorrower("member-" + t).size();
+        }
+        int byDate = library.recordsBetween(
+                java.time.LocalDate.of(2024, 3, 1), java.time.LocalDate.of(2024, 3, 31)).size();
+        int expected = threads * borrows / 2;
+        return ok && library.getBorrowCount() == expected
+                && byTitle == expected && byBorrower == expected && byDate == expected;
+    }
+
+    /**
+     * 처음 보는 제목들을 여러 스레드가 동시에 요청하여 인스턴스가 하나씩만 생기는지 확인
+     */
+    private static boolean verifySingleInstancePerTitle(int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Book[]>> futures = new ArrayList<>();
+        int fresh = 500;
+
+        for (int t = 0; t < threads; t++) {
+            boolean viaShelf = t % 2 == 1;
+            futures.add(pool.submit(() -> {
+                start.await();
+                Book[] books = new Book[fresh];
+                for (int i = 0; i < fresh; i++) {
+                    String title = "Race #" + i;
+                    books[i] = viaShelf ? Bookshelf.getBook(title) : BookFactory.getInstance().getBook(title);
+                }
+                return books;
+            }));
+        }
+        start.countDown();
+
+        Book[] first = futures.get(0).get();
+        Map<Book, Boolean> distinct = new IdentityHashMap<>();
+        boolean same = true;
+        for (Future<Book[]> future : futures) {
+            Book[] books = future.get();
+            for (int i = 0; i < fresh; i++) {
+                same &= books[i] == first[i];
+                distinct.put(books[i], Boolean.TRUE);
+            }
+        }
+        pool.shutdown();
+        return same && distinct.size() == fresh;
+    }
+}
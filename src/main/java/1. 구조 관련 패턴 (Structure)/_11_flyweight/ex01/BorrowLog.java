@@ -0,0 +1,228 @@
+package org._11_flyweight.ex01;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BorrowLog - 추가 전용 열(column) 기반 대출 로그
+ *
+ * 대출 기록마다 BookRecord 객체와 대출자/날짜 문자열을 만드는 대신,
+ * 기록 하나를 세 개의 int 열에 나누어 저장합니다.
+ *
+ * - bookIds: Book Flyweight 번호 (로그 안에서 Flyweight마다 한 번만 부여)
+ * - borrowerIds: 대출자 번호 (같은 이름은 한 번만 저장)
+ * - epochDays: 대출일 (1970-01-01 기준 일수)
+ *
+ * 기록 번호(row)는 추가 순서대로 0부터 증가하며 바뀌지 않습니다.
+ * 반납은 기록을 지우지 않고 returned 비트만 세우므로, 색인은 row 번호를 그대로 보관할 수 있습니다.
+ *
+ * 핵심:
+ * - 기록당 12바이트 + 반납 비트 (문자열/객체 헤더/참조 없음)
+ * - 대출자 이름과 Book은 로그 전체에서 한 번씩만 보관 (Flyweight와 같은 원리)
+ * - forEach는 기록마다 객체를 만들지 않고 열 값을 그대로 전달
+ *
+ * 스레드 안전하지 않으므로 Library의 잠금 안에서 사용합니다.
+ */
+class BorrowLog {
+    /**
+     * 열 값을 그대로 받는 순회 콜백 (기록마다 객체를 만들지 않음)
+     */
+    interface Visitor {
+        void visit(int row, Book book, String borrower, int epochDay);
+    }
+
+    private int[] bookIds = new int[16];
+    private int[] borrowerIds = new int[16];
+    private int[] epochDays = new int[16];
+    private final BitSet returned = new BitSet();
+    private int size;
+    private int returnedCount;
+
+    private final List<Book> books = new ArrayList<>();
+    private final Map<Book, Integer> bookIdOf = new IdentityHashMap<>();
+    private final List<String> borrowers = new ArrayList<>();
+    private final Map<String, Integer> borrowerIdOf = new HashMap<>();
+
+    /**
+     * 대출 기록 추가
+     *
+     * @param book Book Flyweight
+     * @param borrower 대출자 이름
+     * @param epochDay 대출일 (LocalDate.toEpochDay)
+     * @return 추가된 기록 번호
+     */
+    public int append(Book book, String borrower, int epochDay) {
+        if (size == bookIds.length) {
+            int capacity = size * 2;
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            borrowerIds = Arrays.copyOf(borrowerIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+        bookIds[size] = bookId(book);
+        borrowerIds[size] = borrowerId(borrower);
+        epochDays[size] = epochDay;
+        return size++;
+    }
+
+    /**
+     * 기록을 반납 상태로 표시
+     *
+     * @param row 기록 번호
+     * @return 대출 중이던 기록이면 true, 이미 반납된 기록이면 false
+     */
+    public boolean markReturned(int row) {
+        checkRow(row);
+        if (returned.get(row)) {
+            return false;
+        }
+        returned.set(row);
+        returnedCount++;
+        return true;
+    }
+
+    public boolean isReturned(int row) {
+        checkRow(row);
+        return returned.get(row);
+    }
+
+    public Book bookAt(int row) {
+        checkRow(row);
+        return books.get(bookIds[row]);
+    }
+
+    public String borrowerAt(int row) {
+        checkRow(row);
+        return borrowers.get(borrowerIds[row]);
+    }
+
+    public int epochDayAt(int row) {
+        checkRow(row);
+        return epochDays[row];
+    }
+
+    /**
+     * @return 반납 여부와 관계없이 지금까지 추가된 기록 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 대출 중인(반납되지 않은) 기록 수
+     */
+    public int activeCount() {
+        return size - returnedCount;
+    }
+
+    /**
+     * 대출 중인 기록들을 추가 순서대로 순회
+     *
+     * @param visitor 기록마다 호출할 콜백
+     */
+    public void forEachActive(Visitor visitor) {
+        for (int row = returned.nextClearBit(0); row < size; row = returned.nextClearBit(row + 1)) {
+            visitor.visit(row, books.get(bookIds[row]), borrowers.get(borrowerIds[row]), epochDays[row]);
+        }
+    }
+
+    /**
+     * @return 서로 다른 대출자 수
+     */
+    public int borrowerCount() {
+        return borrowers.size();
+    }
+
+    /**
+     * 현재 열 배열과 이름/Flyweight 표가 차지하는 메모리의 추정치
+     *
+     * 64비트 JVM + 압축 참조(compressed oops) 기준:
+     * 객체 헤더 12바이트, 참조 4바이트, 8바이트 정렬
+     * (Book Flyweight 자체는 팩토리와 공유되므로 제외)
+     *
+     * @return 추정 바이트 수
+     */
+    public long estimateMemoryBytes() {
+        long columns = 3 * align(16 + 4L * bookIds.length)
+                + align(16 + (returned.size() / 8));
+        long names = 0;
+        for (String borrower : borrowers) {
+            names += stringBytes(borrower);
+        }
+        long tables = align(16 + 4L * books.size()) + mapBytes(bookIdOf.size())
+                + align(16 + 4L * borrowers.size()) + mapBytes(borrowerIdOf.size());
+        return align(12 + 4 * 10) + columns + names + tables;
+    }
+
+    /**
+     * 같은 기록을 Library의 기존 방식으로 보관할 때의 추정치
+     *
+     * 기록마다: BookRecord 객체 + 날짜 String + LocalDate
+     * + 기록 목록과 제목/대출자/날짜 색인의 LinkedHashSet 항목 4개
+     * 대출자 String은 estimateMemoryBytes와 같이 서로 다른 이름당 한 번만 계산
+     * (같은 이름은 한 객체를 공유한다고 가정 - 두 방식의 차이가 이름 중복 제거에서 오지 않도록)
+     *
+     * @return 추정 바이트 수
+     */
+    public long estimateObjectLayoutBytes() {
+        long perRecord = align(12 + 4 * 4)                 // BookRecord
+                + align(12 + 4 * 4)                        // LocalDate (int + short + short)
+                + stringBytes("2024-01-01")                // 날짜 문자열
+                + 4 * (align(12 + 4 * 6) + 4);             // LinkedHashMap.Entry + 버킷 참조
+        long names = 0;
+        for (String borrower : borrowers) {
+            names += stringBytes(borrower);
+        }
+        return perRecord * size + names;
+    }
+
+    private int bookId(Book book) {
+        Integer id = bookIdOf.get(book);
+        if (id == null) {
+            id = books.size();
+            books.add(book);
+            bookIdOf.put(book, id);
+        }
+        return id;
+    }
+
+    private int borrowerId(String borrower) {
+        Integer id = borrowerIdOf.get(borrower);
+        if (id == null) {
+            id = borrowers.size();
+            borrowers.add(borrower);
+            borrowerIdOf.put(borrower, id);
+        }
+        return id;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Java 9+ 압축 문자열 기준 (Latin-1은 1바이트, 그 외는 2바이트/문자)
+     */
+    private static long stringBytes(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        return align(12 + 4 + 4 + 4) + align(16 + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long mapBytes(int entries) {
+        return align(12 + 4 * 6) + align(16 + 4L * Integer.highestOneBit(Math.max(1, entries) * 2))
+                + entries * (align(12 + 4 * 4) + 16L); // Entry + Integer 값
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
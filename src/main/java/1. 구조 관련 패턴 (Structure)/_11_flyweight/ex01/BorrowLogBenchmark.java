@@ -0,0 +1,88 @@
+package org._11_flyweight.ex01;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * BorrowLogBenchmark - 대량 대출 기록의 메모리 사용량과 순회 속도 측정
+ *
+ * 수백만 건의 대출을 Library에 기록한 뒤 다음을 측정합니다.
+ * - 기록 속도 (borrows/s)
+ * - 열 기반 로그 + 색인의 추정 메모리와 실제 힙 증가량, 기록당 바이트
+ *   (기록마다 BookRecord/문자열을 두던 방식의 추정치와 비교)
+ * - 대출자별 대출 건수 집계: forEachRecord(객체 생성 없음) vs recordsBetween(BookRecord 생성)
+ *
+ * 대출자 이름은 요청마다 새 문자열로 들어온다고 가정하여 매번 new String으로 만듭니다.
+ * 실행 인자로 대출 건수를 지정할 수 있습니다. (기본 3,000,000건)
+ */
+public class BorrowLogBenchmark {
+    private static final int TITLES = 10_000;
+    private static final int BORROWERS = 50_000;
+
+    public static void main(String[] args) {
+        int borrows = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+        BookFactory.setVerbose(false);
+
+        String[] titles = new String[TITLES];
+        for (int i = 0; i < TITLES; i++) {
+            titles[i] = "Title #" + i;
+        }
+        String[] dates = new String[365];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.of(2024, 1, 1).plusDays(i).toString();
+        }
+
+        System.out.println("=== 대출 로그 벤치마크 ===");
+        long before = usedHeap();
+
+        Library library = new Library();
+        Random random = new Random(3);
+        long start = System.nanoTime();
+        for (int i = 0; i < borrows; i++) {
+            String borrower = new String("member-" + random.nextInt(BORROWERS)); // 요청마다 새 문자열
+            library.borrowBook(titles[random.nextInt(TITLES)], borrower, dates[i * dates.length / borrows]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long measured = usedHeap() - before;
+
+        System.out.printf("Recorded %,d borrows in %.1f ms (%,.0f borrows/s)%n",
+                borrows, elapsed / 1e6, borrows / (elapsed / 1e9));
+        library.showBorrowLogFootprint();
+        System.out.printf("Measured heap growth: %,d bytes (%.1f B/record, includes Book flyweights)%n",
+                measured, (double) measured / borrows);
+
+        for (int round = 0; round < 3; round++) { // 첫 라운드는 JIT 예열
+            start = System.nanoTime();
+            Map<String, int[]> streamed = new HashMap<>();
+            library.forEachRecord((row, book, borrower, epochDay) ->
+                    streamed.computeIfAbsent(borrower, key -> new int[1])[0]++);
+            long streamNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Map<String, int[]> materialized = new HashMap<>();
+            List<Library.BookRecord> records = library.recordsBetween(LocalDate.MIN, LocalDate.MAX);
+            for (Library.BookRecord record : records) {
+                materialized.computeIfAbsent(record.getBorrower(), key -> new int[1])[0]++;
+            }
+            long materializeNanos = System.nanoTime() - start;
+
+            if (round > 0) {
+                System.out.printf("Count per borrower | forEachRecord %7.1f ms | BookRecord list %7.1f ms | same=%s%n",
+                        streamNanos / 1e6, materializeNanos / 1e6,
+                        streamed.size() == materialized.size() && records.size() == library.getBorrowCount());
+            }
+        }
+        System.out.println("==========================");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
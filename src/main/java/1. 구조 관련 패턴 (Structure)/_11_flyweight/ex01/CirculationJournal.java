@@ -0,0 +1,424 @@
+package org._11_flyweight.ex01;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * CirculationJournal - 대출/반납 이벤트의 추가 전용 저널 (write-ahead log)
+ *
+ * Library의 대출/반납을 파일에 순서대로 기록하고, 다음 시작 시 그대로 재생하여
+ * 대출 기록을 복원합니다.
+ *
+ * 파일 구조 (빅 엔디언):
+ * [magic "CIRC" 4바이트][version int]
+ * { [payload 길이 int][payload CRC32 int][payload] } × 묶음 수
+ *
+ * payload는 이벤트들을 이어 붙인 것이며, 정수는 가변 길이(varint)로 저장합니다.
+ * - DEFINE_TITLE   [1][id][UTF-8 길이][UTF-8]   처음 등장한 제목
+ * - DEFINE_BORROWER[2][id][UTF-8 길이][UTF-8]   처음 등장한 대출자
+ * - BORROW         [3][제목 id][대출자 id][epoch day]
+ * - RETURN         [4][제목 id][대출자 id]
+ * 제목/대출자 문자열은 저널 전체에서 한 번씩만 기록되므로 대출 이벤트는 보통 7~9바이트입니다.
+ *
+ * 그룹 커밋:
+ * append는 메모리 버퍼에 인코딩만 하고 순번을 돌려줍니다. awaitDurable을 호출한 스레드 중
+ * 하나가 그때까지 쌓인 이벤트를 한 묶음으로 기록(+ fsync)하고, 나머지 스레드는 그 결과를 기다립니다.
+ * 기록 중에 들어온 이벤트는 다음 묶음에 모이므로 동시 요청이 많을수록 fsync 한 번이 여러 대출을 처리합니다.
+ *
+ * 손상 처리:
+ * 마지막 묶음이 기록 도중 끊겼거나 CRC가 맞지 않으면 그 지점부터 잘라내고 이어서 기록합니다.
+ */
+class CirculationJournal implements AutoCloseable {
+    static final int MAGIC = 0x43495243; // "CIRC"
+    static final int VERSION = 1;
+
+    private static final byte DEFINE_TITLE = 1;
+    private static final byte DEFINE_BORROWER = 2;
+    private static final byte BORROW = 3;
+    private static final byte RETURN = 4;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    /**
+     * 재생 시 이벤트를 받는 콜백
+     *
+     * 제목/대출자는 처음 등장할 때 한 번만 번호와 함께 전달되고,
+     * 이후 이벤트는 그 번호로만 전달됩니다.
+     */
+    interface Replayer {
+        void title(int id, String title);
+
+        void borrower(int id, String borrower);
+
+        void borrowed(int titleId, int borrowerId, int epochDay);
+
+        void returned(int titleId, int borrowerId);
+    }
+
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final Map<String, Integer> titleIds = new HashMap<>();
+    private final Map<String, Integer> borrowerIds = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private byte[] pending = new byte[4096];
+    private byte[] spare = new byte[4096];
+    private int pendingLength;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private IOException failure;
+
+    private long batches;
+    private long events;
+    private long bytesWritten;
+
+    private CirculationJournal(FileChannel channel, boolean fsync) {
+        this.channel = channel;
+        this.fsync = fsync;
+    }
+
+    /**
+     * 저널 파일을 열어 기존 이벤트를 재생한 뒤 이어서 기록할 수 있도록 준비
+     *
+     * @param path 저널 파일 (없으면 새로 만듦)
+     * @param fsync true면 묶음마다 디스크까지 강제 기록 (전원 장애에도 보존),
+     *              false면 운영체제 버퍼까지만 기록 (프로세스 장애에만 보존)
+     * @param replayer 기존 이벤트를 받을 콜백
+     * @return 열린 저널
+     * @throws IOException 읽기/쓰기 실패 또는 저널 파일이 아닌 경우
+     */
+    static CirculationJournal open(Path path, boolean fsync, Replayer replayer) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            CirculationJournal journal = new CirculationJournal(channel, fsync);
+            long valid = journal.replay(path, replayer);
+            channel.truncate(valid); // 끊긴 마지막 묶음 제거
+            channel.position(valid);
+            if (valid == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(channel, header);
+                channel.force(true);
+            }
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 대출 이벤트를 버퍼에 추가
+     *
+     * 호출 순서가 곧 저널 순서이므로, 호출자는 메모리 상태 변경과 같은 잠금 안에서 호출해야 합니다.
+     *
+     * @return awaitDurable에 넘길 순번
+     */
+    long appendBorrow(String title, String borrower, int epochDay) {
+        lock.lock();
+        try {
+            int titleId = define(titleIds, DEFINE_TITLE, title);
+            int borrowerId = define(borrowerIds, DEFINE_BORROWER, borrower);
+            ensureCapacity(16);
+            pending[pendingLength++] = BORROW;
+            putVarint(titleId);
+            putVarint(borrowerId);
+            putVarint(epochDay);
+            events++;
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 반납 이벤트를 버퍼에 추가 (appendBorrow와 같은 호출 규칙)
+     *
+     * @return awaitDurable에 넘길 순번
+     */
+    long appendReturn(String title, String borrower) {
+        lock.lock();
+        try {
+            int titleId = define(titleIds, DEFINE_TITLE, title);
+            int borrowerId = define(borrowerIds, DEFINE_BORROWER, borrower);
+            ensureCapacity(11);
+            pending[pendingLength++] = RETURN;
+            putVarint(titleId);
+            putVarint(borrowerId);
+            events++;
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 이전 묶음의 기록이 실패했으면 그 예외를 던짐
+     *
+     * 실패 후에는 어떤 이벤트도 파일에 기록되지 않으므로, 호출자는 메모리 상태를 바꾸기 전에 확인해야 합니다.
+     *
+     * @throws IOException 이전 기록 실패
+     */
+    void checkWritable() throws IOException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 해당 순번까지의 이벤트가 파일에 기록될 때까지 대기 (그룹 커밋)
+     *
+     * 기록 중인 스레드가 없으면 호출한 스레드가 직접 지금까지 쌓인 이벤트를 한 묶음으로 기록합니다.
+     *
+     * @param seq append가 돌려준 순번
+     * @throws IOException 기록 실패 (이후의 모든 기록도 같은 예외로 실패)
+     */
+    void awaitDurable(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+
+                // 이 스레드가 묶음을 기록 (버퍼를 교체하여 다른 스레드는 계속 추가 가능)
+                flushing = true;
+                byte[] batch = pending;
+                int length = pendingLength;
+                long target = appendedSeq;
+                pending = spare;
+                pendingLength = 0;
+
+                lock.unlock();
+                IOException error = null;
+                try {
+                    writeBatch(batch, length);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+
+                spare = batch;
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = target;
+                    batches++;
+                    bytesWritten += FRAME_HEADER_BYTES + length;
+                }
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 기록한 묶음 수 / 이벤트 수 / 바이트 수 요약
+     */
+    String describe() {
+        lock.lock();
+        try {
+            return String.format("events=%d, batches=%d (%.1f events/batch), bytes=%d, fsync=%s",
+                    events, batches, batches == 0 ? 0.0 : (double) durableSeq / batches, bytesWritten, fsync);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 남은 이벤트를 기록하고 파일을 닫음
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        lock.lock();
+        try {
+            last = appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            awaitDurable(last);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBatch(byte[] batch, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(batch, 0, length);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).putInt(length).putInt((int) crc.getValue());
+        header.flip();
+        writeFully(channel, header);
+        writeFully(channel, ByteBuffer.wrap(batch, 0, length));
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 파일의 묶음들을 차례로 재생
+     *
+     * @return 마지막으로 온전한 묶음의 끝 위치 (빈 파일이면 0)
+     */
+    private long replay(Path path, Replayer replayer) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal too large to map: " + path);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a circulation journal: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + ": " + path);
+        }
+
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start; // 기록 도중 끊긴 묶음
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            try {
+                replayBatch(payload, replayer, path);
+            } catch (BufferUnderflowException | IllegalStateException | NegativeArraySizeException e) {
+                throw new IOException("Corrupt journal batch at offset " + start + ": " + path, e);
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    private void replayBatch(ByteBuffer payload, Replayer replayer, Path path) throws IOException {
+        while (payload.hasRemaining()) {
+            byte type = payload.get();
+            switch (type) {
+                case DEFINE_TITLE: {
+                    int id = getVarint(payload);
+                    String title = getString(payload);
+                    titleIds.put(title, id);
+                    replayer.title(id, title);
+                    break;
+                }
+                case DEFINE_BORROWER: {
+                    int id = getVarint(payload);
+                    String borrower = getString(payload);
+                    borrowerIds.put(borrower, id);
+                    replayer.borrower(id, borrower);
+                    break;
+                }
+                case BORROW:
+                    replayer.borrowed(getVarint(payload), getVarint(payload), getVarint(payload));
+                    events++;
+                    break;
+                case RETURN:
+                    replayer.returned(getVarint(payload), getVarint(payload));
+                    events++;
+                    break;
+                default:
+                    throw new IOException("Corrupt journal event type " + type + ": " + path);
+            }
+        }
+    }
+
+    /**
+     * 처음 보는 문자열이면 번호를 부여하고 정의 이벤트를 버퍼에 추가 (잠금 안에서 호출)
+     */
+    private int define(Map<String, Integer> ids, byte type, String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        id = ids.size();
+        ids.put(value, id);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(11 + bytes.length);
+        pending[pendingLength++] = type;
+        putVarint(id);
+        putVarint(bytes.length);
+        System.arraycopy(bytes, 0, pending, pendingLength, bytes.length);
+        pendingLength += bytes.length;
+        return id;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (pendingLength + additional > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + additional));
+        }
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            pending[pendingLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        pending[pendingLength++] = (byte) value;
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getVarint(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org._11_flyweight.ex01;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * JournalBenchmark - 대출 저널의 기록 처리량과 재시작 복원 시간 측정
+ *
+ * 측정 항목:
+ * - 스레드 수(1, 4, 16)별 초당 대출 건수: 저널 없음 / 저널(fsync 없음) / 저널(fsync)
+ *   fsync 모드에서는 동시 요청이 한 번의 fsync로 묶이는 정도(events/batch)도 출력
+ * - 수백만 건의 대출/반납을 기록한 저널을 다시 열 때의 재생 시간과 이벤트당 바이트
+ * - 복원된 대출 건수와 제목별 건수가 원래 Library와 같은지 검증
+ * - 저널 기록이 실패한 뒤의 대출/반납이 메모리를 바꾸지 않고 거부되는지 검증
+ *
+ * 실행 인자로 재생 측정용 이벤트 수를 지정할 수 있습니다. (기본 2,000,000건)
+ */
+public class JournalBenchmark {
+    private static final int TITLES = 10_000;
+    private static final int BORROWERS = 50_000;
+    private static final int[] THREADS = {1, 4, 16};
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        BookFactory.setVerbose(false);
+
+        String[] titles = new String[TITLES];
+        for (int i = 0; i < TITLES; i++) {
+            titles[i] = "Title #" + i;
+        }
+        Path dir = Files.createTempDirectory("circulation");
+
+        System.out.println("=== 대출 저널 벤치마크 ===");
+        runBorrows(new Library(), titles, 4, 20_000); // 워밍업
+        for (int threads : THREADS) {
+            int perThread = 2_000;
+            report("memory only", threads, perThread, runBorrows(new Library(), titles, threads, perThread), null);
+
+            Path path = dir.resolve("buffered-" + threads + ".journal");
+            try (Library library = Library.open(path, false)) {
+                report("journal", threads, perThread, runBorrows(library, titles, threads, perThread), library);
+            }
+
+            path = dir.resolve("fsync-" + threads + ".journal");
+            try (Library library = Library.open(path, true)) {
+                report("journal+fsync", threads, perThread, runBorrows(library, titles, threads, perThread), library);
+            }
+        }
+
+        // 재시작 복원: 대출과 반납이 섞인 저널을 쓰고 다시 열기
+        Path path = dir.resolve("replay.journal");
+        Library original = Library.open(path, false);
+        Random random = new Random(5);
+        int epochDay = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+        String title = null;
+        String borrower = null;
+        for (int i = 0; i < events; i++) {
+            if (i % 4 == 3) {
+                original.returnBook(title, borrower); // 직전 대출 반납
+            } else {
+                title = titles[random.nextInt(TITLES)];
+                borrower = "member-" + random.nextInt(BORROWERS);
+                original.borrowBook(title, borrower, LocalDate.ofEpochDay(epochDay + i % 365).toString());
+            }
+        }
+        original.close();
+        long bytes = Files.size(path);
+
+        long start = System.nanoTime();
+        Library restored = Library.open(path, false);
+        long elapsed = System.nanoTime() - start;
+
+        boolean same = restored.getBorrowCount() == original.getBorrowCount();
+        for (String name : titles) {
+            same &= restored.countByTitle(name) == original.countByTitle(name);
+        }
+        System.out.printf("Replay %,d events (%,d bytes, %.1f B/event) in %.1f ms (%,.0f events/s)%n",
+                events, bytes, (double) bytes / events, elapsed / 1e6, events / (elapsed / 1e9));
+        System.out.println("Restored state matches: " + (same ? "OK" : "FAILED")
+                + " (active borrows " + restored.getBorrowCount() + ")");
+        restored.close();
+
+        // 저널 실패 후: 이후 대출/반납은 메모리를 바꾸지 않고 거부되어야 함
+        Library broken = Library.open(dir.resolve("broken.journal"), false);
+        broken.borrowBook(titles[0], "member-0", "2024-01-01");
+        broken.close(); // 파일을 닫아 다음 기록이 실패하도록 함
+        boolean firstFailed = throwsUnchecked(() -> broken.borrowBook(titles[1], "member-1", "2024-01-02"));
+        int before = broken.getBorrowCount();
+        boolean rejected = throwsUnchecked(() -> broken.borrowBook(titles[2], "member-2", "2024-01-03"))
+                && broken.getBorrowCount() == before
+                && throwsUnchecked(() -> broken.returnBook(titles[0], "member-0"))
+                && broken.getBorrowCount() == before;
+        System.out.println("Mutations rejected after journal failure: "
+                + (firstFailed && rejected ? "OK" : "FAILED"));
+
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+        System.out.println("==========================");
+    }
+
+    /**
+     * @return 작업이 UncheckedIOException을 던졌으면 true
+     */
+    private static boolean throwsUnchecked(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (UncheckedIOException e) {
+            return true;
+        }
+    }
+
+    private static void report(String label, int threads, int perThread, long elapsed, Library library) {
+        System.out.printf("%-14s threads=%2d | %,12.0f borrows/s | %s%n", label, threads,
+                (double) threads * perThread / elapsed * 1_000_000_000L,
+                library == null ? "" : library.journalStats());
+    }
+
+    /**
+     * @return 모든 스레드가 시작 신호를 받은 뒤 마지막 스레드가 끝날 때까지의 시간 (나노초)
+     */
+    private static long runBorrows(Library library, String[] titles, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            String borrower = "user-" + t;
+            int offset = t * 7919;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    library.borrowBook(titles[(offset + i) % titles.length], borrower, "2024-02-01");
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+}
@@ -1,7 +1,19 @@
 package org._11_flyweight.ex01;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Library - Flyweight 사용자 클래스 (Context/Client)
@@ -16,19 +28,47 @@ import java.util.List;
  * - Flyweight와 외재적 상태를 조합하여 완전한 기능 제공
  *
  * 이 클래스는 Flyweight 패턴의 실제 사용 예시를 보여줍니다.
+ *
+ * 대출 기록은 BorrowLog(열 기반 추가 전용 로그)에 저장하고, 색인은 기록 번호만 보관합니다.
+ * - 제목별 / 대출자별: HashMap → 기록 번호 목록 (O(1) 조회)
+ * - 대출일별: TreeMap → 기록 번호 목록 (기간 조회)
+ * 대출(borrowBook)과 반납(returnBook)은 쓰기 잠금 안에서 기록과 모든 색인을 함께 갱신하고,
+ * 조회는 읽기 잠금으로 동시에 수행되므로 어떤 스레드도 색인이 어긋난 상태를 보지 않습니다.
+ *
+ * open(path, fsync)로 만든 Library는 대출/반납을 CirculationJournal에 함께 기록합니다.
+ * - 이벤트는 쓰기 잠금 안에서 저널 버퍼에 추가되므로 저널 순서 = 메모리 반영 순서
+ * - 파일 기록(그룹 커밋)은 잠금 밖에서 기다리므로 조회와 다른 대출을 막지 않음
+ * - borrowBook/returnBook은 이벤트가 파일에 기록된 뒤에 반환
+ * - 다시 열 때 저널을 재생하여 기록과 색인을 복원 (제목마다 Book Flyweight는 한 번만 획득)
+ * - 저널 기록이 한 번 실패하면 이후의 대출/반납은 메모리를 바꾸기 전에 UncheckedIOException으로 거부
+ *   (실패한 묶음에 들어 있던 요청은 메모리에는 반영되었지만 호출자는 예외를 받음 → 재시작하면 저널 기준으로 복원)
  */
-class Library {
+class Library implements AutoCloseable {
     /**
-     * 대출된 책들의 정보를 저장하는 리스트
+     * 대출 기록 로그
      *
-     * 각 BookRecord는 다음을 포함합니다:
-     * - Book Flyweight에 대한 참조 (내재적 상태)
-     * - 외재적 상태 (대출자, 대출일 등)
+     * 각 기록은 다음을 포함합니다:
+     * - Book Flyweight 번호 (내재적 상태에 대한 참조)
+     * - 외재적 상태 (대출자 번호, 대출일)
      *
      * 이 구조가 Flyweight 패턴의 핵심:
      * Book 객체는 공유되지만, 각 대출 기록은 독립적입니다.
+     * 기록을 객체 대신 int 열로 저장하여 대출 건수가 많아도 메모리가 적게 듭니다.
+     * BookRecord는 조회 결과를 돌려줄 때만 만드는 읽기 전용 뷰입니다.
+     */
+    private final BorrowLog log = new BorrowLog();
+
+    /**
+     * 보조 색인: 제목 / 대출자 / 대출일(epoch day) → 대출 중인 기록 번호들 (대출 순서)
+     */
+    private final Map<String, Rows> byTitle = new HashMap<>();
+    private final Map<String, Rows> byBorrower = new HashMap<>();
+    private final NavigableMap<Integer, Rows> byDate = new TreeMap<>();
+
+    /**
+     * 기록과 색인을 함께 보호하는 잠금 (조회는 동시에, 대출/반납은 하나씩)
      */
-    private List<BookRecord> borrowedBooks;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     /**
      * BookFactory 인스턴스
@@ -37,47 +77,237 @@ class Library {
      */
     private BookFactory factory;
 
+    /**
+     * 대출/반납 저널 (null이면 메모리에만 기록)
+     */
+    private CirculationJournal journal;
+
     /**
      * Library 생성자
      *
      * 필요한 컴포넌트들을 초기화합니다.
      */
     public Library() {
-        this.borrowedBooks = new ArrayList<>();
         this.factory = BookFactory.getInstance();
     }
 
+    /**
+     * 저널 파일을 사용하는 Library 생성
+     *
+     * 파일이 있으면 기록된 대출/반납을 순서대로 재생하여 이전 상태를 복원하고,
+     * 이후의 대출/반납은 같은 파일에 이어서 기록합니다.
+     * 재생 중에는 로그를 출력하지 않으며, 날짜 해석도 하지 않습니다. (epoch day 그대로 기록)
+     *
+     * @param journalPath 저널 파일 경로 (없으면 새로 만듦)
+     * @param fsync true면 대출/반납마다 디스크까지 기록된 뒤 반환 (여러 스레드의 요청은 한 번의 fsync로 묶임)
+     * @return 복원된 Library
+     * @throws IOException 저널을 읽거나 만들 수 없는 경우
+     */
+    public static Library open(Path journalPath, boolean fsync) throws IOException {
+        Library library = new Library();
+        List<Book> books = new ArrayList<>();
+        List<String> borrowers = new ArrayList<>();
+
+        CirculationJournal journal = CirculationJournal.open(journalPath, fsync, new CirculationJournal.Replayer() {
+            @Override
+            public void title(int id, String title) {
+                books.add(library.factory.getBook(title)); // 제목마다 한 번만 팩토리 조회
+            }
+
+            @Override
+            public void borrower(int id, String borrower) {
+                borrowers.add(borrower);
+            }
+
+            @Override
+            public void borrowed(int titleId, int borrowerId, int epochDay) {
+                library.record(books.get(titleId), borrowers.get(borrowerId), epochDay);
+            }
+
+            @Override
+            public void returned(int titleId, int borrowerId) {
+                library.release(books.get(titleId).getTitle(), borrowers.get(borrowerId));
+            }
+        });
+        library.lock.writeLock().lock();
+        try {
+            library.journal = journal; // 재생이 끝난 뒤부터 기록
+        } finally {
+            library.lock.writeLock().unlock();
+        }
+        return library;
+    }
+
     /**
      * 책 대출 처리
      *
      * @param title 대출할 책의 제목
      * @param borrower 대출자 이름
-     * @param date 대출 날짜
+     * @param date 대출 날짜 (yyyy-MM-dd)
+     * @throws java.time.format.DateTimeParseException 날짜 형식이 잘못된 경우
+     * @throws UncheckedIOException 저널 기록 실패 (이미 실패한 저널이면 아무것도 바꾸지 않음)
      *
      * Flyweight 패턴의 전형적인 사용 패턴:
      * 1. Factory에서 Flyweight 획득 (Book)
-     * 2. 외재적 상태와 함께 레코드 생성 (BookRecord)
-     * 3. 컨텍스트에서 레코드 관리 (Library)
+     * 2. 외재적 상태와 함께 기록 추가 (BorrowLog)
+     * 3. 컨텍스트에서 기록 관리 (Library)
      */
     public void borrowBook(String title, String borrower, String date) {
         // 1. Factory에서 Book Flyweight 획득
         Book book = factory.getBook(title);
 
-        // 2. 외재적 상태와 함께 대출 기록 생성
-        BookRecord record = new BookRecord(book, borrower, date);
-        borrowedBooks.add(record);
+        // 2. 외재적 상태 준비 (날짜는 잠금 밖에서 해석)
+        int epochDay = (int) parseDate(date).toEpochDay();
+
+        // 3. 로그에 기록을 추가하고 색인을 한 번에 갱신 (저널에도 같은 순서로 추가)
+        long seq = 0;
+        lock.writeLock().lock();
+        try {
+            checkJournal();
+            record(book, borrower, epochDay);
+            if (journal != null) {
+                seq = journal.appendBorrow(book.getTitle(), borrower, epochDay);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitJournal(seq);
 
-        System.out.println("Library: Book '" + title + "' borrowed by " +
-                borrower + " on " + date);
+        if (BookFactory.isVerbose()) {
+            System.out.println("Library: Book '" + title + "' borrowed by " +
+                    borrower + " on " + date);
+        }
 
         /*
          * 메모리 효율성 확인:
          * - 같은 책을 여러 명이 대출해도 Book 객체는 하나만 존재
-         * - 각 대출자별로는 별도의 BookRecord가 생성
+         * - 각 대출마다 로그에 int 세 개짜리 기록이 추가
          * - Book은 공유되고, 외재적 상태는 개별 관리
          */
     }
 
+    /**
+     * 책 반납 처리
+     *
+     * 해당 대출자가 그 책을 빌린 기록 중 가장 먼저 빌린 것을 반납 처리합니다.
+     * 제목 색인과 대출자 색인 중 더 작은 쪽만 훑으므로 전체 기록 수와 무관합니다.
+     * 로그의 기록은 반납 표시만 하고 지우지 않습니다. (대출 이력으로 남음)
+     *
+     * @param title 반납할 책의 제목
+     * @param borrower 대출자 이름
+     * @return 반납 처리되었으면 true, 해당 대출 기록이 없으면 false
+     * @throws UncheckedIOException 저널 기록 실패 (이미 실패한 저널이면 아무것도 바꾸지 않음)
+     */
+    public boolean returnBook(String title, String borrower) {
+        boolean returned;
+        long seq = 0;
+
+        lock.writeLock().lock();
+        try {
+            checkJournal();
+            returned = release(title, borrower);
+            if (returned && journal != null) {
+                seq = journal.appendReturn(title, borrower);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitJournal(seq);
+
+        if (BookFactory.isVerbose()) {
+            System.out.println(returned
+                    ? "Library: Book '" + title + "' returned by " + borrower
+                    : "Library: No borrow record of '" + title + "' for " + borrower);
+        }
+        return returned;
+    }
+
+    /**
+     * 저널 통계 (저널을 사용하지 않으면 그 사실을 반환)
+     *
+     * @return 기록한 이벤트 수, 묶음 수, 묶음당 평균 이벤트 수, 바이트 수
+     */
+    public String journalStats() {
+        return journal == null ? "no journal" : journal.describe();
+    }
+
+    /**
+     * 남은 저널 이벤트를 기록하고 파일을 닫음 (저널이 없으면 아무 일도 하지 않음)
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 로그에 대출 기록을 추가하고 색인 갱신 (쓰기 잠금 안에서, 또는 재생 중에 호출)
+     */
+    private void record(Book book, String borrower, int epochDay) {
+        int row = log.append(book, borrower, epochDay);
+        index(byTitle, book.getTitle(), row);
+        index(byBorrower, borrower, row);
+        index(byDate, epochDay, row);
+    }
+
+    /**
+     * 해당 대출자의 가장 오래된 대출 기록을 반납 처리 (쓰기 잠금 안에서, 또는 재생 중에 호출)
+     *
+     * @return 반납 처리되었으면 true
+     */
+    private boolean release(String title, String borrower) {
+        int returned = -1;
+        Rows ofTitle = byTitle.get(title);
+        Rows ofBorrower = byBorrower.get(borrower);
+        if (ofTitle != null && ofBorrower != null) {
+            boolean scanTitle = ofTitle.live <= ofBorrower.live;
+            Rows scan = scanTitle ? ofTitle : ofBorrower;
+            for (int i = 0; i < scan.size && returned < 0; i++) {
+                int row = scan.rows[i];
+                if (!log.isReturned(row) && (scanTitle
+                        ? log.borrowerAt(row).equals(borrower)
+                        : log.bookAt(row).getTitle().equals(title))) {
+                    returned = row;
+                }
+            }
+        }
+
+        if (returned >= 0) {
+            log.markReturned(returned);
+            unindex(byTitle, title);
+            unindex(byBorrower, borrower);
+            unindex(byDate, log.epochDayAt(returned));
+        }
+        return returned >= 0;
+    }
+
+    /**
+     * 저널 기록이 이미 실패했으면 상태를 바꾸기 전에 거부 (쓰기 잠금 안에서 호출)
+     */
+    private void checkJournal() {
+        if (journal != null) {
+            try {
+                journal.checkWritable();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Circulation journal failed; library is read-only", e);
+            }
+        }
+    }
+
+    /**
+     * 저널에 추가한 이벤트가 파일에 기록될 때까지 대기 (잠금 밖에서 호출)
+     */
+    private void awaitJournal(long seq) {
+        if (seq > 0) {
+            try {
+                journal.awaitDurable(seq);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write circulation journal", e);
+            }
+        }
+    }
+
     /**
      * 모든 대출 기록 출력
      *
@@ -87,16 +317,17 @@ class Library {
     public void displayBorrowedBooks() {
         System.out.println("=== Library Borrowed Books ===");
 
-        if (borrowedBooks.isEmpty()) {
+        List<BookRecord> records = records();
+        if (records.isEmpty()) {
             System.out.println("No books currently borrowed.");
         } else {
-            for (int i = 0; i < borrowedBooks.size(); i++) {
-                BookRecord record = borrowedBooks.get(i);
+            for (int i = 0; i < records.size(); i++) {
+                BookRecord record = records.get(i);
                 System.out.printf("[%d] %s\n", i + 1, record.getDetails());
             }
         }
 
-        System.out.println("Total borrowed books: " + borrowedBooks.size());
+        System.out.println("Total borrowed books: " + records.size());
         System.out.println("==============================");
     }
 
@@ -110,7 +341,7 @@ class Library {
     public void readAllBooks() {
         System.out.println("=== Reading All Borrowed Books ===");
 
-        for (BookRecord record : borrowedBooks) {
+        for (BookRecord record : records()) {
             record.readBook(); // 내부적으로 Book.read() 호출
         }
 
@@ -124,14 +355,15 @@ class Library {
      */
     public void showMemoryAnalysis() {
         System.out.println("=== Memory Usage Analysis ===");
-        System.out.println("Total borrowed book records: " + borrowedBooks.size());
+        int borrowed = getBorrowCount();
+        System.out.println("Total borrowed book records: " + borrowed);
         System.out.println("Unique book flyweights created: " + factory.getFlyweightCount());
 
-        if (borrowedBooks.size() > 0) {
-            double efficiency = (double) factory.getFlyweightCount() / borrowedBooks.size();
+        if (borrowed > 0) {
+            double efficiency = (double) factory.getFlyweightCount() / borrowed;
             System.out.printf("Memory efficiency: %.2f (lower is better)\n", efficiency);
 
-            int savedInstances = borrowedBooks.size() - factory.getFlyweightCount();
+            int savedInstances = borrowed - factory.getFlyweightCount();
             System.out.println("Object instances saved: " + savedInstances);
 
             /*
@@ -145,51 +377,335 @@ class Library {
         System.out.println("=============================");
     }
 
+    /**
+     * 대출 중인 기록들을 대출 순서대로 순회 (기록마다 객체를 만들지 않음)
+     *
+     * 순회하는 동안 읽기 잠금을 잡으므로 콜백 안에서 대출/반납을 호출하면 안 됩니다.
+     *
+     * @param visitor (기록 번호, Book, 대출자, 대출일 epoch day)를 받는 콜백
+     */
+    public void forEachRecord(BorrowLog.Visitor visitor) {
+        lock.readLock().lock();
+        try {
+            log.forEachActive(visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 대출 로그의 메모리 사용량 추정치 출력
+     *
+     * 열 기반 로그 + 색인과, 기록마다 객체/문자열을 두는 방식의 추정치를 비교합니다.
+     */
+    public void showBorrowLogFootprint() {
+        lock.readLock().lock();
+        try {
+            int records = log.size();
+            long columnar = log.estimateMemoryBytes() + estimateIndexBytes();
+            long objects = log.estimateObjectLayoutBytes();
+
+            System.out.println("=== Borrow Log Footprint ===");
+            System.out.println("Records: " + records + " (active " + log.activeCount() + ")");
+            System.out.println("Distinct borrowers: " + log.borrowerCount());
+            System.out.printf("Columnar log + indexes: %,d bytes\n", columnar);
+            System.out.printf("Object-per-record layout: %,d bytes (estimated, borrower names shared)\n", objects);
+            if (records > 0) {
+                System.out.printf("Bytes per record: %.1f vs %.1f\n",
+                        (double) columnar / records, (double) objects / records);
+            }
+            System.out.println("============================");
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return 대출 로그와 색인이 차지하는 메모리의 추정치 (바이트, Book Flyweight 제외)
+     */
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return log.estimateMemoryBytes() + estimateIndexBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 색인 맵의 항목(키 문자열은 로그와 공유) + 기록 번호 배열 추정치 (잠금 안에서 호출)
+     */
+    private long estimateIndexBytes() {
+        long bytes = 0;
+        for (Map<?, Rows> index : List.of(byTitle, byBorrower, byDate)) {
+            bytes += 48 + 4L * Integer.highestOneBit(Math.max(1, index.size()) * 2);
+            for (Rows rows : index.values()) {
+                bytes += 40 + rows.estimateMemoryBytes(); // 맵 항목 + Rows
+            }
+        }
+        return bytes;
+    }
+
     /**
      * 특정 책의 모든 대출 기록 조회
      *
      * @param title 조회할 책 제목
      */
     public void findBorrowRecordsByTitle(String title) {
-        System.out.println("=== Borrow Records for '" + title + "' ===");
+        printRecords("Borrow Records for '" + title + "'", recordsByTitle(title),
+                "No borrow records found for '" + title + "'");
+    }
+
+    /**
+     * 특정 대출자의 모든 대출 기록 조회
+     *
+     * @param borrower 조회할 대출자 이름
+     */
+    public void findBorrowRecordsByBorrower(String borrower) {
+        printRecords("Borrow Records of " + borrower, recordsByBorrower(borrower),
+                "No borrow records found for " + borrower);
+    }
+
+    /**
+     * 기간 내 대출 기록 조회
+     *
+     * @param from 시작일 (yyyy-MM-dd, 포함)
+     * @param to 종료일 (yyyy-MM-dd, 포함)
+     */
+    public void findBorrowRecordsBetween(String from, String to) {
+        printRecords("Borrow Records from " + from + " to " + to,
+                recordsBetween(parseDate(from), parseDate(to)),
+                "No borrow records found in this period");
+    }
+
+    /**
+     * @param title 책 제목
+     * @return 해당 책의 대출 기록들 (대출 순서, 스냅샷)
+     */
+    public List<BookRecord> recordsByTitle(String title) {
+        return lookup(byTitle, title);
+    }
 
-        boolean found = false;
-        for (BookRecord record : borrowedBooks) {
-            if (record.getTitle().equals(title)) {
-                System.out.println(record.getDetails());
-                found = true;
+    /**
+     * @param borrower 대출자 이름
+     * @return 해당 대출자의 대출 기록들 (대출 순서, 스냅샷)
+     */
+    public List<BookRecord> recordsByBorrower(String borrower) {
+        return lookup(byBorrower, borrower);
+    }
+
+    /**
+     * @param from 시작일 (포함)
+     * @param to 종료일 (포함)
+     * @return 기간 내 대출 기록들 (대출일 순, 같은 날은 대출 순서)
+     */
+    public List<BookRecord> recordsBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            List<BookRecord> result = new ArrayList<>();
+            if (!from.isAfter(to)) {
+                int first = (int) from.toEpochDay();
+                int last = (int) to.toEpochDay();
+                for (Rows rows : byDate.subMap(first, true, last, true).values()) {
+                    addRecords(result, rows);
+                }
             }
+            return result;
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        if (!found) {
-            System.out.println("No borrow records found for '" + title + "'");
+    /**
+     * @param title 책 제목
+     * @return 해당 책의 현재 대출 건수 (O(1))
+     */
+    public int countByTitle(String title) {
+        lock.readLock().lock();
+        try {
+            Rows rows = byTitle.get(title);
+            return rows == null ? 0 : rows.live;
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
+    /**
+     * @return 현재 대출 중인 기록 수
+     */
+    public int getBorrowCount() {
+        lock.readLock().lock();
+        try {
+            return log.activeCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 순회용 대출 기록 스냅샷 (다른 스레드의 대출/반납과 동시에 읽어도 안전)
+     */
+    private List<BookRecord> records() {
+        lock.readLock().lock();
+        try {
+            List<BookRecord> records = new ArrayList<>(log.activeCount());
+            log.forEachActive((row, book, borrower, epochDay) ->
+                    records.add(new BookRecord(book, borrower, LocalDate.ofEpochDay(epochDay))));
+            return records;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <K> List<BookRecord> lookup(Map<K, Rows> index, K key) {
+        lock.readLock().lock();
+        try {
+            List<BookRecord> result = new ArrayList<>();
+            Rows rows = index.get(key);
+            if (rows != null) {
+                addRecords(result, rows);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 색인의 기록 번호들 중 대출 중인 것만 BookRecord 뷰로 변환 (읽기 잠금 안에서 호출)
+     */
+    private void addRecords(List<BookRecord> result, Rows rows) {
+        for (int i = 0; i < rows.size; i++) {
+            int row = rows.rows[i];
+            if (!log.isReturned(row)) {
+                result.add(new BookRecord(log.bookAt(row), log.borrowerAt(row),
+                        LocalDate.ofEpochDay(log.epochDayAt(row))));
+            }
+        }
+    }
+
+    private void printRecords(String heading, Collection<BookRecord> records, String notFound) {
+        System.out.println("=== " + heading + " ===");
+        if (records.isEmpty()) {
+            System.out.println(notFound);
+        }
+        for (BookRecord record : records) {
+            System.out.println(record.getDetails());
+        }
         System.out.println("=========================================");
     }
 
+    /**
+     * 색인에 기록 번호 추가 (쓰기 잠금 안에서 호출)
+     */
+    private static <K> void index(Map<K, Rows> index, K key, int row) {
+        index.computeIfAbsent(key, k -> new Rows()).add(row);
+    }
+
+    /**
+     * 방금 반납된 기록을 색인에 반영, 비게 된 키는 삭제 (쓰기 잠금 안에서 호출)
+     */
+    private <K> void unindex(Map<K, Rows> index, K key) {
+        Rows rows = index.get(key);
+        if (rows != null && rows.returned(log) == 0) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * 색인 하나의 기록 번호 목록 (대출 순서)
+     *
+     * 반납된 번호는 바로 지우지 않고 건너뛰며,
+     * 반납된 번호가 절반을 넘으면 한 번에 걸러내어 목록을 줄입니다.
+     */
+    private static class Rows {
+        int[] rows = new int[4];
+        int size;
+        int live;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+            live++;
+        }
+
+        /**
+         * @return 남은 대출 중인 기록 수
+         */
+        int returned(BorrowLog log) {
+            live--;
+            if (live > 0 && live * 2 < size) {
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    if (!log.isReturned(rows[i])) {
+                        rows[kept++] = rows[i];
+                    }
+                }
+                size = kept;
+            }
+            return live;
+        }
+
+        long estimateMemoryBytes() {
+            return 24 + ((16 + 4L * rows.length + 7) & ~7L);
+        }
+    }
+
+    /**
+     * yyyy-MM-dd 날짜 해석
+     *
+     * 대출마다 호출되므로 숫자만 직접 읽고, 형식이 다르면 LocalDate.parse에 맡겨
+     * 같은 예외(DateTimeParseException)가 발생하도록 합니다.
+     */
+    static LocalDate parseDate(String date) {
+        if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            int year = digits(date, 0, 4);
+            int month = digits(date, 5, 7);
+            int day = digits(date, 8, 10);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 28) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(date); // 29~31일 등 검증이 필요한 경우 포함
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     /**
      * 대출 기록 내부 클래스
      *
-     * BookRecord는 외재적 상태를 관리하는 클래스입니다.
-     * Book Flyweight에 대한 참조와 함께 각 대출의 고유 정보를 저장합니다.
+     * BookRecord는 외재적 상태를 보여주는 클래스입니다.
+     * Book Flyweight에 대한 참조와 함께 각 대출의 고유 정보를 담으며,
+     * 실제 저장은 BorrowLog가 하고 조회할 때마다 로그에서 만들어집니다.
      */
-    private static class BookRecord {
-        private Book book;        // Flyweight에 대한 참조 (내재적 상태)
-        private String borrower;  // 외재적 상태: 대출자
-        private String date;      // 외재적 상태: 대출일
+    static class BookRecord {
+        private final Book book;            // Flyweight에 대한 참조 (내재적 상태)
+        private final String borrower;      // 외재적 상태: 대출자
+        private final LocalDate borrowDate; // 외재적 상태: 대출일
 
         /**
          * BookRecord 생성자
          *
          * @param book Book Flyweight 인스턴스
          * @param borrower 대출자 이름 (외재적 상태)
-         * @param date 대출 날짜 (외재적 상태)
+         * @param borrowDate 대출 날짜 (외재적 상태)
          */
-        public BookRecord(Book book, String borrower, String date) {
+        public BookRecord(Book book, String borrower, LocalDate borrowDate) {
             this.book = book;
             this.borrower = borrower;
-            this.date = date;
+            this.borrowDate = borrowDate;
         }
 
         /**
@@ -209,7 +725,7 @@ class Library {
          */
         public String getDetails() {
             return String.format("'%s' borrowed by %s on %s (Book instance: %s)",
-                    getTitle(), borrower, date, book.getIdentity());
+                    getTitle(), borrower, borrowDate, book.getIdentity());
         }
 
         /**
@@ -218,10 +734,12 @@ class Library {
          * @return 책 제목
          */
         public String getTitle() {
-            // Book이 title을 private으로 가지고 있어서 직접 접근 불가
-            // 실제 환경에서는 Book에 getTitle() 메서드가 있어야 함
-            return book.toString().contains("Reading the book titled:") ?
-                    "Unknown Title" : "Title from Book";
+            return book.getTitle();
         }
+
+        public Book getBook() { return book; }
+        public String getBorrower() { return borrower; }
+        public String getDate() { return borrowDate.toString(); }
+        public LocalDate getBorrowDate() { return borrowDate; }
     }
 }
\ No newline at end of file
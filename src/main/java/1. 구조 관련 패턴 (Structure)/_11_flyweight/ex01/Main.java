@@ -102,6 +102,7 @@ public class Main {
 
         System.out.println("\n대출 완료 후 메모리 분석:");
         library.showMemoryAnalysis();
+        library.showBorrowLogFootprint();
 
         /*
          * 메모리 효율성 계산 예시:
@@ -140,6 +141,20 @@ public class Main {
 
         System.out.println("특정 책의 대출 기록 조회:");
         library.findBorrowRecordsByTitle("해리포터와 마법사의 돌");
+
+        System.out.println("대출자별 / 기간별 대출 기록 조회:");
+        library.findBorrowRecordsByBorrower("김철수");
+        library.findBorrowRecordsBetween("2024-01-19", "2024-01-21");
+
+        System.out.println("반납 후 다시 조회:");
+        library.returnBook("해리포터와 마법사의 돌", "김철수");
+        library.findBorrowRecordsByBorrower("김철수");
+        System.out.println("'해리포터와 마법사의 돌' 대출 건수: " + library.countByTitle("해리포터와 마법사의 돌"));
+
+        /*
+         * 조회는 제목/대출자/대출일 색인에서 바로 해당 기록만 꺼내므로
+         * 전체 대출 기록 수와 무관하게 빠릅니다.
+         */
     }
 
     /**
@@ -0,0 +1,173 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * AnalyticsBenchmark - 순차 루프 vs fork/join 문서 분석 비교
+ *
+ * 여러 스타일이 섞인 큰 COLUMNAR 저장소에서 다음 작업을 순차 루프와 병렬 분석으로 각각 수행합니다.
+ * - 문자 히스토그램 + 스타일별 글리프 수 + 단어/줄 수 (analyze)
+ * - 여러 문자 검색 (findAny)
+ * - 전체 텍스트 복사 (getTextContent가 사용하는 DocumentAnalytics.symbols)
+ *
+ * 순차 결과와 병렬 결과가 같은지도 확인합니다.
+ * analyze는 Flyweight 단위로 세므로 단일 코어에서도 빠르고, 나머지는 코어 수만큼 빨라집니다.
+ * 실행 인자로 문자 수를 지정할 수 있습니다. (기본 20,000,000자)
+ */
+public class AnalyticsBenchmark {
+    private static final String[] WORDS = {
+            "flyweight", "intrinsic", "extrinsic", "factory", "document", "render",
+            "glyph", "style", "font", "cache", "share", "memory", "position", "editor"
+    };
+    private static final String[][] STYLES = {
+            {"Arial", "12", "Black"}, {"Times New Roman", "14", "Blue"}, {"Arial", "18", "Red"}
+    };
+    private static final char[] SEARCH = {'q', 'z', 'x', 'y'};
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+
+        DocumentStorage storage = buildStorage(length);
+
+        System.out.println("=== 문서 분석 벤치마크 ===");
+        System.out.printf("Document: %,d positions, %d cores%n",
+                storage.size(), Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 3; round++) { // 첫 라운드는 JIT 예열
+            long start = System.nanoTime();
+            Object[] expected = summarizeSequential(storage);
+            long sequentialSummary = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            DocumentSummary summary = DocumentAnalytics.summarize(storage);
+            long parallelSummary = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int[] expectedHits = findSequential(storage);
+            long sequentialSearch = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int[] hits = DocumentAnalytics.findAny(storage, SEARCH);
+            long parallelSearch = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            StringBuilder content = new StringBuilder(storage.size());
+            for (int i = 0; i < storage.size(); i++) {
+                content.append(storage.symbolAt(i));
+            }
+            String expectedText = content.toString();
+            long sequentialText = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            String text = new String(DocumentAnalytics.symbols(storage));
+            long parallelText = System.nanoTime() - start;
+
+            if (round == 0) {
+                continue;
+            }
+            report("analyze", sequentialSummary, parallelSummary);
+            report("findAny " + Arrays.toString(SEARCH), sequentialSearch, parallelSearch);
+            report("symbols (getTextContent)", sequentialText, parallelText);
+
+            boolean same = (int) expected[0] == summary.getWords()
+                    && (int) expected[1] == summary.getNonBlankLines()
+                    && expected[2].equals(summary.getStyleCounts())
+                    && (int) expected[3] == summary.count(' ')
+                    && (int) expected[4] == summary.count('f')
+                    && Arrays.equals(expectedHits, hits)
+                    && expectedText.equals(text);
+            System.out.println("Parallel results match sequential: " + (same ? "OK" : "FAILED"));
+        }
+        System.out.println("Summary: " + DocumentAnalytics.summarize(storage));
+        System.out.println("==========================");
+    }
+
+    private static void report(String label, long sequential, long parallel) {
+        System.out.printf("%-28s | sequential %8.1f ms | fork/join %8.1f ms | x%.2f%n",
+                label, sequential / 1e6, parallel / 1e6, (double) sequential / parallel);
+    }
+
+    /**
+     * 기준 구현: 한 번의 순차 루프로 단어/내용 있는 줄/스타일별 수/공백 수/'f' 수 계산
+     */
+    private static Object[] summarizeSequential(DocumentStorage storage) {
+        int words = 0;
+        int nonBlankLines = 0;
+        int lastLine = -1;
+        int spaces = 0;
+        int f = 0;
+        boolean inWord = false;
+        Map<String, Integer> styles = new TreeMap<>();
+        for (int i = 0; i < storage.size(); i++) {
+            Character character = storage.characterAt(i);
+            boolean space = character == null || character.getSymbol() == ' ';
+            if (space) {
+                spaces++;
+            } else {
+                styles.merge(character.getFont() + " " + character.getSize() + "pt " + character.getColor(), 1, Integer::sum);
+                if (character.getSymbol() == 'f') {
+                    f++;
+                }
+                if (!inWord) {
+                    words++;
+                }
+                if (storage.lineAt(i) != lastLine) {
+                    nonBlankLines++;
+                    lastLine = storage.lineAt(i);
+                }
+            }
+            inWord = !space;
+        }
+        return new Object[]{words, nonBlankLines, styles, spaces, f};
+    }
+
+    private static int[] findSequential(DocumentStorage storage) {
+        int[] found = new int[16];
+        int count = 0;
+        for (int i = 0; i < storage.size(); i++) {
+            char symbol = storage.symbolAt(i);
+            for (char target : SEARCH) {
+                if (symbol == target) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = i;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * 4,000자 문단마다 스타일을 바꿔 가며 저장소 구성 (가끔 연속 공백 포함)
+     */
+    private static DocumentStorage buildStorage(int length) {
+        DocumentStorage storage = StorageLayout.COLUMNAR.createStorage();
+        CharacterFactory factory = CharacterFactory.getInstance();
+        Random random = new Random(17);
+        StringBuilder paragraph = new StringBuilder();
+
+        for (int i = 0; storage.size() < length; i++) {
+            paragraph.setLength(0);
+            while (paragraph.length() < 4_000) {
+                paragraph.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(8) == 0 ? "  " : " ");
+            }
+            paragraph.setLength(Math.min(4_000, length - storage.size()));
+            String[] style = STYLES[i % STYLES.length];
+            for (int k = 0; k < paragraph.length(); k++) {
+                char symbol = paragraph.charAt(k);
+                if (symbol == ' ') {
+                    storage.appendSpace();
+                } else {
+                    storage.append(factory.getCharacter(symbol, style[0], Integer.parseInt(style[1]), style[2]));
+                }
+            }
+        }
+        return storage;
+    }
+}
@@ -0,0 +1,46 @@
+package org._11_flyweight.ex02;
+
+/**
+ * CacheStatistics - Flyweight 캐시 상태 스냅샷
+ *
+ * CharacterFactory.getStatistics() 호출 시점의 값을 담은 불변 객체입니다.
+ * 모니터링 코드가 주기적으로 가져가 비교하거나 출력하는 용도로 사용합니다.
+ */
+class CacheStatistics {
+    private final int size;
+    private final int capacity;
+    private final int pinned;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    CacheStatistics(int size, int capacity, int pinned, long hits, long misses, long evictions) {
+        this.size = size;
+        this.capacity = capacity;
+        this.pinned = pinned;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * @return 적중률 (0.0 ~ 1.0), 조회가 없었으면 0
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public int getSize() { return size; }
+    public int getCapacity() { return capacity; }
+    public int getPinned() { return pinned; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d, pinned=%d, hits=%d, misses=%d, evictions=%d, hit rate=%.1f%%",
+                size, capacity, pinned, hits, misses, evictions, getHitRate() * 100);
+    }
+}
@@ -28,6 +28,38 @@ class Character {
     private final int size;         // 폰트 크기 (12, 14, 16 등)
     private final String color;     // 문자 색상 ("Black", "Red", "Blue" 등)
 
+    /**
+     * 내재적 상태로부터 만들어지는 문자열들의 캐시
+     *
+     * Flyweight는 불변이므로 스타일/식별 문자열은 처음 요청될 때 한 번만 만들면 됩니다.
+     * String은 불변 객체라 여러 스레드가 동시에 처음 계산하더라도 같은 값이
+     * 들어갈 뿐이므로 별도의 동기화 없이 지연 초기화합니다. (racy single-check)
+     */
+    private String styleInfo;
+    private String identity;
+
+    /**
+     * 확대/축소 비율별 calculateSize 결과 캐시 (최근 ZOOM_CACHE_SIZE개, 순환 교체)
+     *
+     * 화면은 보통 몇 가지 배율만 번갈아 쓰므로 작은 배열로 충분합니다.
+     */
+    private static final int ZOOM_CACHE_SIZE = 4;
+    private volatile ZoomEntry[] zoomCache;
+    private int nextZoomSlot;
+
+    /**
+     * 배율과 계산 결과 한 쌍 (불변)
+     */
+    private static class ZoomEntry {
+        final double zoom;
+        final String text;
+
+        ZoomEntry(double zoom, String text) {
+            this.zoom = zoom;
+            this.text = text;
+        }
+    }
+
     /**
      * Character Flyweight 생성자
      *
@@ -46,8 +78,10 @@ class Character {
         this.color = color;
 
         // 실제 환경에서는 폰트 로딩, 렌더링 준비 등의 무거운 작업이 있을 수 있음
-        System.out.printf("Creating character flyweight: '%c' [%s, %dpt, %s]\n",
-                symbol, font, size, color);
+        if (FlyweightTrace.record(FlyweightTrace.Event.CHARACTER_CREATED)) {
+            FlyweightTrace.emit(FlyweightTrace.Event.CHARACTER_CREATED,
+                    String.format("Creating character flyweight: '%c' [%s, %dpt, %s]", symbol, font, size, color));
+        }
     }
 
     /**
@@ -89,9 +123,26 @@ class Character {
      * @return 계산된 문자 크기 정보
      */
     public String calculateSize(double zoom) {
+        ZoomEntry[] cache = zoomCache;
+        if (cache == null) {
+            cache = new ZoomEntry[ZOOM_CACHE_SIZE];
+            zoomCache = cache;
+        }
+        for (ZoomEntry entry : cache) {
+            if (entry != null && Double.compare(entry.zoom, zoom) == 0) {
+                return entry.text;
+            }
+        }
+
         int actualSize = (int) (size * zoom);
-        return String.format("'%c' will be rendered at %dpt (base: %dpt, zoom: %.1fx)",
+        String text = String.format("'%c' will be rendered at %dpt (base: %dpt, zoom: %.1fx)",
                 symbol, actualSize, size, zoom);
+
+        // 슬롯 번호가 경쟁으로 어긋나도 캐시 항목 하나를 덮어쓸 뿐이므로 결과에는 영향 없음
+        int slot = nextZoomSlot;
+        nextZoomSlot = (slot + 1) % ZOOM_CACHE_SIZE;
+        cache[slot] = new ZoomEntry(zoom, text);
+        return text;
     }
 
     /**
@@ -100,7 +151,12 @@ class Character {
      * @return 내재적 상태 정보 문자열
      */
     public String getStyleInfo() {
-        return String.format("Character '%c': %s %dpt %s", symbol, font, size, color);
+        String info = styleInfo;
+        if (info == null) {
+            info = String.format("Character '%c': %s %dpt %s", symbol, font, size, color);
+            styleInfo = info;
+        }
+        return info;
     }
 
     /**
@@ -131,8 +187,13 @@ class Character {
      * @return 객체 해시코드와 내재적 상태 정보
      */
     public String getIdentity() {
-        return String.format("Character@%s['%c',%s,%d,%s]",
-                Integer.toHexString(hashCode()), symbol, font, size, color);
+        String id = identity;
+        if (id == null) {
+            id = String.format("Character@%s['%c',%s,%d,%s]",
+                    Integer.toHexString(hashCode()), symbol, font, size, color);
+            identity = id;
+        }
+        return id;
     }
 
     // Getter 메서드들 (필요시 외부에서 내재적 상태 접근용)
@@ -1,7 +1,12 @@
 package org._11_flyweight.ex02;
 
-import java.util.HashMap;
-import java.util.Map;
+import org._11_flyweight.ex02.FlyweightTrace.Event;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * CharacterFactory - 문자 Flyweight 팩토리 (FlyweightFactory)
@@ -17,26 +22,77 @@ import java.util.Map;
  * - 예: "안녕하세요"에서 '안', '녕', '하', '세', '요' 각각 하나의 Flyweight
  *
  * 캐시 키 전략:
- * 내재적 상태들(symbol, font, size, color)을 조합하여 고유 키 생성
+ * 내재적 상태들(symbol, font, size, color)을 하나의 long 값으로 압축
+ * - 폰트명과 색상명은 처음 등장할 때 16비트 정수 ID로 등록(intern)
+ * - [symbol 16비트 | size 16비트 | fontId 16비트 | colorId 16비트]
+ * - 문자열 결합이 없으므로 캐시 적중 시 객체 할당이 발생하지 않음
+ *
+ * 동시성:
+ * 여러 스레드가 동시에 문서를 불러와도 같은 키에 대해 하나의 Flyweight만
+ * 생성되도록 FlyweightTable의 원자적 get-or-create(computeIfAbsent)를 사용합니다.
+ *
+ * 캐시 크기 관리:
+ * - 최대 Flyweight 수(capacity)를 넘으면 CLOCK 알고리즘으로 오래 쓰이지 않은 것부터 축출
+ * - TextDocument가 retain/release로 사용 중인 Flyweight를 알려 주므로
+ *   살아 있는 문서가 참조하는 Flyweight는 축출되지 않음
+ * - 적중/실패/축출 횟수는 getStatistics()로 조회
  */
 class CharacterFactory {
+    /**
+     * 기본 최대 Flyweight 수
+     */
+    static final int DEFAULT_CAPACITY = 65_536;
+
+    /**
+     * 스타일 분포 카운터 (Flyweight 생성/축출 시 함께 갱신)
+     */
+    private static final StyleStatistics styleStatistics = new StyleStatistics();
+
+    /**
+     * 이름 있는 스타일과 스타일별 Flyweight 표 (축출/초기화 시 함께 무효화)
+     */
+    private static final StyleRegistry styles = new StyleRegistry();
+
     /**
      * Character Flyweight 인스턴스들을 저장하는 캐시
      *
-     * - Key: 내재적 상태 조합을 나타내는 문자열 키
+     * - Key: 내재적 상태 조합을 압축한 long 키 (packKey 참고)
      * - Value: Character Flyweight 인스턴스
      *
-     * 키 형식: "symbol|font|size|color" (예: "A|Arial|12|Black")
+     * 조회는 잠금 없이 수행되고, 새 Flyweight 생성만 직렬화됩니다.
+     */
+    private static final FlyweightTable characters = new FlyweightTable(DEFAULT_CAPACITY, styleStatistics, styles);
+
+    /**
+     * 조회 통계 (여러 스레드가 동시에 증가시켜도 경합이 적은 LongAdder 사용)
      */
-    private static final Map<String, Character> characters = new HashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
 
     /**
-     * 싱글톤 인스턴스
+     * 폰트명/색상명 → 16비트 ID 등록부
      *
-     * 애플리케이션 전체에서 하나의 팩토리만 존재하여
-     * 모든 Character Flyweight들을 중앙 집중식으로 관리합니다.
+     * ID는 1부터 시작하므로 압축 키는 절대 0(빈 슬롯 표시)이 되지 않습니다.
      */
-    private static CharacterFactory instance;
+    private static final ConcurrentMap<String, Integer> fontIds = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Integer> colorIds = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextFontId = new AtomicInteger(1);
+    private static final AtomicInteger nextColorId = new AtomicInteger(1);
+
+    /**
+     * 압축 키의 각 필드가 가질 수 있는 최댓값 (16비트, 폰트 크기 상한이기도 함)
+     */
+    static final int MAX_FIELD_VALUE = 0xFFFF;
+
+    /**
+     * 싱글톤 인스턴스 보관용 홀더 (Initialization-on-demand holder)
+     *
+     * 클래스 로딩 시점의 초기화는 JVM이 스레드 안전을 보장하므로
+     * 별도의 동기화 없이도 인스턴스가 정확히 하나만 만들어집니다.
+     */
+    private static class Holder {
+        private static final CharacterFactory INSTANCE = new CharacterFactory();
+    }
 
     /**
      * private 생성자 (싱글톤 패턴)
@@ -49,10 +105,7 @@ class CharacterFactory {
      * @return CharacterFactory의 유일한 인스턴스
      */
     public static CharacterFactory getInstance() {
-        if (instance == null) {
-            instance = new CharacterFactory();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -69,25 +122,44 @@ class CharacterFactory {
      * 2. 캐시에서 기존 인스턴스 검색
      * 3. 존재하면 기존 인스턴스 반환 (메모리 절약)
      * 4. 존재하지 않으면 새 인스턴스 생성 후 캐시에 저장
+     *
+     * 3, 4단계는 computeIfAbsent로 원자적으로 수행되므로 여러 스레드가
+     * 동시에 같은 문자를 요청해도 Character는 한 번만 생성됩니다.
      */
     public Character getCharacter(char symbol, String font, int size, String color) {
-        // 내재적 상태들을 조합하여 고유 키 생성
-        String key = createKey(symbol, font, size, color);
+        // 내재적 상태들을 long 하나로 압축 (문자열 키를 만들지 않음)
+        long key = packKey(symbol, font, size, color);
 
-        // 캐시에서 기존 인스턴스 확인
+        // 캐시에서 기존 인스턴스 확인 (잠금 없는 빠른 경로)
         Character character = characters.get(key);
 
         if (character == null) {
-            // 기존 인스턴스가 없으면 새로 생성
-            character = new Character(symbol, font, size, color);
-            characters.put(key, character);
+            misses.increment();
+
+            // 기존 인스턴스가 없으면 원자적으로 생성 (경쟁 시 한 스레드만 생성)
+            boolean[] created = {false};
+            character = characters.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return new Character(symbol, font, size, color);
+            });
 
-            System.out.printf("Factory: Created new flyweight for key: %s\n", key);
-            System.out.println("Factory: Total character flyweights: " + characters.size());
+            if (created[0]) {
+                if (FlyweightTrace.record(Event.FLYWEIGHT_CREATED)) {
+                    FlyweightTrace.emit(Event.FLYWEIGHT_CREATED,
+                            "Factory: Created new flyweight for key: " + createKey(symbol, font, size, color));
+                    FlyweightTrace.emit(Event.FLYWEIGHT_CREATED,
+                            "Factory: Total character flyweights: " + characters.size());
+                }
+                return character;
+            }
         } else {
-            System.out.printf("Factory: Reusing existing flyweight for: '%c'\n", symbol);
+            hits.increment();
         }
 
+        // 캐시 적중은 가장 빈번한 경로이므로 추적이 꺼져 있으면 메시지를 만들지 않음
+        if (FlyweightTrace.record(Event.FLYWEIGHT_REUSED)) {
+            FlyweightTrace.emit(Event.FLYWEIGHT_REUSED, "Factory: Reusing existing flyweight for: '" + symbol + "'");
+        }
         return character;
 
         /*
@@ -102,15 +174,88 @@ class CharacterFactory {
     }
 
     /**
-     * 내재적 상태들로부터 캐시 키 생성
+     * 캐시에 이미 있는 Flyweight만 조회 (생성/로그 없음)
+     *
+     * @return 캐시된 Character, 없으면 null
+     *
+     * 벤치마크처럼 순수 조회 비용만 측정할 때 사용합니다.
+     */
+    Character findCharacter(char symbol, String font, int size, String color) {
+        return characters.get(packKey(symbol, font, size, color));
+    }
+
+    /**
+     * 문서가 Flyweight를 사용하기 시작함을 기록 (사용 중에는 축출되지 않음)
+     *
+     * @param character 문서에 추가된 Flyweight
+     */
+    void retain(Character character) {
+        characters.retain(keyOf(character), character);
+    }
+
+    /**
+     * 문서가 Flyweight 사용을 마쳤음을 기록 (이후 축출 대상이 될 수 있음)
+     *
+     * @param character 문서가 더 이상 사용하지 않는 Flyweight
+     */
+    void release(Character character) {
+        characters.release(keyOf(character));
+    }
+
+    private long keyOf(Character character) {
+        return packKey(character.getSymbol(), character.getFont(), character.getSize(), character.getColor());
+    }
+
+    /**
+     * 내재적 상태들을 하나의 long 키로 압축
+     *
+     * @param symbol 문자
+     * @param font 폰트명
+     * @param size 폰트 크기 (0 ~ 65535)
+     * @param color 문자 색상
+     * @return 0이 아닌 고유 캐시 키
+     */
+    private long packKey(char symbol, String font, int size, String color) {
+        if (size < 0 || size > MAX_FIELD_VALUE) {
+            throw new IllegalArgumentException("Font size out of range: " + size);
+        }
+
+        long fontId = internId(fontIds, nextFontId, font);
+        long colorId = internId(colorIds, nextColorId, color);
+
+        return ((long) symbol << 48) | ((long) size << 32) | (fontId << 16) | colorId;
+    }
+
+    /**
+     * 이름을 16비트 ID로 등록(intern)
+     *
+     * 이미 등록된 이름은 Map 조회 한 번으로 끝나며, String의 hashCode는
+     * 캐시되어 있으므로 추가 할당이 없습니다.
+     */
+    private static int internId(ConcurrentMap<String, Integer> ids, AtomicInteger nextId, String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.computeIfAbsent(name, n -> {
+                int assigned = nextId.getAndIncrement();
+                if (assigned > MAX_FIELD_VALUE) {
+                    throw new IllegalStateException("Too many distinct names registered: " + n);
+                }
+                return assigned;
+            });
+        }
+        return id;
+    }
+
+    /**
+     * 내재적 상태들로부터 사람이 읽을 수 있는 키 문자열 생성 (로그/디버깅용)
      *
      * @param symbol 문자
      * @param font 폰트명
      * @param size 폰트 크기
      * @param color 문자 색상
-     * @return 고유 캐시 키
+     * @return 키 문자열 (예: "A|Arial|12|Black")
      */
-    private String createKey(char symbol, String font, int size, String color) {
+    private static String createKey(char symbol, String font, int size, String color) {
         return symbol + "|" + font + "|" + size + "|" + color;
     }
 
@@ -118,18 +263,66 @@ class CharacterFactory {
      * 특정 스타일의 Character Flyweight 획득 (편의 메서드)
      *
      * @param symbol 문자
-     * @param style 미리 정의된 스타일명
+     * @param style 등록된 스타일명 (등록되지 않은 이름은 기본 스타일)
      * @return 해당 스타일의 Character 인스턴스
      */
     public Character getCharacterWithStyle(char symbol, String style) {
-        return switch (style.toLowerCase()) {
-            case "title" -> getCharacter(symbol, "Arial", 18, "Black");
-            case "heading" -> getCharacter(symbol, "Times New Roman", 14, "Blue");
-            case "body" -> getCharacter(symbol, "Arial", 12, "Black");
-            case "caption" -> getCharacter(symbol, "Arial", 10, "Gray");
-            case "highlight" -> getCharacter(symbol, "Arial", 12, "Red");
-            default -> getCharacter(symbol, "Arial", 12, "Black"); // 기본 스타일
-        };
+        return getCharacterWithStyle(symbol, styles.find(style));
+    }
+
+    /**
+     * 스타일 객체로 Character Flyweight 획득
+     *
+     * 스타일의 문자별 표에 아직 캐시의 현재 항목이 있으면 팩토리 캐시를 거치지 않고 바로 반환하고
+     * (CLOCK 비트는 세움), 없거나 이미 축출된 항목이면 팩토리에서 가져와
+     * 그 인스턴스가 아직 캐시의 현재 항목일 때만 표에 기억합니다.
+     * (교체되어 통지를 받지 못하는 옛 스타일 핸들도 축출된 인스턴스를 돌려주지 않음)
+     *
+     * @param symbol 문자
+     * @param style styleOf 또는 registerStyle로 얻은 스타일
+     * @return 해당 스타일의 Character 인스턴스
+     */
+    Character getCharacterWithStyle(char symbol, StyleRegistry.Style style) {
+        FlyweightTable.Entry entry = style.cached(symbol);
+        if (entry != null && entry.isCurrent()) {
+            hits.increment();
+            if (FlyweightTrace.record(Event.FLYWEIGHT_REUSED)) {
+                FlyweightTrace.emit(Event.FLYWEIGHT_REUSED, "Factory: Reusing existing flyweight for: '" + symbol + "'");
+            }
+            return entry.touch();
+        }
+
+        Character character = getCharacter(symbol, style.font, style.size, style.color);
+        // 그 사이 축출되었다면 기억하지 않음 (다음 조회가 다시 채움)
+        characters.withCurrentEntry(packKey(symbol, style.font, style.size, style.color), character, style::remember);
+        return character;
+    }
+
+    /**
+     * 사용자 정의 스타일 등록 (같은 이름이 있으면 교체)
+     *
+     * @param name 스타일명 (대소문자 구분 없음)
+     * @param font 폰트명
+     * @param size 폰트 크기
+     * @param color 문자 색상
+     */
+    public void registerStyle(String name, String font, int size, String color) {
+        styles.registerStyle(name, font, size, color);
+    }
+
+    /**
+     * @param name 스타일명
+     * @return 등록된 스타일 (없으면 기본 스타일), 반복 입력 시 이름 조회를 생략하는 용도
+     */
+    StyleRegistry.Style styleOf(String name) {
+        return styles.find(name);
+    }
+
+    /**
+     * @return 등록된 스타일명들
+     */
+    public Set<String> getRegisteredStyles() {
+        return styles.names();
     }
 
     /**
@@ -141,27 +334,47 @@ class CharacterFactory {
         return characters.size();
     }
 
+    /**
+     * 최대 Flyweight 수 변경
+     *
+     * 현재 개수보다 작게 줄이면 사용 중이 아닌 Flyweight를 즉시 축출합니다.
+     *
+     * @param capacity 최대 Flyweight 수 (1 이상)
+     */
+    public void setCapacity(int capacity) {
+        characters.setCapacity(capacity);
+    }
+
+    public int getCapacity() {
+        return characters.getCapacity();
+    }
+
+    /**
+     * 캐시 통계 스냅샷 조회
+     *
+     * @return 현재 크기, 용량, 사용 중인 개수, 적중/실패/축출 횟수
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(characters.size(), characters.getCapacity(), characters.pinnedCount(),
+                hits.sum(), misses.sum(), characters.evictionCount());
+    }
+
     /**
      * 메모리 사용 통계 출력
      */
     public void displayMemoryStatistics() {
+        CacheStatistics statistics = getStatistics();
         System.out.println("=== Character Flyweight Memory Statistics ===");
-        System.out.println("Total unique character flyweights: " + characters.size());
-
-        // 폰트별 통계
-        Map<String, Integer> fontStats = new HashMap<>();
-        Map<String, Integer> colorStats = new HashMap<>();
-        Map<Integer, Integer> sizeStats = new HashMap<>();
+        System.out.println("Total unique character flyweights: " + statistics.getSize()
+                + " (capacity " + statistics.getCapacity() + ", in use by documents " + statistics.getPinned() + ")");
+        System.out.printf("Lookups: %d hits, %d misses (hit rate %.1f%%), %d evictions\n",
+                statistics.getHits(), statistics.getMisses(), statistics.getHitRate() * 100,
+                statistics.getEvictions());
 
-        for (Character ch : characters.values()) {
-            fontStats.merge(ch.getFont(), 1, Integer::sum);
-            colorStats.merge(ch.getColor(), 1, Integer::sum);
-            sizeStats.merge(ch.getSize(), 1, Integer::sum);
-        }
-
-        System.out.println("Font distribution: " + fontStats);
-        System.out.println("Color distribution: " + colorStats);
-        System.out.println("Size distribution: " + sizeStats);
+        // 분포는 생성/축출 시점에 갱신된 카운터를 그대로 읽음 (캐시 순회 없음)
+        System.out.println("Font distribution: " + styleStatistics.fontDistribution());
+        System.out.println("Color distribution: " + styleStatistics.colorDistribution());
+        System.out.println("Size distribution: " + styleStatistics.sizeDistribution());
         System.out.println("============================================");
     }
 
@@ -174,11 +387,11 @@ class CharacterFactory {
         if (characters.isEmpty()) {
             System.out.println("No characters cached yet.");
         } else {
-            for (Map.Entry<String, Character> entry : characters.entrySet()) {
-                String key = entry.getKey();
-                Character character = entry.getValue();
+            characters.forEach(character -> {
+                String key = createKey(character.getSymbol(), character.getFont(),
+                        character.getSize(), character.getColor());
                 System.out.println("Key: " + key + " | " + character.getIdentity());
-            }
+            });
         }
 
         System.out.println("Total flyweights: " + characters.size());
@@ -193,38 +406,37 @@ class CharacterFactory {
      * @return 조건에 맞는 Character 개수
      */
     public int countCharactersWithStyle(String font, int size) {
-        int count = 0;
-        for (Character ch : characters.values()) {
-            if (ch.getFont().equals(font) && ch.getSize() == size) {
-                count++;
-            }
+        Integer fontId = fontIds.get(font);
+        if (fontId == null) {
+            return 0; // 한 번도 등록되지 않은 폰트
         }
-        return count;
+        return styleStatistics.countFontSize(fontId, size);
     }
 
     /**
-     * 캐시 최적화 - 사용되지 않는 Flyweight 정리
+     * 폰트별/색상별/크기별 Flyweight 분포 (모니터링용 O(1) 조회)
      *
-     * 실제 환경에서는 메모리 압박 시 사용빈도가 낮은
-     * Flyweight들을 제거할 수 있습니다.
+     * @return 현재 카운터 값을 담은 통계 객체
+     */
+    StyleStatistics getStyleStatistics() {
+        return styleStatistics;
+    }
+
+    /**
+     * 캐시 최적화 - 사용되지 않는 Flyweight 정리
      *
-     * 주의: 이 메서드는 신중하게 사용해야 합니다.
-     * 아직 참조되고 있는 Flyweight를 제거하면 문제가 발생할 수 있습니다.
+     * 살아 있는 문서가 참조하지 않는 Flyweight를 모두 축출합니다.
+     * 문서가 사용 중인 Flyweight는 남겨 두므로 언제 호출해도 안전합니다.
+     * (정리된 Flyweight는 다시 요청되면 새로 생성됩니다)
      */
     public void optimizeCache() {
         int sizeBefore = characters.size();
 
-        // 예시: 특정 조건의 Flyweight들 제거
-        // 실제로는 사용 빈도, 마지막 접근 시간 등을 고려해야 함
-        characters.entrySet().removeIf(entry -> {
-            Character ch = entry.getValue();
-            // 예: 크기가 너무 크거나 특별한 색상인 문자들 제거
-            return ch.getSize() > 20 || "Yellow".equals(ch.getColor());
-        });
+        int removed = characters.trimTo(0);
 
         int sizeAfter = characters.size();
-        System.out.printf("Cache optimized: %d -> %d flyweights (removed %d)\n",
-                sizeBefore, sizeAfter, sizeBefore - sizeAfter);
+        System.out.printf("Cache optimized: %d -> %d flyweights (removed %d, kept %d in use)\n",
+                sizeBefore, sizeAfter, removed, sizeAfter);
     }
 
     /**
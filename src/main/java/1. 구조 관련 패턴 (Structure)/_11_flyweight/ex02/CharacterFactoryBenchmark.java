@@ -0,0 +1,163 @@
+package org._11_flyweight.ex02;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CharacterFactoryBenchmark - 동시 조회 경합 벤치마크
+ *
+ * 여러 스레드가 동시에 TextDocument를 채울 때 CharacterFactory의
+ * 조회 처리량이 코어 수에 따라 어떻게 늘어나는지 측정합니다.
+ *
+ * 측정 항목:
+ * - 스레드 수(1, 2, 4, ... 코어 수 × 2)별 초당 조회 횟수
+ * - 같은 키에 대해 모든 스레드가 동일한 Flyweight 인스턴스를 받았는지 검증
+ *
+ * 참고: 측정 구간 동안에는 추적 수준을 COUNTERS로 낮춰 콘솔 I/O 없이
+ * 이벤트 횟수만 집계하므로, 출력 잠금 경합이 결과를 왜곡하지 않습니다.
+ */
+public class CharacterFactoryBenchmark {
+    private static final String[] FONTS = {"Arial", "Times New Roman", "Courier New", "Verdana"};
+    private static final int[] SIZES = {10, 12, 14, 18};
+    private static final String[] COLORS = {"Black", "Blue", "Red", "Gray"};
+    private static final String TEXT = "The quick brown fox jumps over the lazy dog 0123456789";
+
+    private static final int LOOKUPS_PER_THREAD = 200_000;
+    private static final int DOCUMENTS_PER_THREAD = 4;
+
+    public static void main(String[] args) throws Exception {
+        CharacterFactory factory = CharacterFactory.getInstance();
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== CharacterFactory 동시 조회 벤치마크 ===");
+        System.out.println("Available cores: " + cores);
+
+        FlyweightTrace.Level previous = FlyweightTrace.getLevel();
+        FlyweightTrace.setLevel(FlyweightTrace.Level.COUNTERS);
+        try {
+            // 워밍업: JIT 컴파일과 캐시 채우기
+            runLookups(factory, 1, LOOKUPS_PER_THREAD);
+
+            for (int threads = 1; threads <= cores * 2; threads *= 2) {
+                long elapsed = runLookups(factory, threads, LOOKUPS_PER_THREAD);
+                double opsPerSec = (double) threads * LOOKUPS_PER_THREAD / elapsed * 1_000_000_000L;
+                System.out.printf("threads=%2d | %,12.0f lookups/s | %6.1f ms%n",
+                        threads, opsPerSec, elapsed / 1_000_000.0);
+            }
+
+            boolean consistent = verifySingleInstancePerKey(factory, Math.max(2, cores));
+            int documents = populateDocumentsConcurrently(Math.max(2, cores));
+
+            System.out.println("Parallel documents populated: " + documents);
+            System.out.println("Single instance per key: " + (consistent ? "OK" : "FAILED"));
+        } finally {
+            FlyweightTrace.setLevel(previous);
+        }
+
+        System.out.println("Trace counters: " + FlyweightTrace.counts());
+        System.out.println("Unique character flyweights: " + factory.getFlyweightCount());
+        System.out.println("==========================================");
+    }
+
+    /**
+     * 지정한 스레드 수로 동시에 getCharacter를 호출하고 경과 시간(ns)을 반환
+     */
+    private static long runLookups(CharacterFactory factory, int threads, int lookups) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < lookups; i++) {
+                    int style = (i + seed) & 3;
+                    factory.getCharacter(TEXT.charAt(i % TEXT.length()),
+                            FONTS[style], SIZES[style], COLORS[style]);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        executor.shutdown();
+        return elapsed;
+    }
+
+    /**
+     * 여러 스레드가 처음 보는 키를 동시에 요청해도 인스턴스가 하나뿐인지 검증
+     */
+    private static boolean verifySingleInstancePerKey(CharacterFactory factory, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Character[]>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                Character[] received = new Character[500];
+                start.await();
+                for (int i = 0; i < received.length; i++) {
+                    received[i] = factory.getCharacter((char) ('가' + i), "Batang", 11, "Green");
+                }
+                return received;
+            }));
+        }
+
+        start.countDown();
+        Character[] expected = null;
+        boolean consistent = true;
+        for (Future<Character[]> future : futures) {
+            Character[] received = future.get();
+            if (expected == null) {
+                expected = received;
+                continue;
+            }
+            // Character.equals는 내재적 상태로 비교하므로 참조 동일성(==)으로 확인
+            for (int i = 0; i < received.length; i++) {
+                consistent &= received[i] == expected[i];
+            }
+        }
+        executor.shutdown();
+        return consistent;
+    }
+
+    /**
+     * 여러 스레드에서 각자 TextDocument를 동시에 채우는 시나리오
+     */
+    private static int populateDocumentsConcurrently(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<TextDocument>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads * DOCUMENTS_PER_THREAD; t++) {
+            int index = t;
+            futures.add(executor.submit(() -> {
+                TextDocument doc = new TextDocument("Imported Document #" + index);
+                int style = index & 3;
+                for (int i = 0; i < 100; i++) {
+                    doc.addText(TEXT, FONTS[style], SIZES[style], COLORS[style]);
+                }
+                return doc;
+            }));
+        }
+
+        int populated = 0;
+        for (Future<TextDocument> future : futures) {
+            if (future.get() != null) {
+                populated++;
+            }
+        }
+        executor.shutdown();
+        return populated;
+    }
+}
@@ -0,0 +1,169 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * ColumnarStorage - 기본형 배열 기반 문서 저장소 (컬럼형 레이아웃)
+ *
+ * 문자마다 객체를 만드는 대신, 같은 인덱스를 공유하는 두 개의 기본형 배열에
+ * 외재적 상태를 나란히 저장합니다.
+ * - symbols[i]: i번째 위치의 문자 (검색/텍스트 추출 시 연속 메모리 스캔)
+ * - flyweightIds[i]: i번째 위치가 사용하는 Flyweight의 팔레트 ID (공백은 -1)
+ *
+ * 위치(position)는 배열 인덱스 자체이고, 줄/컬럼 번호는 위치에서 계산하므로
+ * 따로 저장하지 않습니다.
+ *
+ * 팔레트(palette):
+ * 문서가 사용하는 서로 다른 Flyweight들을 한 번씩만 등록한 작은 표입니다.
+ * ID는 문서마다 독립적이므로 팩토리 캐시가 정리되어도 문서는 영향을 받지 않습니다.
+ */
+class ColumnarStorage implements DocumentStorage {
+    private static final int COLUMNS_PER_LINE = 80;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int SPACE_ID = -1;
+
+    private char[] symbols = new char[INITIAL_CAPACITY];
+    private int[] flyweightIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * 팔레트: ID → Flyweight, Flyweight → ID
+     *
+     * Character.equals는 내재적 상태 비교이므로 참조 기준(IdentityHashMap)으로 매핑합니다.
+     */
+    private Character[] palette = new Character[16];
+    private int paletteSize;
+    private final Map<Character, Integer> paletteIds = new IdentityHashMap<>();
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Character characterAt(int position) {
+        int id = flyweightIds[checkIndex(position)];
+        return id == SPACE_ID ? null : palette[id];
+    }
+
+    @Override
+    public char symbolAt(int position) {
+        return symbols[checkIndex(position)];
+    }
+
+    @Override
+    public int lineAt(int position) {
+        return checkIndex(position) / COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public int columnAt(int position) {
+        return checkIndex(position) % COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public void append(Character character) {
+        ensureCapacity(size + 1);
+        symbols[size] = character.getSymbol();
+        flyweightIds[size] = paletteIdOf(character);
+        size++;
+    }
+
+    @Override
+    public void appendSpace() {
+        ensureCapacity(size + 1);
+        symbols[size] = ' ';
+        flyweightIds[size] = SPACE_ID;
+        size++;
+    }
+
+    @Override
+    public void reserve(int additional) {
+        ensureCapacity(size + additional);
+    }
+
+    /**
+     * 중간 삽입 - 삽입 지점 뒤의 배열 구간을 한 칸씩 이동 (O(n))
+     */
+    @Override
+    public void insert(int position, Character character) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(symbols, position, symbols, position + 1, size - position);
+        System.arraycopy(flyweightIds, position, flyweightIds, position + 1, size - position);
+
+        symbols[position] = character == null ? ' ' : character.getSymbol();
+        flyweightIds[position] = character == null ? SPACE_ID : paletteIdOf(character);
+        size++;
+    }
+
+    /**
+     * 구간 삭제 - 뒤쪽 배열 구간을 앞으로 이동 (O(n))
+     */
+    @Override
+    public void delete(int start, int end) {
+        if (start < 0 || end > size || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for size " + size);
+        }
+        System.arraycopy(symbols, end, symbols, start, size - end);
+        System.arraycopy(flyweightIds, end, flyweightIds, start, size - end);
+        size -= end - start;
+    }
+
+    /**
+     * char 배열(2바이트) + int 배열(4바이트) × 용량 + 팔레트(참조 배열과 ID 매핑)
+     */
+    @Override
+    public long estimateMemoryBytes() {
+        long columns = DocumentStorage.align(16 + 2L * symbols.length)
+                + DocumentStorage.align(16 + 4L * flyweightIds.length);
+        long paletteArray = DocumentStorage.align(16 + 4L * palette.length);
+        // IdentityHashMap은 키/값을 한 배열에 번갈아 저장 (항목당 참조 2개, 적재율 2/3)
+        long paletteMap = DocumentStorage.align(16 + 4L * 2 * paletteSize * 3 / 2);
+        return DocumentStorage.align(12 + 4 * 5) + columns + paletteArray + paletteMap;
+    }
+
+    @Override
+    public String layoutName() {
+        return "columnar";
+    }
+
+    /**
+     * @return 문서가 사용하는 서로 다른 Flyweight 수
+     */
+    public int paletteSize() {
+        return paletteSize;
+    }
+
+    private int paletteIdOf(Character character) {
+        Integer id = paletteIds.get(character);
+        if (id == null) {
+            if (paletteSize == palette.length) {
+                palette = Arrays.copyOf(palette, paletteSize * 2);
+            }
+            id = paletteSize;
+            palette[paletteSize++] = character;
+            paletteIds.put(character, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > symbols.length) {
+            int capacity = Math.max(required, symbols.length + (symbols.length >> 1));
+            symbols = Arrays.copyOf(symbols, capacity);
+            flyweightIds = Arrays.copyOf(flyweightIds, capacity);
+        }
+    }
+
+    private int checkIndex(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,371 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * DocumentAnalytics - 문서 전체를 훑는 분석의 fork/join 병렬 실행
+ *
+ * 문서를 위치 구간(Range)으로 나누어 공용 ForkJoinPool에서 구간마다 독립적으로 집계한 뒤,
+ * 인접한 구간의 결과를 순서대로 합칩니다.
+ *
+ * 핵심:
+ * - Range는 Spliterator.OfInt로, trySplit이 구간을 절반씩 나누고 MIN_CHUNK보다 작아지면 멈춤
+ * - 구간 집계는 Flyweight 단위(IdentityHashMap)로 세고, 문자/스타일별 합계는 마지막에 한 번만 계산
+ * - 단어/내용 있는 줄처럼 구간 경계에 걸치는 값은 양 끝 상태를 보고 중복을 제거
+ * - 작은 문서는 나누지 않으므로 호출 스레드에서 순차 실행과 같은 비용으로 끝남
+ *
+ * 분석 중에는 저장소가 수정되지 않아야 합니다. (RenderPipeline의 병렬 렌더링과 같은 조건)
+ */
+class DocumentAnalytics {
+    /**
+     * 더 나누지 않고 한 스레드가 처리하는 최소 구간 크기
+     */
+    static final int MIN_CHUNK = 16 * 1024;
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int[] EMPTY = new int[0];
+
+    private DocumentAnalytics() {}
+
+    /**
+     * 문서 전체 분석 (문자 히스토그램, 스타일별 글리프 수, 단어/줄 수)
+     *
+     * @param storage 분석할 문서 저장소
+     * @return 분석 결과 스냅샷
+     */
+    static DocumentSummary summarize(DocumentStorage storage) {
+        int size = storage.size();
+        Partial total = new SummaryTask(storage, new Range(0, size)).invoke();
+
+        // Flyweight별 개수를 문자별/스타일별 합계로 변환
+        int[][] histogram = new int[PAGE_SIZE][];
+        Map<String, Integer> styleCounts = new TreeMap<>();
+        for (Map.Entry<Character, int[]> entry : total.glyphs.entrySet()) {
+            Character character = entry.getKey();
+            int count = entry.getValue()[0];
+            addTo(histogram, character.getSymbol(), count);
+            if (character.getSymbol() != ' ') {
+                String style = character.getFont() + " " + character.getSize() + "pt " + character.getColor();
+                styleCounts.merge(style, count, Integer::sum);
+            }
+        }
+        if (total.spaces > 0) {
+            addTo(histogram, ' ', total.spaces);
+        }
+
+        int distinct = 0;
+        char[] symbols = new char[64];
+        for (int p = 0; p < PAGE_SIZE; p++) {
+            if (histogram[p] == null) {
+                continue;
+            }
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (histogram[p][i] > 0) {
+                    if (distinct == symbols.length) {
+                        symbols = Arrays.copyOf(symbols, distinct * 2);
+                    }
+                    symbols[distinct++] = (char) ((p << PAGE_BITS) | i);
+                }
+            }
+        }
+
+        int lines = size == 0 ? 0 : storage.lineAt(size - 1) + 1;
+        return new DocumentSummary(size, total.words, lines, total.nonBlankLines,
+                histogram, Arrays.copyOf(symbols, distinct), styleCounts);
+    }
+
+    /**
+     * 여러 문자 중 하나라도 해당하는 위치를 모두 검색
+     *
+     * @param storage 검색할 문서 저장소
+     * @param symbols 찾을 문자들 (공백 포함 가능)
+     * @return 일치하는 위치들 (오름차순)
+     */
+    static int[] findAny(DocumentStorage storage, char... symbols) {
+        if (symbols.length == 0) {
+            return EMPTY;
+        }
+        BitSet targets = new BitSet(1 << 16);
+        for (char symbol : symbols) {
+            targets.set(symbol);
+        }
+        return new SearchTask(storage, targets, new Range(0, storage.size())).invoke();
+    }
+
+    /**
+     * 문서 내용을 문자 배열로 복사 (구간마다 병렬로 채움)
+     *
+     * @param storage 복사할 문서 저장소
+     * @return 위치 순서의 문자들 (공백은 ' ')
+     */
+    static char[] symbols(DocumentStorage storage) {
+        char[] content = new char[storage.size()];
+        new CopyTask(storage, content, new Range(0, content.length)).invoke();
+        return content;
+    }
+
+    private static void addTo(int[][] histogram, char symbol, int count) {
+        int[] page = histogram[symbol >>> PAGE_BITS];
+        if (page == null) {
+            page = new int[PAGE_SIZE];
+            histogram[symbol >>> PAGE_BITS] = page;
+        }
+        page[symbol & (PAGE_SIZE - 1)] += count;
+    }
+
+    /**
+     * 문서 위치 구간 [from, to)
+     *
+     * 병렬 스트림과 fork/join 작업이 같은 방식으로 나눌 수 있도록 Spliterator로 구현합니다.
+     */
+    static class Range implements Spliterator.OfInt {
+        private int from;
+        private final int to;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * 앞쪽 절반을 떼어 반환하고 이 구간은 뒤쪽 절반이 됨
+         */
+        @Override
+        public Range trySplit() {
+            if (to - from < 2 * MIN_CHUNK) {
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            Range prefix = new Range(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(from++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int end = to;
+            for (int position = from; position < end; position++) {
+                action.accept(position);
+            }
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | SORTED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null; // 자연 순서
+        }
+    }
+
+    /**
+     * 구간 하나의 집계 결과 (합칠 때 왼쪽 결과를 재사용)
+     */
+    private static class Partial {
+        IdentityHashMap<Character, int[]> glyphs = new IdentityHashMap<>();
+        int spaces;                 // Flyweight 없는 공백 위치 수
+        int words;
+        boolean startsInWord;
+        boolean endsInWord;
+        int nonBlankLines;
+        int firstLine = -1;         // 내용이 있는 첫 줄 / 마지막 줄 (없으면 -1)
+        int lastLine = -1;
+        boolean empty = true;
+
+        /**
+         * 바로 뒤에 이어지는 구간의 결과를 합침
+         */
+        Partial merge(Partial right) {
+            if (right.empty) {
+                return this;
+            }
+            if (empty) {
+                return right;
+            }
+
+            // 작은 쪽 맵을 큰 쪽에 합침
+            IdentityHashMap<Character, int[]> into = glyphs.size() >= right.glyphs.size() ? glyphs : right.glyphs;
+            IdentityHashMap<Character, int[]> from = into == glyphs ? right.glyphs : glyphs;
+            for (Map.Entry<Character, int[]> entry : from.entrySet()) {
+                int[] count = into.putIfAbsent(entry.getKey(), entry.getValue());
+                if (count != null) {
+                    count[0] += entry.getValue()[0];
+                }
+            }
+            glyphs = into;
+
+            spaces += right.spaces;
+            words += right.words - (endsInWord && right.startsInWord ? 1 : 0);
+            endsInWord = right.endsInWord;
+            nonBlankLines += right.nonBlankLines
+                    - (lastLine >= 0 && lastLine == right.firstLine ? 1 : 0);
+            if (firstLine < 0) {
+                firstLine = right.firstLine;
+            }
+            if (right.lastLine >= 0) {
+                lastLine = right.lastLine;
+            }
+            return this;
+        }
+    }
+
+    @SuppressWarnings("serial") // 직렬화하지 않는 내부 작업
+    private static class SummaryTask extends RecursiveTask<Partial> {
+        private final DocumentStorage storage;
+        private final Range range;
+
+        SummaryTask(DocumentStorage storage, Range range) {
+            this.storage = storage;
+            this.range = range;
+        }
+
+        @Override
+        protected Partial compute() {
+            Range prefix = range.trySplit();
+            if (prefix != null) {
+                SummaryTask left = new SummaryTask(storage, prefix);
+                left.fork();
+                Partial right = new SummaryTask(storage, range).compute();
+                return left.join().merge(right);
+            }
+
+            Partial partial = new Partial();
+            int from = range.from;
+            int to = range.to;
+            partial.empty = from >= to;
+
+            Character last = null;
+            int[] lastCount = null;
+            boolean inWord = false;
+            for (int position = from; position < to; position++) {
+                Character character = storage.characterAt(position);
+                boolean space;
+                if (character == null) {
+                    partial.spaces++;
+                    space = true;
+                } else {
+                    if (character != last) { // 같은 Flyweight가 이어지면 맵 조회 생략
+                        last = character;
+                        lastCount = partial.glyphs.computeIfAbsent(character, key -> new int[1]);
+                    }
+                    lastCount[0]++;
+                    space = character.getSymbol() == ' ';
+                }
+
+                if (!space) {
+                    if (!inWord) {
+                        partial.words++;
+                        if (position == from) {
+                            partial.startsInWord = true;
+                        }
+                    }
+                    int line = storage.lineAt(position);
+                    if (line != partial.lastLine) {
+                        partial.nonBlankLines++;
+                        if (partial.firstLine < 0) {
+                            partial.firstLine = line;
+                        }
+                        partial.lastLine = line;
+                    }
+                }
+                inWord = !space;
+            }
+            partial.endsInWord = inWord;
+            return partial;
+        }
+    }
+
+    @SuppressWarnings("serial") // 직렬화하지 않는 내부 작업
+    private static class SearchTask extends RecursiveTask<int[]> {
+        private final DocumentStorage storage;
+        private final BitSet targets;
+        private final Range range;
+
+        SearchTask(DocumentStorage storage, BitSet targets, Range range) {
+            this.storage = storage;
+            this.targets = targets;
+            this.range = range;
+        }
+
+        @Override
+        protected int[] compute() {
+            Range prefix = range.trySplit();
+            if (prefix != null) {
+                SearchTask left = new SearchTask(storage, targets, prefix);
+                left.fork();
+                int[] right = new SearchTask(storage, targets, range).compute();
+                int[] found = left.join();
+                if (right.length == 0) {
+                    return found;
+                }
+                int[] merged = Arrays.copyOf(found, found.length + right.length);
+                System.arraycopy(right, 0, merged, found.length, right.length);
+                return merged;
+            }
+
+            int[] found = EMPTY;
+            int count = 0;
+            for (int position = range.from; position < range.to; position++) {
+                if (targets.get(storage.symbolAt(position))) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, Math.max(16, count * 2));
+                    }
+                    found[count++] = position;
+                }
+            }
+            return count == found.length ? found : Arrays.copyOf(found, count);
+        }
+    }
+
+    @SuppressWarnings("serial") // 직렬화하지 않는 내부 작업
+    private static class CopyTask extends RecursiveAction {
+        private final DocumentStorage storage;
+        private final char[] content;
+        private final Range range;
+
+        CopyTask(DocumentStorage storage, char[] content, Range range) {
+            this.storage = storage;
+            this.content = content;
+            this.range = range;
+        }
+
+        @Override
+        protected void compute() {
+            Range prefix = range.trySplit();
+            if (prefix != null) {
+                invokeAll(new CopyTask(storage, content, prefix), new CopyTask(storage, content, range));
+                return;
+            }
+            for (int position = range.from; position < range.to; position++) {
+                content[position] = storage.symbolAt(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org._11_flyweight.ex02;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DocumentFile - Flyweight 문서의 바이너리 저장 형식
+ *
+ * Flyweight 패턴의 구분을 그대로 파일에 옮깁니다.
+ * - 스타일 테이블: 문서에 쓰인 (폰트, 크기, 색상) 조합 = 공유되는 내재적 상태
+ * - 글리프 레코드: 위치마다 (문자, 스타일 번호)를 4바이트로 압축 = 위치별 상태
+ *
+ * 파일 구조 (빅 엔디언):
+ * [magic "FLYD" 4바이트][version int][title 문자열]
+ * [스타일 수 int] { [font 문자열][size int][color 문자열] } × 스타일 수
+ * [글리프 수 int] { [symbol 16비트 | styleId 16비트] } × 글리프 수
+ *
+ * 문자열은 [UTF-8 바이트 길이 int][UTF-8 바이트]로 저장하고,
+ * 공백은 styleId 0xFFFF로 표시합니다.
+ *
+ * 열 때는 파일 전체를 FileChannel.map으로 매핑하여 헤더와 스타일 테이블만 읽고
+ * 스타일의 폰트 크기와 레코드의 스타일 번호만 한 번 검증합니다. 글리프(Flyweight)는 MappedDocumentStorage가
+ * 필요한 위치만 그때그때 찾습니다.
+ */
+final class DocumentFile {
+    static final int MAGIC = 0x464C5944; // "FLYD"
+    static final int VERSION = 1;
+    static final int SPACE_STYLE = 0xFFFF;
+    static final int MAX_STYLES = 0xFFFF; // 0 ~ 0xFFFE
+
+    private DocumentFile() {}
+
+    /**
+     * 문서 저장소의 내용을 파일로 저장
+     *
+     * @param title 문서 제목
+     * @param storage 저장할 문서 저장소
+     * @param path 저장할 파일 (있으면 덮어씀)
+     * @throws IOException 쓰기 실패 또는 스타일 수가 형식의 한도를 넘는 경우
+     */
+    static void write(String title, DocumentStorage storage, Path path) throws IOException {
+        // 1. 스타일 테이블 구성 (Flyweight마다 한 번만 스타일 번호를 계산)
+        Map<Character, Integer> styleOfFlyweight = new IdentityHashMap<>();
+        Map<String, Integer> styleIds = new HashMap<>();
+        List<Character> styles = new ArrayList<>();
+        int size = storage.size();
+
+        for (int i = 0; i < size; i++) {
+            Character character = storage.characterAt(i);
+            if (character != null && !styleOfFlyweight.containsKey(character)) {
+                String key = character.getFont() + "|" + character.getSize() + "|" + character.getColor();
+                Integer id = styleIds.get(key);
+                if (id == null) {
+                    if (styles.size() == MAX_STYLES) {
+                        throw new IOException("Too many distinct styles for " + path);
+                    }
+                    id = styles.size();
+                    styleIds.put(key, id);
+                    styles.add(character);
+                }
+                styleOfFlyweight.put(character, id);
+            }
+        }
+
+        // 2. 헤더 + 스타일 테이블 + 글리프 레코드 순서로 기록
+        //    (레코드는 문서 전체 배열을 만들지 않고 고정 크기 블록 단위로 인코딩하여 기록)
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, title);
+
+            out.writeInt(styles.size());
+            for (Character style : styles) {
+                writeString(out, style.getFont());
+                out.writeInt(style.getSize());
+                writeString(out, style.getColor());
+            }
+
+            out.writeInt(size);
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+            for (int i = 0; i < size; i++) {
+                if (!chunk.hasRemaining()) {
+                    out.write(chunk.array(), 0, chunk.position());
+                    chunk.clear();
+                }
+                Character character = storage.characterAt(i);
+                int style = character == null ? SPACE_STYLE : styleOfFlyweight.get(character);
+                chunk.putInt((storage.symbolAt(i) << 16) | style);
+            }
+            out.write(chunk.array(), 0, chunk.position());
+        }
+    }
+
+    /**
+     * 파일을 메모리 매핑으로 열어 읽기 전용 저장소 생성
+     *
+     * 헤더와 스타일 테이블을 읽고 레코드의 스타일 번호만 순차적으로 검증하므로,
+     * 글리프를 힙으로 옮기는 다시 불러오기보다 훨씬 빨리 열립니다.
+     *
+     * @param path 열 파일
+     * @return 글리프 레코드를 지연해서 읽는 저장소
+     * @throws IOException 읽기 실패 또는 형식이 맞지 않는 경우
+     */
+    static MappedDocumentStorage open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Document file too large to map: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a flyweight document file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported document file version " + version + ": " + path);
+            }
+            String title = readString(buffer);
+
+            int styleCount = buffer.getInt();
+            String[] fonts = new String[styleCount];
+            int[] sizes = new int[styleCount];
+            String[] colors = new String[styleCount];
+            for (int i = 0; i < styleCount; i++) {
+                fonts[i] = readString(buffer);
+                sizes[i] = buffer.getInt();
+                colors[i] = readString(buffer);
+                // Flyweight 키의 크기 필드에 들어가지 않는 크기는 렌더링 도중이 아니라 열 때 거부
+                if (sizes[i] < 0 || sizes[i] > CharacterFactory.MAX_FIELD_VALUE) {
+                    throw new IOException("Corrupt document file: style " + i + " has font size " + sizes[i]
+                            + " outside 0.." + CharacterFactory.MAX_FIELD_VALUE + ": " + path);
+                }
+            }
+
+            int glyphCount = buffer.getInt();
+            if (glyphCount < 0 || (long) glyphCount * Integer.BYTES > buffer.remaining()) {
+                throw new IOException("Truncated document file: " + path);
+            }
+            ByteBuffer glyphs = buffer.slice(buffer.position(), glyphCount * Integer.BYTES);
+            validateStyles(glyphs, glyphCount, styleCount, path);
+            return new MappedDocumentStorage(title, fonts, sizes, colors, glyphs);
+        } catch (RuntimeException e) { // BufferUnderflowException 등 손상된 헤더
+            throw new IOException("Corrupt document file: " + path, e);
+        }
+    }
+
+    /**
+     * 모든 글리프 레코드의 스타일 번호가 스타일 테이블 안에 있는지 확인
+     *
+     * 손상된 파일이 렌더링 도중이 아니라 열 때 실패하도록 레코드를 한 번 순차적으로 훑습니다.
+     * (정수 비교만 하므로 Flyweight 조회나 힙 복사는 없음)
+     */
+    private static void validateStyles(ByteBuffer glyphs, int glyphCount, int styleCount, Path path)
+            throws IOException {
+        for (int i = 0; i < glyphCount; i++) {
+            int style = glyphs.getInt(i * Integer.BYTES) & 0xFFFF;
+            if (style != SPACE_STYLE && style >= styleCount) {
+                throw new IOException("Corrupt document file: glyph " + i + " uses style " + style
+                        + " but only " + styleCount + " styles are defined: " + path);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
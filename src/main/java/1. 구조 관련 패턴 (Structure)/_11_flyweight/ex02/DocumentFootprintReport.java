@@ -0,0 +1,77 @@
+package org._11_flyweight.ex02;
+
+/**
+ * DocumentFootprintReport - 저장소 레이아웃별 메모리 사용량 비교
+ *
+ * 같은 텍스트를 OBJECTS / COLUMNAR 레이아웃의 TextDocument에 각각 채운 뒤
+ * 다음 두 가지 값을 비교합니다.
+ * - 추정치: DocumentStorage.estimateMemoryBytes (객체 크기 계산식 기반)
+ * - 측정치: 문서 생성 전후 GC 이후 힙 사용량 차이 (근사값)
+ *
+ * 실행 인자로 문자 수를 지정할 수 있습니다. (기본 1,000,000자)
+ */
+public class DocumentFootprintReport {
+    private static final String SAMPLE =
+            "Flyweight keeps intrinsic state shared while documents keep positions ";
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // 문서를 채우는 동안 팩토리/문서의 추적 로그를 끔
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+        Footprint objects = measure(StorageLayout.OBJECTS, length);
+        Footprint columnar = measure(StorageLayout.COLUMNAR, length);
+
+        System.out.println("=== TextDocument 저장소 레이아웃 메모리 비교 ===");
+        System.out.printf("Positions: %,d%n", length);
+        System.out.printf("%-18s | %14s | %10s | %14s%n", "Layout", "Estimated", "B/pos", "Measured heap");
+        print("OBJECTS", objects, length);
+        print("COLUMNAR", columnar, length);
+        System.out.printf("Estimated reduction: %.1fx%n", (double) objects.estimated / columnar.estimated);
+        System.out.println("==============================================");
+    }
+
+    private static Footprint measure(StorageLayout layout, int length) {
+        long before = usedHeap();
+        TextDocument doc = new TextDocument("Footprint " + layout, layout);
+
+        int added = 0;
+        while (added < length) {
+            int chunk = Math.min(SAMPLE.length(), length - added);
+            doc.addText(SAMPLE.substring(0, chunk), "Arial", 12, "Black");
+            added += chunk;
+        }
+
+        long measured = usedHeap() - before;
+        long estimated = doc.estimateMemoryBytes();
+        return new Footprint(estimated, measured, doc);
+    }
+
+    private static void print(String label, Footprint footprint, int length) {
+        System.out.printf("%-18s | %,14d | %10.2f | %,14d%n", label, footprint.estimated,
+                (double) footprint.estimated / length, footprint.measured);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 측정 결과 (문서 참조는 측정이 끝날 때까지 GC되지 않도록 유지)
+     */
+    private static class Footprint {
+        final long estimated;
+        final long measured;
+        final TextDocument document;
+
+        Footprint(long estimated, long measured, TextDocument document) {
+            this.estimated = estimated;
+            this.measured = measured;
+            this.document = document;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org._11_flyweight.ex02;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * DocumentOpenBenchmark - 저장된 문서 열기 vs 원문 다시 불러오기 비교
+ *
+ * 큰 문서를 DocumentFile 형식으로 저장한 뒤 다음 두 방식으로 다시 준비하는 시간을 비교합니다.
+ * - 다시 불러오기: 원문 텍스트를 appendText로 새 문서에 모두 추가
+ * - 매핑으로 열기: TextDocument.open (헤더/스타일 테이블 + 스타일 번호 검증)
+ *
+ * 열린 문서에서 첫 화면(50줄) 렌더링과 첫 검색(색인 구성 포함)에 걸리는 시간도 함께 측정하고,
+ * 원본과 내용/렌더링 결과가 같은지 확인합니다.
+ *
+ * 참고: 방금 저장한 파일이므로 운영체제 페이지 캐시에 남아 있을 수 있습니다.
+ * 실행 인자로 문자 수를 지정할 수 있습니다. (기본 20,000,000자)
+ */
+public class DocumentOpenBenchmark {
+    private static final String[] WORDS = {
+            "flyweight", "intrinsic", "extrinsic", "factory", "document", "render",
+            "glyph", "style", "font", "cache", "share", "memory", "position", "editor"
+    };
+    private static final String[][] STYLES = {
+            {"Arial", "12", "Black"}, {"Times New Roman", "14", "Blue"}, {"Arial", "18", "Red"}
+    };
+    private static final int FIRST_PAGE = 80 * 50;
+
+    public static void main(String[] args) throws IOException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+
+        String[] paragraphs = generateParagraphs(length);
+        TextDocument original = new TextDocument("Persisted Document", StorageLayout.COLUMNAR);
+        ingest(original, paragraphs);
+
+        Path file = Files.createTempFile("document", ".flyd");
+        long start = System.nanoTime();
+        original.save(file);
+        long saveNanos = System.nanoTime() - start;
+
+        System.out.println("=== 문서 파일 열기 벤치마크 ===");
+        System.out.printf("Document: %,d positions, file %,d bytes (%.2f B/pos), saved in %.1f ms%n",
+                original.length(), Files.size(file), (double) Files.size(file) / original.length(), saveNanos / 1e6);
+
+        start = System.nanoTime();
+        TextDocument reloaded = new TextDocument("Persisted Document", StorageLayout.COLUMNAR);
+        ingest(reloaded, paragraphs);
+        long reingestNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        TextDocument opened = TextDocument.open(file);
+        long openNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        RenderSink.MemorySink firstPage = RenderSink.memory();
+        opened.renderPositions(firstPage, 0, FIRST_PAGE, false);
+        long firstPageNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int hits = opened.findText("flyweight factory").length;
+        long firstSearchNanos = System.nanoTime() - start;
+
+        System.out.printf("%-36s | %9.1f ms%n", "re-ingest text (appendText)", reingestNanos / 1e6);
+        System.out.printf("%-36s | %9.3f ms%n", "open mapped file", openNanos / 1e6);
+        System.out.printf("%-36s | %9.3f ms%n", "  + render first page (50 lines)", firstPageNanos / 1e6);
+        System.out.printf("%-36s | %9.1f ms (%,d hits)%n", "  + first search (builds index)", firstSearchNanos / 1e6, hits);
+
+        RenderSink.MemorySink expectedPage = RenderSink.memory();
+        original.renderPositions(expectedPage, 0, FIRST_PAGE, false);
+        boolean same = original.getTextContent().equals(opened.getTextContent())
+                && expectedPage.getContent().equals(firstPage.getContent())
+                && hits == original.findText("flyweight factory").length;
+        System.out.println("Opened document matches original: " + (same ? "OK" : "FAILED"));
+
+        // 읽기 전용 문서에 추가해도 Flyweight 고정이 남지 않아야 함
+        int pinned = CharacterFactory.getInstance().getStatistics().getPinned();
+        int rejected = 0;
+        try {
+            opened.addText("zq", "Courier", 99, "Green"); // 문자 단위 추가
+        } catch (UnsupportedOperationException e) {
+            rejected++;
+        }
+        try {
+            opened.appendText("zq", "Courier", 99, "Green"); // 대량 추가
+        } catch (UnsupportedOperationException e) {
+            rejected++;
+        }
+        boolean noLeak = CharacterFactory.getInstance().getStatistics().getPinned() == pinned;
+        System.out.println("Append to read-only document rejected without pin leak: "
+                + (rejected == 2 && noLeak ? "OK" : "FAILED"));
+
+        // 스타일 번호가 테이블 밖인 레코드는 열 때 IOException
+        byte[] bytes = Files.readAllBytes(file);
+        int lastRecord = bytes.length - Integer.BYTES;
+        bytes[lastRecord + 2] = 0x7F; // 마지막 글리프의 스타일 번호 상위 바이트
+        bytes[lastRecord + 3] = 0x00;
+        Path corrupt = Files.createTempFile("corrupt", ".flyd");
+        Files.write(corrupt, bytes);
+        boolean detected = false;
+        try {
+            TextDocument.open(corrupt);
+        } catch (IOException e) {
+            detected = true;
+        }
+        Files.delete(corrupt);
+        System.out.println("Corrupt style index rejected on open: " + (detected ? "OK" : "FAILED"));
+
+        // Flyweight 키에 들어가지 않는 폰트 크기도 열 때 IOException
+        bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        header.position(2 * Integer.BYTES);
+        header.position(header.position() + Integer.BYTES + header.getInt()); // 제목
+        header.getInt();                                                       // 스타일 수
+        header.position(header.position() + Integer.BYTES + header.getInt()); // 첫 스타일의 폰트
+        header.putInt(header.position(), 0x10000);                            // 첫 스타일의 크기
+        Files.write(corrupt, bytes);
+        detected = false;
+        try {
+            TextDocument.open(corrupt);
+        } catch (IOException e) {
+            detected = true;
+        }
+        Files.delete(corrupt);
+        System.out.println("Corrupt style size rejected on open: " + (detected ? "OK" : "FAILED"));
+
+        Files.delete(file);
+        System.out.println("===============================");
+    }
+
+    private static void ingest(TextDocument doc, String[] paragraphs) {
+        for (int i = 0; i < paragraphs.length; i++) {
+            String[] style = STYLES[i % STYLES.length];
+            doc.appendText(paragraphs[i], style[0], Integer.parseInt(style[1]), style[2]);
+        }
+    }
+
+    /**
+     * 스타일을 번갈아 적용할 문단들 생성 (문단당 약 4,000자)
+     */
+    private static String[] generateParagraphs(int length) {
+        Random random = new Random(5);
+        int count = (length + 3_999) / 4_000;
+        String[] paragraphs = new String[count];
+        StringBuilder paragraph = new StringBuilder();
+        int remaining = length;
+
+        for (int i = 0; i < count; i++) {
+            int target = Math.min(4_000, remaining);
+            paragraph.setLength(0);
+            while (paragraph.length() < target) {
+                paragraph.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            paragraph.setLength(target);
+            paragraphs[i] = paragraph.toString();
+            remaining -= target;
+        }
+        return paragraphs;
+    }
+}
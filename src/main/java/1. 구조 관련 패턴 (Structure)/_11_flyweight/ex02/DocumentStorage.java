@@ -0,0 +1,111 @@
+package org._11_flyweight.ex02;
+
+/**
+ * DocumentStorage - 문서의 외재적 상태 저장소 인터페이스
+ *
+ * TextDocument가 문자 배열(위치별 Flyweight 참조)을 어떤 메모리 레이아웃으로
+ * 보관할지 추상화합니다. 문서 API(renderDocument, findCharacterPositions 등)는
+ * 이 인터페이스만 사용하므로 레이아웃을 바꿔도 동작은 동일합니다.
+ *
+ * 구현체:
+ * - ElementListStorage: 문자마다 CharacterElement 객체를 만드는 기존 방식
+ * - ColumnarStorage: 기본형 배열에 문자/Flyweight ID를 나란히 저장하는 방식
+ * - RopeStorage: 스타일 런 트리 기반으로 중간 삽입/삭제가 빠른 방식
+ *
+ * 공백은 Flyweight 없이 위치만 차지하며, characterAt은 null을 반환합니다.
+ */
+interface DocumentStorage {
+    /**
+     * @return 저장된 위치(문자 + 공백)의 개수
+     */
+    int size();
+
+    /**
+     * @param position 문서 내 위치
+     * @return 해당 위치의 Character Flyweight, 공백이면 null
+     */
+    Character characterAt(int position);
+
+    /**
+     * @param position 문서 내 위치
+     * @return 해당 위치의 문자 (공백이면 ' ')
+     */
+    char symbolAt(int position);
+
+    /**
+     * @param position 문서 내 위치
+     * @return 해당 위치의 줄 번호
+     */
+    int lineAt(int position);
+
+    /**
+     * @param position 문서 내 위치
+     * @return 해당 위치의 컬럼 번호
+     */
+    int columnAt(int position);
+
+    /**
+     * 문서 끝에 문자 추가
+     *
+     * @param character 추가할 Character Flyweight
+     */
+    void append(Character character);
+
+    /**
+     * 문서 끝에 공백 추가
+     */
+    void appendSpace();
+
+    /**
+     * 대량 추가 전에 공간을 미리 확보 (배열 기반 레이아웃의 반복 재할당 방지)
+     *
+     * @param additional 곧 추가될 위치 수
+     */
+    default void reserve(int additional) {
+    }
+
+    /**
+     * @return 추가/삽입/삭제를 지원하지 않는 저장소면 true (변경 연산은 UnsupportedOperationException)
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * 임의 위치에 문자 삽입 (뒤쪽 위치들은 한 칸씩 밀림)
+     *
+     * @param position 삽입 위치 (0 ~ size)
+     * @param character 삽입할 Character Flyweight, 공백이면 null
+     */
+    void insert(int position, Character character);
+
+    /**
+     * 구간 삭제 (뒤쪽 위치들은 앞으로 당겨짐)
+     *
+     * @param start 시작 위치 (포함)
+     * @param end 끝 위치 (제외)
+     */
+    void delete(int start, int end);
+
+    /**
+     * 현재 레이아웃이 차지하는 메모리의 추정치 (Flyweight 자체는 제외)
+     *
+     * 64비트 JVM + 압축 참조(compressed oops) 기준:
+     * 객체 헤더 12바이트, 참조 4바이트, 8바이트 정렬
+     *
+     * @return 추정 바이트 수
+     */
+    long estimateMemoryBytes();
+
+    /**
+     * @return 레이아웃 이름 (통계 출력용)
+     */
+    String layoutName();
+
+    /**
+     * 8바이트 정렬된 객체 크기 계산 도우미
+     */
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
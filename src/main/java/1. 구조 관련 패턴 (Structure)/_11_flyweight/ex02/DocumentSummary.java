@@ -0,0 +1,80 @@
+package org._11_flyweight.ex02;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * DocumentSummary - 문서 전체 분석 결과 스냅샷
+ *
+ * TextDocument.analyze() 호출 시점의 문자 히스토그램, 스타일별 글리프 수,
+ * 단어/줄 수를 담은 불변 객체입니다. (DocumentAnalytics가 생성)
+ *
+ * 용어:
+ * - 단어: 공백이 아닌 문자가 연속된 구간
+ * - 줄: 저장소의 줄 번호 기준 (공백만 있는 줄도 포함)
+ * - 내용이 있는 줄: 공백이 아닌 문자가 하나 이상 있는 줄
+ */
+class DocumentSummary {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final int length;
+    private final int words;
+    private final int lines;
+    private final int nonBlankLines;
+    private final int[][] histogram;
+    private final char[] symbols;
+    private final Map<String, Integer> styleCounts;
+
+    /**
+     * @param histogram 문자별 등장 횟수 (256 × 256 페이지, 등장한 영역만 할당)
+     * @param symbols 등장한 문자들 (오름차순)
+     * @param styleCounts "폰트 크기pt 색상" → 글리프 수 (공백 제외)
+     */
+    DocumentSummary(int length, int words, int lines, int nonBlankLines,
+                    int[][] histogram, char[] symbols, Map<String, Integer> styleCounts) {
+        this.length = length;
+        this.words = words;
+        this.lines = lines;
+        this.nonBlankLines = nonBlankLines;
+        this.histogram = histogram;
+        this.symbols = symbols;
+        this.styleCounts = Collections.unmodifiableMap(styleCounts);
+    }
+
+    /**
+     * @param symbol 문자 (공백 포함)
+     * @return 문서 내 등장 횟수
+     */
+    public int count(char symbol) {
+        int[] page = histogram[symbol >>> PAGE_BITS];
+        return page == null ? 0 : page[symbol & (PAGE_SIZE - 1)];
+    }
+
+    /**
+     * @return 문서에 등장한 서로 다른 문자들 (오름차순, 복사본)
+     */
+    public char[] symbols() {
+        return symbols.clone();
+    }
+
+    /**
+     * @return 스타일("Arial 12pt Black" 형식)별 글리프 수, 스타일명 순
+     */
+    public Map<String, Integer> getStyleCounts() {
+        return styleCounts;
+    }
+
+    public int getLength() { return length; }
+    public int getWords() { return words; }
+    public int getLines() { return lines; }
+    public int getNonBlankLines() { return nonBlankLines; }
+    public int getSpaces() { return count(' '); }
+    public int getDistinctSymbols() { return symbols.length; }
+
+    @Override
+    public String toString() {
+        return String.format("length=%d, words=%d, lines=%d (non-blank %d), distinct symbols=%d, styles=%d",
+                length, words, lines, nonBlankLines, symbols.length, styleCounts.size());
+    }
+}
@@ -0,0 +1,172 @@
+package org._11_flyweight.ex02;
+
+import java.util.ArrayList;
+
+/**
+ * ElementListStorage - 객체 기반 문서 저장소 (기존 레이아웃)
+ *
+ * 문자 하나마다 CharacterElement 객체를 만들어 ArrayList에 보관합니다.
+ * 구조가 직관적이지만, 문자마다 객체 헤더와 참조가 추가로 들어가므로
+ * 수백만 자 규모에서는 Flyweight보다 외재적 상태가 더 많은 메모리를 차지합니다.
+ *
+ * 공백은 null 플레이스홀더로 저장합니다.
+ */
+class ElementListStorage implements DocumentStorage {
+    private static final int COLUMNS_PER_LINE = 80;
+
+    /**
+     * 문서를 구성하는 문자 요소들의 리스트
+     *
+     * 각 CharacterElement는 다음을 포함합니다:
+     * - Character Flyweight에 대한 참조 (내재적 상태)
+     * - 외재적 상태 (위치, 줄번호, 컬럼번호 등)
+     */
+    private final ArrayList<CharacterElement> elements = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public Character characterAt(int position) {
+        CharacterElement element = elements.get(position);
+        return element != null ? element.character : null;
+    }
+
+    @Override
+    public char symbolAt(int position) {
+        CharacterElement element = elements.get(position);
+        return element != null ? element.character.getSymbol() : ' ';
+    }
+
+    @Override
+    public int lineAt(int position) {
+        CharacterElement element = elements.get(position);
+        return element != null ? element.line : position / COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public int columnAt(int position) {
+        CharacterElement element = elements.get(position);
+        return element != null ? element.column : position % COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public void append(Character character) {
+        int position = elements.size();
+        elements.add(new CharacterElement(character, position,
+                position / COLUMNS_PER_LINE, position % COLUMNS_PER_LINE));
+    }
+
+    @Override
+    public void appendSpace() {
+        elements.add(null); // 공백을 나타내는 플레이스홀더
+    }
+
+    @Override
+    public void reserve(int additional) {
+        elements.ensureCapacity(elements.size() + additional);
+    }
+
+    /**
+     * 중간 삽입 - 뒤쪽 요소들을 밀고 저장된 위치/줄/컬럼을 모두 다시 계산 (O(n))
+     */
+    @Override
+    public void insert(int position, Character character) {
+        elements.add(position, character == null ? null
+                : new CharacterElement(character, position, 0, 0));
+        renumberFrom(position);
+    }
+
+    /**
+     * 구간 삭제 - 뒤쪽 요소들을 당기고 위치 정보를 다시 계산 (O(n))
+     */
+    @Override
+    public void delete(int start, int end) {
+        elements.subList(start, end).clear();
+        renumberFrom(start);
+    }
+
+    /**
+     * 각 요소가 외재적 상태를 직접 들고 있으므로 위치가 바뀌면 갱신이 필요함
+     */
+    private void renumberFrom(int start) {
+        for (int i = start; i < elements.size(); i++) {
+            CharacterElement element = elements.get(i);
+            if (element != null) {
+                element.position = i;
+                element.line = i / COLUMNS_PER_LINE;
+                element.column = i % COLUMNS_PER_LINE;
+            }
+        }
+    }
+
+    /**
+     * ArrayList 내부 배열(참조 4바이트 × 위치 수) + 공백이 아닌 위치마다
+     * CharacterElement 객체(헤더 12 + 참조 4 + int 3개 12 = 28 → 32바이트)
+     */
+    @Override
+    public long estimateMemoryBytes() {
+        long nonSpace = 0;
+        for (CharacterElement element : elements) {
+            if (element != null) {
+                nonSpace++;
+            }
+        }
+        long elementBytes = DocumentStorage.align(12 + 4 + 3 * 4);
+        long arrayBytes = DocumentStorage.align(16 + 4L * elements.size());
+        long listBytes = DocumentStorage.align(12 + 4 + 4 + 4);
+        return listBytes + arrayBytes + nonSpace * elementBytes;
+    }
+
+    @Override
+    public String layoutName() {
+        return "object-per-glyph";
+    }
+
+    /**
+     * CharacterElement 내부 클래스
+     *
+     * 외재적 상태를 관리하는 클래스로, Character Flyweight에 대한 참조와
+     * 함께 각 문자의 위치 정보를 저장합니다.
+     */
+    private static class CharacterElement {
+        /**
+         * Character Flyweight에 대한 참조 (내재적 상태)
+         */
+        private Character character;
+
+        /**
+         * 외재적 상태들
+         */
+        private int position;    // 문서 내 절대 위치
+        private int line;        // 줄 번호
+        private int column;      // 컬럼 번호
+
+        /**
+         * CharacterElement 생성자
+         *
+         * @param character Character Flyweight 인스턴스
+         * @param position 문서 내 위치 (외재적 상태)
+         * @param line 줄 번호 (외재적 상태)
+         * @param column 컬럼 번호 (외재적 상태)
+         */
+        public CharacterElement(Character character, int position, int line, int column) {
+            this.character = character;
+            this.position = position;
+            this.line = line;
+            this.column = column;
+        }
+
+        /**
+         * 요소 정보 반환
+         *
+         * @return 문자 요소의 상세 정보
+         */
+        public String getElementInfo() {
+            return String.format("Element[pos=%d, line=%d, col=%d]: %s",
+                    position, line, column, character.getIdentity());
+        }
+    }
+}
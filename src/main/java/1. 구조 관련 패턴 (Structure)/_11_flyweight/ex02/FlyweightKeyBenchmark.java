@@ -0,0 +1,109 @@
+package org._11_flyweight.ex02;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FlyweightKeyBenchmark - 캐시 키 방식 비교 벤치마크
+ *
+ * 기존 방식(문자열 결합 키 + ConcurrentHashMap)과 현재 방식(압축 long 키 +
+ * FlyweightTable)으로 캐시 적중 조회를 반복하여 다음을 비교합니다.
+ * - 조회 1회당 평균 시간 (ns/op)
+ * - 조회 1회당 할당 바이트 (bytes/op)
+ *
+ * JMH 없이 워밍업 → 여러 번 측정 → 최솟값 보고 방식으로 단순화했습니다.
+ * 할당량은 HotSpot의 스레드별 할당 카운터로 측정합니다.
+ */
+public class FlyweightKeyBenchmark {
+    private static final String[] FONTS = {"Arial", "Times New Roman", "Courier New", "Verdana"};
+    private static final int[] SIZES = {10, 12, 14, 18};
+    private static final String[] COLORS = {"Black", "Blue", "Red", "Gray"};
+    private static final String TEXT = "Flyweight pattern keeps intrinsic state shared 0123456789";
+
+    private static final int OPERATIONS = 2_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+
+    /**
+     * 측정 중 JIT가 조회 결과를 버리지 못하도록 누적하는 값
+     */
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        CharacterFactory factory = CharacterFactory.getInstance();
+        Map<String, Character> stringKeyed = new ConcurrentHashMap<>();
+
+        // 두 캐시를 같은 Flyweight들로 미리 채움 (측정 대상은 적중 경로)
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+        for (int style = 0; style < FONTS.length; style++) {
+            for (char c : TEXT.toCharArray()) {
+                Character character = factory.getCharacter(c, FONTS[style], SIZES[style], COLORS[style]);
+                stringKeyed.put(c + "|" + FONTS[style] + "|" + SIZES[style] + "|" + COLORS[style], character);
+            }
+        }
+
+        System.out.println("=== Flyweight 캐시 키 방식 비교 ===");
+        report("String key (symbol|font|size|color)", () -> stringKeyLookups(stringKeyed));
+        report("Packed long key (FlyweightTable)", () -> packedKeyLookups(factory));
+        System.out.println("(blackhole: " + blackhole + ")");
+        System.out.println("===================================");
+    }
+
+    private static void stringKeyLookups(Map<String, Character> cache) {
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int style = i & 3;
+            char symbol = TEXT.charAt(i % TEXT.length());
+            String key = symbol + "|" + FONTS[style] + "|" + SIZES[style] + "|" + COLORS[style];
+            sum += cache.get(key).getSize();
+        }
+        blackhole += sum;
+    }
+
+    private static void packedKeyLookups(CharacterFactory factory) {
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int style = i & 3;
+            char symbol = TEXT.charAt(i % TEXT.length());
+            sum += factory.findCharacter(symbol, FONTS[style], SIZES[style], COLORS[style]).getSize();
+        }
+        blackhole += sum;
+    }
+
+    /**
+     * 워밍업 후 가장 빠른 라운드의 시간과 할당량을 출력
+     */
+    private static void report(String label, Runnable workload) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            workload.run();
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            workload.run();
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+
+            bestNanos = Math.min(bestNanos, elapsed);
+            bestBytes = Math.min(bestBytes, bytes);
+        }
+
+        System.out.printf("%-38s | %7.1f ns/op | %7.1f bytes/op%n", label,
+                (double) bestNanos / OPERATIONS, (double) bestBytes / OPERATIONS);
+    }
+
+    /**
+     * 현재 스레드가 지금까지 할당한 바이트 수 (지원하지 않는 JVM에서는 0)
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotspot) {
+            return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,402 @@
+package org._11_flyweight.ex02;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * FlyweightTable - long 키 기반 개방 주소법(open addressing) 해시 테이블
+ *
+ * CharacterFactory의 Flyweight 저장소로, 내재적 상태를 하나의 long 값으로
+ * 압축한 키를 사용합니다. String 키와 달리 조회 시 객체를 만들지 않으므로
+ * 캐시 적중(hit) 경로에서 메모리 할당이 전혀 발생하지 않습니다.
+ *
+ * 동시성 전략:
+ * - 조회(get): 잠금 없이 현재 슬롯 배열을 읽음
+ * - 삽입/삭제/참조 카운트 변경: synchronized로 직렬화 (Flyweight 생성은 드물게 일어남)
+ * - 슬롯에는 키와 값을 함께 가진 불변 Entry가 들어가므로, 조회 스레드는
+ *   키와 값이 서로 어긋난 상태를 볼 수 없습니다.
+ *
+ * 용량 제한과 축출(eviction):
+ * - 저장된 항목 수가 capacity에 도달하면 CLOCK(second-chance) 알고리즘으로 하나를 축출
+ * - 조회될 때마다 referenced 비트를 세우고, 시계 바늘이 지나갈 때 비트가 서 있으면
+ *   한 번 더 기회를 주므로 최근에 쓰인 항목은 LRU와 비슷하게 살아남습니다.
+ * - 문서가 사용 중인 항목(pins > 0)은 축출 대상에서 제외합니다.
+ *   모든 항목이 사용 중이면 축출하지 않고 capacity를 일시적으로 넘깁니다.
+ *
+ * 항목이 추가/제거될 때마다 Listener에 알리므로 통계 등을 전체 순회 없이 유지할 수 있습니다.
+ *
+ * 키 0은 빈 슬롯을 의미하므로 CharacterFactory는 0이 아닌 키만 사용합니다.
+ */
+class FlyweightTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 항목 변경 통지 (테이블 잠금 안에서 호출되므로 통지 순서가 곧 변경 순서)
+     */
+    interface Listener {
+        void added(long key, Character character);
+
+        void removed(long key, Character character);
+
+        void cleared();
+    }
+
+    /**
+     * 슬롯 하나에 저장되는 항목
+     *
+     * key와 value는 final이므로 Entry 참조가 보이면 두 값도 항상 함께 보입니다.
+     * StyleRegistry는 Entry를 직접 기억하므로 표에서 찾을 때도 referenced 비트를 세울 수 있습니다.
+     */
+    static class Entry {
+        final long key;
+        final Character value;
+        volatile boolean referenced; // CLOCK의 second-chance 비트
+        volatile boolean removed;    // 축출되었거나 테이블이 비워짐 (잠금 안에서만 세움)
+        int pins;                    // 이 Flyweight를 사용 중인 문서 수 (잠금 안에서만 변경)
+
+        Entry(long key, Character value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * 사용되었음을 표시하고 Flyweight 반환 (이미 서 있으면 쓰지 않음 - 캐시 라인 경합 방지)
+         */
+        Character touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+            return value;
+        }
+
+        /**
+         * @return 아직 테이블의 항목이면 true (축출되거나 비워진 뒤에는 false)
+         */
+        boolean isCurrent() {
+            return !removed;
+        }
+    }
+
+    /**
+     * 축출된 슬롯 표시 (탐색 체인을 끊지 않도록 빈 슬롯과 구분)
+     */
+    private static final Entry REMOVED = new Entry(0, null);
+
+    /**
+     * 슬롯 배열
+     *
+     * 크기 변경(resize) 시에는 새 Slots를 만들어 volatile 필드로 한 번에 교체합니다.
+     */
+    private static class Slots {
+        final Entry[] entries;
+        final int mask;
+
+        Slots(int capacity) {
+            this.entries = new Entry[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+    private volatile int size;
+    private int removedSlots;
+    private int capacity;
+    private int hand;               // CLOCK 시계 바늘 (슬롯 인덱스)
+    private volatile long evictions;
+    private final Listener[] listeners;
+
+    /**
+     * @param capacity 최대 항목 수 (사용 중인 항목만 남으면 일시적으로 넘을 수 있음)
+     * @param listeners 항목 추가/제거 통지 대상들
+     */
+    FlyweightTable(int capacity, Listener... listeners) {
+        this.listeners = listeners.clone();
+        setCapacity(capacity);
+    }
+
+    /**
+     * 키에 해당하는 Flyweight 조회 (잠금 없음, 할당 없음)
+     *
+     * @param key 압축된 내재적 상태 키 (0이 아니어야 함)
+     * @return 저장된 Character, 없으면 null
+     */
+    public Character get(long key) {
+        Slots current = slots;
+        int index = indexFor(key, current.mask);
+
+        while (true) {
+            Entry entry = current.entries[index];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.key == key) {
+                return entry.touch();
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    /**
+     * 키가 없을 때만 새 Flyweight를 생성하여 저장 (원자적 get-or-create)
+     *
+     * 용량이 가득 찼으면 먼저 사용되지 않는 항목 하나를 축출합니다.
+     *
+     * @param key 압축된 내재적 상태 키
+     * @param creator 키가 없을 때 호출될 생성 함수
+     * @return 기존 또는 새로 생성된 Character
+     */
+    public synchronized Character computeIfAbsent(long key, LongFunction<Character> creator) {
+        Entry existing = find(slots, key);
+        if (existing != null) {
+            existing.referenced = true;
+            return existing.value;
+        }
+
+        if (size >= capacity) {
+            evictOne();
+        }
+        Character created = creator.apply(key);
+        put(new Entry(key, created));
+        return created;
+    }
+
+    /**
+     * value가 아직 key의 현재 항목이면 테이블 잠금 안에서 action 실행
+     *
+     * 축출/비우기 통지(Listener)도 같은 잠금 안에서 호출되므로, action이 기억한 항목은
+     * 나중에 축출될 때 반드시 통지되고, 이미 축출된 인스턴스는 기억되지 않습니다.
+     *
+     * @return action을 실행했으면 true
+     */
+    public synchronized boolean withCurrentEntry(long key, Character value, Consumer<Entry> action) {
+        Entry entry = find(slots, key);
+        if (entry == null || entry.value != value) {
+            return false;
+        }
+        action.accept(entry);
+        return true;
+    }
+
+    /**
+     * 문서가 Flyweight를 사용하기 시작함을 기록 (사용 중에는 축출되지 않음)
+     *
+     * 그 사이 축출되었다면 문서가 가진 인스턴스를 다시 등록하여
+     * 같은 키에 대해 문서와 캐시가 같은 인스턴스를 보도록 합니다.
+     * 고정(pin)은 인스턴스가 아니라 키 단위로 세므로, 문서가 축출 전후의 서로 다른 인스턴스를
+     * 함께 가지고 있어도 retain/release 횟수만 맞으면 고정이 남지 않습니다.
+     */
+    public synchronized void retain(long key, Character value) {
+        Entry entry = find(slots, key);
+        if (entry == null) {
+            entry = new Entry(key, value);
+            put(entry);
+        }
+        entry.pins++;
+    }
+
+    /**
+     * 문서가 Flyweight 사용을 마쳤음을 기록 (retain과 같은 키 기준)
+     *
+     * clear()로 고정 횟수가 사라진 뒤의 release는 0 아래로 내려가지 않도록 무시합니다.
+     */
+    public synchronized void release(long key) {
+        Entry entry = find(slots, key);
+        if (entry != null && entry.pins > 0) {
+            entry.pins--;
+        }
+    }
+
+    /**
+     * 사용 중이 아닌 항목을 축출하여 항목 수를 limit 이하로 줄임
+     *
+     * @param limit 목표 항목 수
+     * @return 축출된 항목 수
+     */
+    public synchronized int trimTo(int limit) {
+        int removed = 0;
+        while (size > limit && evictOne()) {
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * 최대 항목 수 변경 (줄어들면 즉시 초과분을 축출)
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        trimTo(capacity);
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 문서가 사용 중이라 축출할 수 없는 항목 수
+     */
+    public synchronized int pinnedCount() {
+        int pinned = 0;
+        for (Entry entry : slots.entries) {
+            if (isLive(entry) && entry.pins > 0) {
+                pinned++;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * @return 지금까지 용량 제한이나 정리로 축출된 항목 수
+     */
+    public long evictionCount() {
+        return evictions;
+    }
+
+    /**
+     * 모든 항목 제거 (사용 중인 항목 포함)
+     */
+    public synchronized void clear() {
+        for (Entry entry : slots.entries) {
+            if (isLive(entry)) {
+                entry.removed = true;
+            }
+        }
+        slots = new Slots(INITIAL_CAPACITY);
+        size = 0;
+        removedSlots = 0;
+        hand = 0;
+        for (Listener listener : listeners) {
+            listener.cleared();
+        }
+    }
+
+    /**
+     * 저장된 모든 Flyweight 순회 (호출 시점의 스냅샷 기준)
+     *
+     * @param action 각 Character에 적용할 동작
+     */
+    public void forEach(Consumer<Character> action) {
+        for (Entry entry : slots.entries) {
+            if (isLive(entry)) {
+                action.accept(entry.value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * CLOCK 알고리즘으로 항목 하나를 축출
+     *
+     * 시계 바늘을 돌리며 referenced 비트가 선 항목은 비트만 내리고 지나가고,
+     * 비트가 내려간 항목을 만나면 축출합니다. 두 바퀴 안에 찾지 못하면
+     * (모든 항목이 사용 중) 축출하지 않습니다.
+     *
+     * @return 축출했으면 true
+     */
+    private boolean evictOne() {
+        Slots current = slots;
+        int steps = current.entries.length * 2;
+
+        for (int i = 0; i < steps; i++) {
+            int index = hand;
+            hand = (hand + 1) & current.mask;
+
+            Entry entry = current.entries[index];
+            if (!isLive(entry) || entry.pins > 0) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                continue;
+            }
+
+            current.entries[index] = REMOVED;
+            entry.removed = true;
+            size = size - 1;
+            removedSlots++;
+            evictions = evictions + 1;
+            for (Listener listener : listeners) {
+                listener.removed(entry.key, entry.value);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 새 항목 저장 (적재율을 50% 이하로 유지하여 조회 시 항상 빈 슬롯을 만나도록 보장)
+     */
+    private void put(Entry entry) {
+        if ((size + removedSlots + 1) * 2 > slots.entries.length) {
+            int newCapacity = slots.entries.length;
+            while ((size + 1) * 2 > newCapacity) {
+                newCapacity *= 2;
+            }
+            slots = rehash(slots, newCapacity);
+            removedSlots = 0;
+            hand = 0;
+        }
+        insert(slots, entry);
+        size = size + 1;
+        for (Listener listener : listeners) {
+            listener.added(entry.key, entry.value);
+        }
+    }
+
+    private static Entry find(Slots current, long key) {
+        int index = indexFor(key, current.mask);
+        while (true) {
+            Entry entry = current.entries[index];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.key == key) {
+                return entry;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    private static Slots rehash(Slots source, int capacity) {
+        Slots target = new Slots(capacity);
+        for (Entry entry : source.entries) {
+            if (isLive(entry)) {
+                insert(target, entry);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 선형 탐사(linear probing)로 빈 슬롯에 삽입
+     */
+    private static void insert(Slots target, Entry entry) {
+        int index = indexFor(entry.key, target.mask);
+        while (target.entries[index] != null) {
+            index = (index + 1) & target.mask;
+        }
+        target.entries[index] = entry;
+    }
+
+    private static boolean isLive(Entry entry) {
+        return entry != null && entry != REMOVED;
+    }
+
+    /**
+     * 키 비트를 고르게 섞어 슬롯 인덱스 계산 (Fibonacci hashing)
+     */
+    private static int indexFor(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
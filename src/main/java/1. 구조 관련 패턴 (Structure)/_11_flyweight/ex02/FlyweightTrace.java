@@ -0,0 +1,126 @@
+package org._11_flyweight.ex02;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FlyweightTrace - Flyweight 생성/재사용/문서 편집 이벤트의 추적 설정
+ *
+ * 팩토리와 문서는 매 호출마다 System.out에 직접 출력하는 대신 이벤트를 기록하고,
+ * 현재 추적 수준에 따라 메시지를 만들지 여부를 결정합니다.
+ *
+ * 추적 수준(Level):
+ * - OFF: 아무것도 하지 않음 (volatile 읽기 한 번과 분기만 남음)
+ * - COUNTERS: 이벤트 종류별 횟수만 집계 (메시지를 만들지 않음)
+ * - SAMPLED: 횟수 집계 + 약 sampleRate번에 한 번 꼴로 메시지 전달
+ * - FULL: 횟수 집계 + 모든 메시지 전달 (기본값, 기존 출력과 동일)
+ *
+ * 메시지는 Listener로 전달되며 기본 Listener는 표준 출력에 한 줄씩 출력합니다.
+ * 진단이 필요할 때는 Listener를 바꿔 로그 파일이나 메모리로 수집할 수 있습니다.
+ *
+ * 사용 방법 (메시지 문자열은 record가 true일 때만 만들어짐):
+ * if (FlyweightTrace.record(Event.FLYWEIGHT_REUSED)) {
+ *     FlyweightTrace.emit(Event.FLYWEIGHT_REUSED, "...");
+ * }
+ */
+final class FlyweightTrace {
+    enum Level { OFF, COUNTERS, SAMPLED, FULL }
+
+    enum Event {
+        CHARACTER_CREATED,  // Character Flyweight 객체 생성
+        FLYWEIGHT_CREATED,  // 팩토리 캐시에 새 Flyweight 등록
+        FLYWEIGHT_REUSED,   // 팩토리 캐시 적중
+        CHARACTER_ADDED,    // 문서에 문자 추가
+        DOCUMENT_EDITED     // 문서 텍스트 추가/삽입/삭제
+    }
+
+    /**
+     * 추적 메시지 수신자
+     */
+    interface Listener {
+        void onEvent(Event event, String message);
+    }
+
+    /**
+     * 기본 Listener - 호출 시점의 System.out에 한 줄 출력
+     */
+    static final Listener CONSOLE = (event, message) -> System.out.println(message);
+
+    private static final LongAdder[] counters = new LongAdder[Event.values().length];
+
+    static {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    private static volatile Level level = Level.FULL;
+    private static volatile Listener listener = CONSOLE;
+    private static volatile int sampleRate = 1000;
+
+    private FlyweightTrace() {}
+
+    /**
+     * 이벤트를 집계하고, 메시지를 전달해야 하는지 반환
+     *
+     * @param event 발생한 이벤트
+     * @return 메시지를 만들어 emit해야 하면 true
+     */
+    static boolean record(Event event) {
+        Level current = level;
+        if (current == Level.OFF) {
+            return false;
+        }
+        counters[event.ordinal()].increment();
+        return current == Level.FULL
+                || (current == Level.SAMPLED && ThreadLocalRandom.current().nextInt(sampleRate) == 0);
+    }
+
+    /**
+     * 메시지를 현재 Listener에 전달 (record가 true를 반환한 경우에만 호출)
+     */
+    static void emit(Event event, String message) {
+        listener.onEvent(event, message);
+    }
+
+    static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    static Level getLevel() {
+        return level;
+    }
+
+    static void setListener(Listener newListener) {
+        listener = newListener;
+    }
+
+    /**
+     * @param rate SAMPLED 수준에서 평균 몇 번에 한 번 메시지를 전달할지 (1 이상)
+     */
+    static void setSampleRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + rate);
+        }
+        sampleRate = rate;
+    }
+
+    /**
+     * @return 이벤트 종류별 누적 횟수 (OFF 수준에서 발생한 이벤트는 포함되지 않음)
+     */
+    static Map<Event, Long> counts() {
+        Map<Event, Long> snapshot = new EnumMap<>(Event.class);
+        for (Event event : Event.values()) {
+            snapshot.put(event, counters[event.ordinal()].sum());
+        }
+        return snapshot;
+    }
+
+    static void resetCounts() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+}
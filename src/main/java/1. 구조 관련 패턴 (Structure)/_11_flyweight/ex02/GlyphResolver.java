@@ -0,0 +1,65 @@
+package org._11_flyweight.ex02;
+
+import java.util.function.Consumer;
+
+/**
+ * GlyphResolver - 스타일 런 하나에 대한 문자 → Flyweight 조회 캐시
+ *
+ * 대량 추가(TextDocument.appendText 등)는 같은 스타일의 문자들을 한꺼번에 넣으므로,
+ * 문자마다 팩토리에 묻는 대신 런 안에서 처음 등장한 문자만 팩토리에서 가져오고
+ * 이후에는 배열 인덱스 한 번으로 같은 Flyweight를 재사용합니다.
+ *
+ * 문자(char)를 키로 쓰는 65536칸 표를 256 × 256 페이지로 나누어
+ * 실제로 등장한 문자 영역의 페이지만 할당합니다. (SymbolIndex와 같은 구조)
+ */
+class GlyphResolver {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final CharacterFactory factory;
+    private final String font;
+    private final int size;
+    private final String color;
+    private final Consumer<Character> firstUse;
+    private final Character[][] pages = new Character[PAGE_SIZE][];
+    private int resolved;
+
+    /**
+     * @param firstUse 런에서 Flyweight를 처음 가져올 때마다 호출 (문서의 retain 등)
+     */
+    GlyphResolver(CharacterFactory factory, String font, int size, String color, Consumer<Character> firstUse) {
+        this.factory = factory;
+        this.font = font;
+        this.size = size;
+        this.color = color;
+        this.firstUse = firstUse;
+    }
+
+    /**
+     * @param symbol 문자 (공백 제외)
+     * @return 이 런의 스타일을 가진 Character Flyweight
+     */
+    public Character resolve(char symbol) {
+        Character[] page = pages[symbol >>> PAGE_BITS];
+        if (page == null) {
+            page = new Character[PAGE_SIZE];
+            pages[symbol >>> PAGE_BITS] = page;
+        }
+
+        Character character = page[symbol & (PAGE_SIZE - 1)];
+        if (character == null) {
+            character = factory.getCharacter(symbol, font, size, color);
+            page[symbol & (PAGE_SIZE - 1)] = character;
+            resolved++;
+            firstUse.accept(character);
+        }
+        return character;
+    }
+
+    /**
+     * @return 이 런에서 팩토리를 통해 조회한 서로 다른 문자 수
+     */
+    public int resolvedCount() {
+        return resolved;
+    }
+}
@@ -0,0 +1,81 @@
+package org._11_flyweight.ex02;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * IngestBenchmark - 문자 단위 추가 vs 대량 추가 API 비교
+ *
+ * 같은 텍스트를 COLUMNAR 문서에 다음 방식으로 넣어 처리량(MB/s)을 비교합니다.
+ * - addText: 문자마다 팩토리 조회 + 추가 (추적 수준 OFF)
+ * - appendText(CharSequence): 런 단위 Flyweight 조회 + 저장소 공간 미리 확보
+ * - appendText(Reader): 64K 문자 단위로 읽어 추가
+ * - appendFile: 임시 UTF-8 파일을 메모리 매핑하여 디코딩하며 추가
+ *
+ * 모든 방식의 결과 문서 내용이 같은지도 확인합니다.
+ * 실행 인자로 문자 수를 지정할 수 있습니다. (기본 20,000,000자)
+ */
+public class IngestBenchmark {
+    private static final String[] WORDS = {
+            "flyweight", "intrinsic", "extrinsic", "factory", "문서", "render",
+            "glyph", "style", "font", "cache", "공유", "memory", "position", "editor"
+    };
+
+    public static void main(String[] args) throws IOException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+
+        String text = generateText(length);
+        Path file = Files.createTempFile("ingest", ".txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        System.out.println("=== TextDocument 대량 추가 벤치마크 ===");
+        System.out.printf("Text: %,d chars (%,d bytes UTF-8)%n", text.length(), Files.size(file));
+
+        TextDocument perChar = measure("addText (per character)", text.length(), doc ->
+                doc.addText(text, "Arial", 12, "Black"));
+        TextDocument bulk = measure("appendText(CharSequence)", text.length(), doc ->
+                doc.appendText(text, "Arial", 12, "Black"));
+        TextDocument reader = measure("appendText(Reader)", text.length(), doc ->
+                doc.appendText(new StringReader(text), "Arial", 12, "Black"));
+        TextDocument mapped = measure("appendFile (memory-mapped UTF-8)", text.length(), doc ->
+                doc.appendFile(file, StandardCharsets.UTF_8, "Arial", 12, "Black"));
+
+        String expected = perChar.getTextContent();
+        boolean same = expected.equals(bulk.getTextContent())
+                && expected.equals(reader.getTextContent())
+                && expected.equals(mapped.getTextContent());
+        System.out.println("Identical documents: " + (same ? "OK" : "FAILED"));
+        Files.delete(file);
+        System.out.println("======================================");
+    }
+
+    private static TextDocument measure(String label, int length, Ingestion ingestion) throws IOException {
+        TextDocument doc = new TextDocument(label, StorageLayout.COLUMNAR);
+        long start = System.nanoTime();
+        ingestion.run(doc);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-34s | %8.1f ms | %8.1f M chars/s%n",
+                label, elapsed / 1e6, length / (elapsed / 1e9) / 1e6);
+        return doc;
+    }
+
+    private static String generateText(int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        Random random = new Random(11);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    private interface Ingestion {
+        void run(TextDocument doc) throws IOException;
+    }
+}
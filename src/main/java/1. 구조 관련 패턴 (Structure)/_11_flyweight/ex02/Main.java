@@ -37,7 +37,10 @@ public class Main {
         System.out.println(" 4. 문서 렌더링 및 검색 기능 ");
         demonstrateDocumentFeatures();
 
-        System.out.println(" 5. Factory 상태 및 메모리 분석 ");
+        System.out.println(" 5. 문서 중간 편집 (삽입/삭제) ");
+        demonstrateMidDocumentEditing();
+
+        System.out.println(" 6. Factory 상태 및 메모리 분석 ");
         analyzeFactoryState(factory);
 
         printPatternBenefits();
@@ -73,6 +76,9 @@ public class Main {
 
         System.out.println("특정 문자 위치 검색:");
         doc.findCharacterPositions('l');
+
+        // 편집이 끝난 문서는 닫아서 사용하던 Flyweight를 팩토리에 돌려줌
+        doc.close();
         System.out.println();
     }
 
@@ -125,6 +131,7 @@ public class Main {
 
         System.out.println("Factory 메모리 통계:");
         factory.displayMemoryStatistics();
+        doc.close();
         System.out.println();
     }
 
@@ -218,6 +225,31 @@ public class Main {
         System.out.println();
     }
 
+    /**
+     * 문서 중간 편집 시연
+     *
+     * ROPE 레이아웃은 문서를 스타일 런 트리로 보관하므로 임의 위치의
+     * 삽입/삭제가 O(log n)이며, 줄/컬럼 번호는 조회 시점에 다시 계산됩니다.
+     */
+    private static void demonstrateMidDocumentEditing() {
+        TextDocument doc = new TextDocument("Editable Document", StorageLayout.ROPE);
+
+        doc.addText("Hello World", "Arial", 12, "Black");
+        System.out.println("Before edit: \"" + doc.getTextContent() + "\"");
+
+        // 중간 삽입: 다른 스타일의 텍스트를 단어 사이에 끼워 넣음
+        doc.insertText(6, "Flyweight ", "Times New Roman", 14, "Blue");
+        System.out.println("After insert: \"" + doc.getTextContent() + "\"");
+
+        // 구간 삭제: "World" 제거
+        doc.deleteRange(16, 21);
+        System.out.println("After delete: \"" + doc.getTextContent() + "\"");
+
+        doc.findCharacterPositions('F');
+        doc.displayMemoryFootprint();
+        System.out.println();
+    }
+
     /**
      * Factory 상태 및 메모리 사용 분석
      *
@@ -246,6 +278,7 @@ public class Main {
          * 1. 각 고유한 문자+스타일 조합마다 하나의 Flyweight만 존재
          * 2. 수천 개의 문자가 있어도 수십 개의 Flyweight만으로 처리
          * 3. 메모리 사용량이 문자 수에 비례하지 않고 스타일 조합 수에 비례
+         * 4. 닫힌 문서만 쓰던 Flyweight는 정리되고, 열린 문서가 쓰는 것은 유지
          */
 
         System.out.println("========================");
@@ -0,0 +1,150 @@
+package org._11_flyweight.ex02;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MappedDocumentStorage - 메모리 매핑된 문서 파일 위의 읽기 전용 저장소
+ *
+ * DocumentFile 형식의 글리프 레코드(위치당 4바이트)를 힙으로 복사하지 않고
+ * 매핑된 버퍼에서 필요한 위치만 직접 읽습니다. 따라서 문서를 여는 비용은
+ * 헤더와 스타일 테이블을 읽는 것뿐이고, 렌더링이나 검색이 실제로 읽는
+ * 페이지만 운영체제가 디스크에서 가져옵니다.
+ *
+ * Flyweight는 조회 시 (문자 + 스타일 테이블의 폰트/크기/색상)으로
+ * CharacterFactory에서 찾습니다. 절대 위치 읽기만 사용하므로
+ * 여러 스레드가 동시에 읽어도 안전합니다 (병렬 렌더링 지원).
+ *
+ * 삽입/삭제 등 변경 연산은 지원하지 않습니다.
+ */
+class MappedDocumentStorage implements DocumentStorage {
+    private static final int COLUMNS_PER_LINE = 80;
+
+    private final String title;
+    private final String[] fonts;
+    private final int[] sizes;
+    private final String[] colors;
+    private final ByteBuffer glyphs;
+    private final int size;
+    private final CharacterFactory factory = CharacterFactory.getInstance();
+
+    MappedDocumentStorage(String title, String[] fonts, int[] sizes, String[] colors, ByteBuffer glyphs) {
+        this.title = title;
+        this.fonts = fonts;
+        this.sizes = sizes;
+        this.colors = colors;
+        this.glyphs = glyphs;
+        this.size = glyphs.capacity() / Integer.BYTES;
+    }
+
+    /**
+     * @return 파일에 저장된 문서 제목
+     */
+    public String title() {
+        return title;
+    }
+
+    /**
+     * @return 스타일 테이블의 스타일 수
+     */
+    public int styleCount() {
+        return fonts.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Character characterAt(int position) {
+        int record = recordAt(position);
+        int style = record & 0xFFFF;
+        if (style == DocumentFile.SPACE_STYLE) {
+            return null;
+        }
+
+        char symbol = (char) (record >>> 16);
+        Character character = factory.findCharacter(symbol, fonts[style], sizes[style], colors[style]);
+        if (character == null) { // 아직 만들어지지 않았거나 캐시에서 정리된 경우
+            character = factory.getCharacter(symbol, fonts[style], sizes[style], colors[style]);
+        }
+        return character;
+    }
+
+    @Override
+    public char symbolAt(int position) {
+        return (char) (recordAt(position) >>> 16);
+    }
+
+    @Override
+    public int lineAt(int position) {
+        checkIndex(position);
+        return position / COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public int columnAt(int position) {
+        checkIndex(position);
+        return position % COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void append(Character character) {
+        throw readOnly();
+    }
+
+    @Override
+    public void appendSpace() {
+        throw readOnly();
+    }
+
+    @Override
+    public void insert(int position, Character character) {
+        throw readOnly();
+    }
+
+    @Override
+    public void delete(int start, int end) {
+        throw readOnly();
+    }
+
+    /**
+     * 힙에 올라가는 것은 스타일 테이블뿐 (글리프 레코드는 매핑된 파일에 있음)
+     */
+    @Override
+    public long estimateMemoryBytes() {
+        long strings = 0;
+        for (int i = 0; i < fonts.length; i++) {
+            strings += DocumentStorage.align(16 + fonts[i].length()) + DocumentStorage.align(16 + colors[i].length());
+        }
+        return DocumentStorage.align(12 + 4 * 7)
+                + 2 * DocumentStorage.align(16 + 4L * fonts.length)
+                + DocumentStorage.align(16 + 4L * sizes.length)
+                + strings;
+    }
+
+    @Override
+    public String layoutName() {
+        return "memory-mapped file (read-only)";
+    }
+
+    private int recordAt(int position) {
+        checkIndex(position);
+        return glyphs.getInt(position * Integer.BYTES);
+    }
+
+    private void checkIndex(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Memory-mapped document is read-only");
+    }
+}
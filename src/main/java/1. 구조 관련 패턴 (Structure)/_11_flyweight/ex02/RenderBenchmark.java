@@ -0,0 +1,198 @@
+package org._11_flyweight.ex02;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RenderBenchmark - 글리프 단위 렌더링 vs 런 단위 파이프라인 비교
+ *
+ * 같은 문서를 다음 방식으로 렌더링하여 시간을 비교합니다.
+ * - 글리프 단위: 위치마다 Character.render (printf) 호출
+ * - 파이프라인 (순차): 런으로 묶어 버퍼에 기록 후 일괄 출력
+ * - 파이프라인 (병렬): 줄 단위 구간을 여러 코어에서 렌더링 후 순서대로 병합
+ *
+ * 출력 대상은 null 스트림, 메모리, 임시 파일 채널이며
+ * 순차/병렬 결과와 런 개수가 같은지도 (문서 범위를 벗어난 구간 포함) 함께 확인합니다.
+ * 실행 인자로 문서 길이를 지정할 수 있습니다.
+ */
+public class RenderBenchmark {
+    private static final String[] STYLES = {"title", "heading", "body", "caption", "highlight"};
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+        TextDocument doc = buildDocument(length);
+        DocumentStorage storage = buildStorage(length);
+
+        // 기존 방식의 render는 System.out에 직접 출력하므로 비교 측정 동안만 버리는 스트림으로 교체
+        PrintStream console = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+        System.out.println("=== Render 파이프라인 벤치마크 ===");
+        System.out.printf("Document length: %,d / CPUs: %d%n", doc.length(), Runtime.getRuntime().availableProcessors());
+
+        long perGlyph = best(() -> {
+            System.setOut(discard);
+            try {
+                renderPerGlyph(storage, "Render Benchmark");
+            } finally {
+                System.setOut(console);
+            }
+        });
+        RenderSink nullSink = new RenderSink.ConsoleSink(discard);
+        long sequential = best(() -> doc.renderDocument(nullSink, false));
+        long parallel = best(() -> doc.renderDocument(nullSink, true));
+        long memory = best(() -> doc.renderDocument(RenderSink.memory(), false));
+
+        Path file = Files.createTempFile("render", ".txt");
+        long channel;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel = best(() -> {
+                try {
+                    out.truncate(0);
+                    doc.renderDocument(RenderSink.fileChannel(out), true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        report("per-glyph printf (null stream)", perGlyph, perGlyph);
+        report("pipeline sequential (null stream)", sequential, perGlyph);
+        report("pipeline parallel (null stream)", parallel, perGlyph);
+        report("pipeline sequential (memory)", memory, perGlyph);
+        report("pipeline parallel (file channel)", channel, perGlyph);
+
+        RenderSink.MemorySink seq = RenderSink.memory();
+        RenderSink.MemorySink par = RenderSink.memory();
+        int runs = doc.renderDocument(seq, false);
+        doc.renderDocument(par, true);
+        boolean same = seq.getContent().equals(par.getContent())
+                && seq.getContent().equals(Files.readString(file));
+        System.out.printf("Runs rendered: %,d (%.1f glyphs/run)%n", runs, (double) doc.length() / runs);
+        System.out.println("Sequential == parallel == file: " + (same ? "OK" : "FAILED"));
+
+        // 줄 중간에서 시작하는 구간도 순차/병렬 결과가 같아야 함
+        boolean unaligned = true;
+        for (int start : new int[]{1, 37, 79, 12_345}) {
+            RenderSink.MemorySink seqRange = RenderSink.memory();
+            RenderSink.MemorySink parRange = RenderSink.memory();
+            doc.renderPositions(seqRange, start, doc.length() - 3, false);
+            doc.renderPositions(parRange, start, doc.length() - 3, true);
+            unaligned &= seqRange.getContent().equals(parRange.getContent());
+        }
+        System.out.println("Sequential == parallel (unaligned start): " + (unaligned ? "OK" : "FAILED"));
+
+        // 문서 끝을 넘는 구간은 순차 렌더링처럼 잘라서 처리하고, 런 개수는 컨텍스트의 줄바꿈과 무관해야 함
+        TextDocument titled = new TextDocument("Render\nBenchmark", StorageLayout.COLUMNAR);
+        forEachGlyph(120_000, (symbol, style) -> titled.addCharacterWithStyle(symbol, style));
+        RenderSink.MemorySink seqTail = RenderSink.memory();
+        RenderSink.MemorySink parTail = RenderSink.memory();
+        boolean clamped = titled.renderPositions(seqTail, 119_990, 190_000, false)
+                == titled.renderPositions(parTail, 119_990, 190_000, true)
+                && seqTail.getContent().equals(parTail.getContent())
+                && titled.renderPositions(RenderSink.memory(), -5, 190_000, false)
+                == titled.renderPositions(RenderSink.memory(), -5, 190_000, true);
+        System.out.println("Sequential == parallel (range past end, multi-line context): " + (clamped ? "OK" : "FAILED"));
+
+        // 줄 경계에서 나뉜 서로게이트 쌍은 대체 문자로, write 경계에서 나뉜 쌍은 그대로 기록되어야 함
+        TextDocument emoji = new TextDocument("Emoji", StorageLayout.COLUMNAR);
+        emoji.addText("a".repeat(79) + "\uD83D\uDE00" + "b", "Arial", 12, "Black");
+        RenderSink.MemorySink emojiText = RenderSink.memory();
+        emoji.renderDocument(emojiText, false);
+        String split = "x\uD83D\uDE00y";
+        boolean encoded;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            RenderSink sink = RenderSink.fileChannel(out);
+            emoji.renderDocument(sink, false);
+            encoded = Files.readString(file).equals(
+                    new String(emojiText.getContent().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+            out.truncate(0);
+            sink.write(split.substring(0, 2));
+            sink.write(split.substring(2));
+            sink.flush();
+            encoded &= Files.readString(file).equals(split);
+        } catch (IllegalStateException e) {
+            encoded = false;
+        }
+        System.out.println("Surrogate pairs split across runs/writes: " + (encoded ? "OK" : "FAILED"));
+        Files.delete(file);
+        System.out.println("=================================");
+    }
+
+    private static TextDocument buildDocument(int length) {
+        TextDocument doc = new TextDocument("Render Benchmark", StorageLayout.COLUMNAR);
+        forEachGlyph(length, (symbol, style) -> doc.addCharacterWithStyle(symbol, style));
+        return doc;
+    }
+
+    /**
+     * 기존 방식 비교용으로 같은 내용을 저장소에 직접 구성
+     */
+    private static DocumentStorage buildStorage(int length) {
+        DocumentStorage storage = StorageLayout.COLUMNAR.createStorage();
+        CharacterFactory factory = CharacterFactory.getInstance();
+        forEachGlyph(length, (symbol, style) -> {
+            if (symbol == ' ') {
+                storage.appendSpace();
+            } else {
+                storage.append(factory.getCharacterWithStyle(symbol, style));
+            }
+        });
+        return storage;
+    }
+
+    /**
+     * 단어 문장을 반복하며 문장마다 스타일을 바꿔 글리프를 생성
+     */
+    private static void forEachGlyph(int length, GlyphConsumer consumer) {
+        String words = "the flyweight pattern shares intrinsic state across many glyphs ";
+        int added = 0;
+        int style = 0;
+        while (added < length) {
+            for (int i = 0; i < words.length() && added < length; i++, added++) {
+                consumer.accept(words.charAt(i), STYLES[style]);
+            }
+            style = (style + 1) % STYLES.length;
+        }
+    }
+
+    /**
+     * 기존 방식: 위치마다 Flyweight의 render (printf) 호출
+     */
+    private static void renderPerGlyph(DocumentStorage storage, String context) {
+        for (int i = 0; i < storage.size(); i++) {
+            Character character = storage.characterAt(i);
+            if (character != null) {
+                character.render(storage.columnAt(i) * 10, storage.lineAt(i) * 20, context);
+            }
+        }
+    }
+
+    private static long best(Runnable task) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void report(String label, long nanos, long baseline) {
+        System.out.printf("%-36s | %9.1f ms | %6.1fx%n", label, nanos / 1e6, (double) baseline / nanos);
+    }
+
+    private interface GlyphConsumer {
+        void accept(char symbol, String style);
+    }
+}
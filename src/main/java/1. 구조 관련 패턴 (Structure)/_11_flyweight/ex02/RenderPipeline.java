@@ -0,0 +1,200 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * RenderPipeline - 글리프 묶음(run) 단위 렌더링 파이프라인
+ *
+ * 기존 방식은 글리프마다 Character.render → System.out.printf를 호출했기 때문에
+ * 큰 문서에서는 서식 처리와 콘솔 I/O가 렌더링 시간의 대부분을 차지했습니다.
+ *
+ * 이 파이프라인은:
+ * 1. 같은 줄에서 같은 스타일(같은 Flyweight 계열)을 쓰는 연속 글리프를 하나의 런으로 묶고
+ * 2. String.format 없이 재사용 StringBuilder에 직접 기록한 뒤
+ * 3. 버퍼가 일정 크기를 넘을 때만 RenderSink로 내보냅니다.
+ *
+ * 병렬 모드에서는 문서를 줄 단위 구간으로 나누어 여러 코어에서 각각 렌더링하고,
+ * 결과는 원래 순서대로 이어 붙여 Sink에 기록합니다.
+ *
+ * 출력 형식 (런 하나당 한 줄):
+ * Rendering "Hello" at (0, 0) | Font: Arial 12pt Black | Context: 문서명
+ */
+class RenderPipeline {
+    private static final int FLUSH_THRESHOLD = 16 * 1024;
+    private static final int LINES_PER_CHUNK = 512;
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    private static final int GLYPH_WIDTH = 10;   // 가정: 문자당 10픽셀 너비
+    private static final int LINE_HEIGHT = 20;   // 가정: 줄당 20픽셀 높이
+
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+
+    /**
+     * 구간을 순차적으로 렌더링
+     *
+     * @param storage 문서 저장소
+     * @param context 렌더링 컨텍스트 (문서명 등)
+     * @param start 시작 위치 (포함)
+     * @param end 끝 위치 (제외)
+     * @param sink 출력 대상
+     * @return 내보낸 런 개수
+     */
+    public int render(DocumentStorage storage, String context, int start, int end, RenderSink sink) {
+        buffer.setLength(0);
+        int runs = appendRuns(storage, context, start, end, buffer, sink);
+        if (buffer.length() > 0) {
+            sink.write(buffer);
+            buffer.setLength(0);
+        }
+        sink.flush();
+        return runs;
+    }
+
+    /**
+     * 구간을 줄 단위로 나누어 병렬 렌더링한 뒤 순서대로 출력
+     *
+     * 작은 구간은 스레드 분배 비용이 더 크므로 순차 렌더링으로 처리합니다.
+     * 구간은 순차 렌더링과 마찬가지로 저장소 범위로 잘라서 처리합니다.
+     * 저장소는 렌더링 중에 수정되지 않아야 합니다.
+     */
+    public int renderParallel(DocumentStorage storage, String context, int start, int end, RenderSink sink) {
+        start = Math.max(0, start);
+        end = Math.min(storage.size(), end);
+        if (end - start < PARALLEL_THRESHOLD) {
+            return render(storage, context, start, end, sink);
+        }
+
+        int chunkSize = LINES_PER_CHUNK * lineLength(storage, start, end);
+        int[] bounds = chunkBounds(storage, start, end, chunkSize);
+
+        // 구간마다 독립적인 버퍼에 렌더링 (병렬), 결과 배열은 구간 순서를 유지
+        int[] chunkRuns = new int[bounds.length - 1];
+        StringBuilder[] outputs = IntStream.range(0, bounds.length - 1)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int from = bounds[chunk];
+                    int to = bounds[chunk + 1];
+                    StringBuilder local = new StringBuilder();
+                    chunkRuns[chunk] = appendRuns(storage, context, from, to, local, null);
+                    return local;
+                })
+                .toArray(StringBuilder[]::new);
+
+        int runs = 0;
+        for (int chunk = 0; chunk < outputs.length; chunk++) {
+            sink.write(outputs[chunk]);
+            runs += chunkRuns[chunk];
+        }
+        sink.flush();
+        return runs;
+    }
+
+    /**
+     * 병렬 구간의 경계 계산
+     *
+     * 런은 줄이 바뀔 때만 끊기므로, 첫 구간을 뺀 모든 구간이 줄의 시작에서 시작해야
+     * 순차 렌더링과 같은 위치에서 런이 나뉩니다. (start가 줄 중간이어도 마찬가지)
+     *
+     * @return 경계 위치 배열 (첫 값은 start, 마지막 값은 end)
+     */
+    private static int[] chunkBounds(DocumentStorage storage, int start, int end, int chunkSize) {
+        int limit = Math.min(storage.size(), end);
+        int[] bounds = new int[2 + (limit - start) / chunkSize];
+        int count = 0;
+        bounds[count++] = start;
+        int position = start + chunkSize;
+        while (position < limit) {
+            while (position < limit && storage.columnAt(position) != 0) {
+                position++; // 다음 줄의 시작으로 맞춤
+            }
+            if (position >= limit) {
+                break;
+            }
+            bounds[count++] = position;
+            position += chunkSize;
+        }
+        bounds[count++] = end;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * 구간의 글리프들을 런 단위로 묶어 target에 기록
+     *
+     * sink가 주어지면 target이 임계값을 넘을 때마다 중간에 내보냅니다.
+     */
+    private static int appendRuns(DocumentStorage storage, String context, int start, int end,
+                                  StringBuilder target, RenderSink sink) {
+        int runs = 0;
+        int position = Math.max(0, start);
+        int limit = Math.min(storage.size(), end);
+
+        while (position < limit) {
+            Character style = storage.characterAt(position);
+            if (style == null) { // 공백은 런을 시작하지 않음
+                position++;
+                continue;
+            }
+
+            // 같은 줄, 같은 스타일인 동안 런을 확장 (사이의 공백은 런에 포함)
+            int line = storage.lineAt(position);
+            int runStart = position;
+            int runEnd = position + 1; // 마지막 비공백 글리프 다음 위치
+            int cursor = position + 1;
+            while (cursor < limit && storage.lineAt(cursor) == line) {
+                Character next = storage.characterAt(cursor);
+                if (next != null) {
+                    if (!sameStyle(style, next)) {
+                        break;
+                    }
+                    runEnd = cursor + 1;
+                }
+                cursor++;
+            }
+
+            appendRun(storage, context, runStart, runEnd, style, target);
+            runs++;
+            position = runEnd;
+
+            if (sink != null && target.length() >= FLUSH_THRESHOLD) {
+                sink.write(target);
+                target.setLength(0);
+            }
+        }
+        return runs;
+    }
+
+    private static void appendRun(DocumentStorage storage, String context, int from, int to,
+                                  Character style, StringBuilder target) {
+        target.append("Rendering \"");
+        for (int i = from; i < to; i++) {
+            target.append(storage.symbolAt(i));
+        }
+        target.append("\" at (")
+                .append(storage.columnAt(from) * GLYPH_WIDTH).append(", ")
+                .append(storage.lineAt(from) * LINE_HEIGHT).append(") | Font: ")
+                .append(style.getFont()).append(' ')
+                .append(style.getSize()).append("pt ")
+                .append(style.getColor()).append(" | Context: ")
+                .append(context).append('\n');
+    }
+
+    private static boolean sameStyle(Character a, Character b) {
+        return a.getSize() == b.getSize()
+                && a.getFont().equals(b.getFont())
+                && a.getColor().equals(b.getColor());
+    }
+
+    /**
+     * 저장소의 한 줄 길이 (줄 번호가 바뀌는 지점으로 측정, 기본 80)
+     */
+    private static int lineLength(DocumentStorage storage, int start, int end) {
+        int firstLine = storage.lineAt(start);
+        for (int i = start + 1; i < end; i++) {
+            if (storage.lineAt(i) != firstLine) {
+                return i - start + storage.columnAt(start);
+            }
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,154 @@
+package org._11_flyweight.ex02;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RenderSink - 렌더링 결과를 받아 내보내는 출력 대상
+ *
+ * RenderPipeline은 여러 글리프를 버퍼에 모은 뒤 한 번에 write를 호출하므로,
+ * 출력 대상에 상관없이 글리프마다 I/O가 일어나지 않습니다.
+ *
+ * 기본 제공 구현:
+ * - console(): 표준 출력 (System.out)
+ * - memory(): 메모리 버퍼 (테스트, 미리보기용)
+ * - fileChannel(channel): 파일 채널 (UTF-8로 인코딩하여 기록)
+ */
+interface RenderSink {
+    /**
+     * @param chunk 출력할 텍스트 묶음
+     */
+    void write(CharSequence chunk);
+
+    /**
+     * 아직 내보내지 않은 내용이 있으면 모두 내보냄
+     */
+    default void flush() {
+    }
+
+    static RenderSink console() {
+        return new ConsoleSink(System.out);
+    }
+
+    static MemorySink memory() {
+        return new MemorySink();
+    }
+
+    static RenderSink fileChannel(FileChannel channel) {
+        return new FileChannelSink(channel);
+    }
+
+    /**
+     * 표준 출력으로 내보내는 Sink
+     */
+    class ConsoleSink implements RenderSink {
+        private final PrintStream out;
+
+        ConsoleSink(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(CharSequence chunk) {
+            out.append(chunk);
+        }
+
+        @Override
+        public void flush() {
+            out.flush();
+        }
+    }
+
+    /**
+     * 메모리에 누적하는 Sink
+     */
+    class MemorySink implements RenderSink {
+        private final StringBuilder content = new StringBuilder();
+
+        @Override
+        public void write(CharSequence chunk) {
+            content.append(chunk);
+        }
+
+        /**
+         * @return 지금까지 누적된 렌더링 결과
+         */
+        public String getContent() {
+            return content.toString();
+        }
+    }
+
+    /**
+     * 파일 채널로 내보내는 Sink
+     *
+     * 인코딩용 ByteBuffer 하나를 재사용하며, 가득 찰 때마다 채널에 기록합니다.
+     *
+     * 런은 줄 단위로 끊기므로 서로게이트 쌍의 두 글리프가 서로 다른 런에 들어가
+     * 짝 없는 서로게이트가 될 수 있습니다. 이런 문자는 예외 대신 대체 문자('?')로 기록하고,
+     * write 경계에서 잘린 쌍은 남은 상위 서로게이트를 다음 write로 넘겨 함께 인코딩합니다.
+     */
+    class FileChannelSink implements RenderSink {
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private final CharBuffer pending = CharBuffer.allocate(2); // 이전 write에서 인코딩하지 못한 끝 문자
+
+        FileChannelSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(CharSequence chunk) {
+            CharBuffer chars = CharBuffer.wrap(chunk);
+            // 이전 묶음 끝의 상위 서로게이트를 이번 묶음의 앞 문자와 이어서 인코딩
+            while (pending.position() > 0 && chars.hasRemaining()) {
+                pending.put(chars.get());
+                pending.flip();
+                encode(pending, false);
+                pending.compact();
+            }
+            encode(chars, false);
+            pending.put(chars); // 인코더가 남기는 것은 짝을 기다리는 상위 서로게이트 하나뿐
+        }
+
+        @Override
+        public void flush() {
+            pending.flip();
+            encode(pending, true);
+            pending.clear();
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+            encoder.reset(); // 이후 write를 위해 인코더를 다시 사용 가능한 상태로
+        }
+
+        private void encode(CharBuffer chars, boolean endOfInput) {
+            while (encoder.encode(chars, buffer, endOfInput).isOverflow()) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RopeStorage - 스타일 런(style run) 기반 로프 저장소
+ *
+ * 문서를 "같은 스타일을 가진 연속된 문자 묶음(런)"들의 순서 있는 트리로 저장합니다.
+ * 트리는 위치를 암묵적 키로 사용하는 트립(implicit treap)이므로
+ * 임의 위치의 삽입/삭제/조회가 평균 O(log n)에 끝납니다.
+ *
+ * 런(Run) 구조:
+ * - symbols: 런에 속한 문자들 (공백은 ' ')
+ * - style: 런의 스타일을 대표하는 Character Flyweight (폰트/크기/색상 참조용)
+ *
+ * 문자별 Flyweight는 저장하지 않고, 조회 시 (문자 + 런 스타일)로
+ * CharacterFactory에서 다시 찾습니다. 줄/컬럼 번호도 조회 시점에 위치로부터
+ * 계산하므로 중간 삽입 후에도 별도의 재계산이 필요 없습니다.
+ */
+class RopeStorage implements DocumentStorage {
+    private static final int COLUMNS_PER_LINE = 80;
+    private static final int MAX_RUN_LENGTH = 128;
+
+    /**
+     * 트립 노드 = 하나의 스타일 런
+     */
+    private static class Node {
+        char[] symbols;
+        int length;
+        Character style;     // 공백만 있는 런은 null
+        final int priority;
+        Node left;
+        Node right;
+        int total;           // 서브트리 전체 위치 수
+
+        Node(char[] symbols, int length, Character style) {
+            this.symbols = symbols;
+            this.length = length;
+            this.style = style;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.total = length;
+        }
+    }
+
+    private final CharacterFactory factory = CharacterFactory.getInstance();
+    private Node root;
+
+    /**
+     * 순차 조회용 캐시: 마지막으로 찾은 런과 그 시작 위치
+     *
+     * 렌더링처럼 위치를 차례로 읽을 때 런 하나당 한 번만 트리를 탐색합니다.
+     * 런과 시작 위치를 불변 객체 하나로 묶어 두므로 여러 스레드가 동시에
+     * 읽기만 할 때도 서로 어긋난 값을 보지 않습니다. 구조가 바뀌면 무효화됩니다.
+     */
+    private static class Cursor {
+        final Node run;
+        final int start;
+
+        Cursor(Node run, int start) {
+            this.run = run;
+            this.start = start;
+        }
+    }
+
+    private volatile Cursor cursor;
+
+    @Override
+    public int size() {
+        return total(root);
+    }
+
+    @Override
+    public Character characterAt(int position) {
+        Cursor located = locate(position);
+        Node run = located.run;
+        char symbol = run.symbols[position - located.start];
+        if (symbol == ' ' || run.style == null) {
+            return null;
+        }
+        if (symbol == run.style.getSymbol()) {
+            return run.style;
+        }
+        return resolve(symbol, run.style);
+    }
+
+    @Override
+    public char symbolAt(int position) {
+        Cursor located = locate(position);
+        return located.run.symbols[position - located.start];
+    }
+
+    @Override
+    public int lineAt(int position) {
+        checkIndex(position, size());
+        return position / COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public int columnAt(int position) {
+        checkIndex(position, size());
+        return position % COLUMNS_PER_LINE;
+    }
+
+    @Override
+    public void append(Character character) {
+        insert(size(), character);
+    }
+
+    @Override
+    public void appendSpace() {
+        insert(size(), null);
+    }
+
+    /**
+     * 임의 위치에 문자 삽입 (평균 O(log n))
+     *
+     * @param position 삽입 위치 (0 ~ size)
+     * @param character 삽입할 Flyweight, 공백이면 null
+     */
+    @Override
+    public void insert(int position, Character character) {
+        if (position < 0 || position > size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size());
+        }
+        invalidateCache();
+
+        Node[] parts = split(root, position);
+        Node left = appendToRightmost(parts[0], character);
+        root = merge(left, parts[1]);
+    }
+
+    /**
+     * 구간 삭제 (평균 O(log n))
+     *
+     * @param start 시작 위치 (포함)
+     * @param end 끝 위치 (제외)
+     */
+    @Override
+    public void delete(int start, int end) {
+        if (start < 0 || end > size() || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for size " + size());
+        }
+        invalidateCache();
+
+        Node[] head = split(root, start);
+        Node[] tail = split(head[1], end - start);
+        root = merge(head[0], tail[1]);
+    }
+
+    /**
+     * 노드마다 헤더 12 + 참조 4개 + int 3개 → 40바이트, 런의 char 배열은 별도
+     */
+    @Override
+    public long estimateMemoryBytes() {
+        return DocumentStorage.align(12 + 4 * 2) + nodeBytes(root);
+    }
+
+    @Override
+    public String layoutName() {
+        return "rope (style runs)";
+    }
+
+    /**
+     * @return 현재 런(노드) 개수
+     */
+    public int runCount() {
+        return countRuns(root);
+    }
+
+    /**
+     * 위치가 속한 런과 그 런의 시작 위치를 찾음
+     */
+    private Cursor locate(int position) {
+        Cursor cached = cursor;
+        if (cached != null && position >= cached.start && position < cached.start + cached.run.length) {
+            return cached;
+        }
+        checkIndex(position, size());
+
+        Node node = root;
+        int offset = 0;
+        while (true) {
+            int leftSize = total(node.left);
+            if (position < offset + leftSize) {
+                node = node.left;
+            } else if (position < offset + leftSize + node.length) {
+                Cursor located = new Cursor(node, offset + leftSize);
+                cursor = located;
+                return located;
+            } else {
+                offset += leftSize + node.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * 트리를 앞쪽 count개 위치와 나머지로 분할
+     *
+     * 분할 지점이 런 중간이면 런을 둘로 나눕니다.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        int leftSize = total(node.left);
+        if (count <= leftSize) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            update(node);
+            return new Node[]{parts[0], node};
+        }
+        if (count >= leftSize + node.length) {
+            Node[] parts = split(node.right, count - leftSize - node.length);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+
+        // 런 내부에서 분할: 뒷부분을 새 런으로 떼어 오른쪽 트리 앞에 붙임
+        int offset = count - leftSize;
+        Node tail = new Node(Arrays.copyOfRange(node.symbols, offset, node.length),
+                node.length - offset, node.style);
+        node.length = offset;
+        Node right = merge(tail, node.right);
+        node.right = null;
+        update(node);
+        return new Node[]{node, right};
+    }
+
+    /**
+     * 두 트리를 순서대로 이어 붙임 (우선순위가 높은 노드가 루트)
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    /**
+     * 트리의 마지막 런에 문자를 덧붙이거나, 스타일이 다르면 새 런을 추가
+     */
+    private static Node appendToRightmost(Node tree, Character character) {
+        Node last = tree;
+        while (last != null && last.right != null) {
+            last = last.right;
+        }
+
+        if (last != null && last.length < MAX_RUN_LENGTH && canJoin(last, character)) {
+            if (last.length == last.symbols.length) {
+                last.symbols = Arrays.copyOf(last.symbols, Math.min(MAX_RUN_LENGTH, last.length * 2));
+            }
+            last.symbols[last.length++] = character == null ? ' ' : character.getSymbol();
+            if (last.style == null) {
+                last.style = character;
+            }
+            // 오른쪽 경로의 서브트리 크기 갱신
+            for (Node node = tree; node != null; node = node.right) {
+                node.total++;
+            }
+            return tree;
+        }
+
+        char[] symbols = new char[8];
+        symbols[0] = character == null ? ' ' : character.getSymbol();
+        return merge(tree, new Node(symbols, 1, character));
+    }
+
+    /**
+     * 공백은 어느 런에나 들어갈 수 있고, 문자는 스타일이 같은 런에만 들어감
+     */
+    private static boolean canJoin(Node run, Character character) {
+        if (character == null || run.style == null) {
+            return true;
+        }
+        Character style = run.style;
+        return style.getSize() == character.getSize()
+                && style.getFont().equals(character.getFont())
+                && style.getColor().equals(character.getColor());
+    }
+
+    /**
+     * 런 스타일과 문자로 Flyweight 조회 (캐시에서 정리된 경우 다시 생성)
+     */
+    private Character resolve(char symbol, Character style) {
+        Character character = factory.findCharacter(symbol, style.getFont(), style.getSize(), style.getColor());
+        if (character == null) {
+            character = factory.getCharacter(symbol, style.getFont(), style.getSize(), style.getColor());
+        }
+        return character;
+    }
+
+    private void invalidateCache() {
+        cursor = null;
+    }
+
+    private static int total(Node node) {
+        return node == null ? 0 : node.total;
+    }
+
+    private static void update(Node node) {
+        node.total = total(node.left) + node.length + total(node.right);
+    }
+
+    private static int countRuns(Node node) {
+        return node == null ? 0 : 1 + countRuns(node.left) + countRuns(node.right);
+    }
+
+    private static long nodeBytes(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return DocumentStorage.align(12 + 4 * 4 + 4 * 3)
+                + DocumentStorage.align(16 + 2L * node.symbols.length)
+                + nodeBytes(node.left) + nodeBytes(node.right);
+    }
+
+    private static void checkIndex(int position, int size) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org._11_flyweight.ex02;
+
+/**
+ * StorageLayout - TextDocument가 사용할 저장소 레이아웃 선택
+ *
+ * - OBJECTS: 문자마다 CharacterElement 객체 (기존 방식, 기본값)
+ * - COLUMNAR: 기본형 배열 기반 컬럼형 저장소 (대용량 문서용)
+ * - ROPE: 스타일 런 트리 기반 저장소 (중간 삽입/삭제가 잦은 편집용)
+ */
+enum StorageLayout {
+    OBJECTS {
+        @Override
+        DocumentStorage createStorage() {
+            return new ElementListStorage();
+        }
+    },
+    COLUMNAR {
+        @Override
+        DocumentStorage createStorage() {
+            return new ColumnarStorage();
+        }
+    },
+    ROPE {
+        @Override
+        DocumentStorage createStorage() {
+            return new RopeStorage();
+        }
+    };
+
+    /**
+     * @return 이 레이아웃의 빈 저장소
+     */
+    abstract DocumentStorage createStorage();
+}
@@ -0,0 +1,118 @@
+package org._11_flyweight.ex02;
+
+import java.util.Random;
+
+/**
+ * StyleLookupBenchmark - 스타일명으로 Flyweight 조회 비교
+ *
+ * 스타일을 지정한 타이핑을 흉내 내어 같은 문자열을 다음 방식으로 조회합니다.
+ * - getCharacter: 폰트/크기/색상을 직접 넘겨 팩토리 캐시 조회 (기존 switch 이후 경로)
+ * - getCharacterWithStyle(String): 레지스트리에서 이름 조회 후 스타일별 표 조회
+ * - getCharacterWithStyle(Style): 미리 얻은 스타일로 표만 조회 (배열 인덱스 한 번)
+ *
+ * 사용자 정의 스타일("code")도 등록하여 함께 사용하고,
+ * 세 방식이 모두 같은 Flyweight 인스턴스를 돌려주는지, 스타일 표에서만 찾는 글리프도
+ * 축출되지 않고 남는지, 이름을 다시 등록한 뒤 옛 스타일 핸들이 축출된 인스턴스를 돌려주지 않는지 확인합니다.
+ * 실행 인자로 조회 횟수를 지정할 수 있습니다. (기본 20,000,000회)
+ */
+public class StyleLookupBenchmark {
+    private static final String[] STYLE_NAMES = {"title", "heading", "body", "caption", "highlight", "code"};
+    private static final String[][] STYLE_VALUES = {
+            {"Arial", "18", "Black"}, {"Times New Roman", "14", "Blue"}, {"Arial", "12", "Black"},
+            {"Arial", "10", "Gray"}, {"Arial", "12", "Red"}, {"Courier New", "11", "Green"}
+    };
+
+    public static void main(String[] args) {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+
+        CharacterFactory factory = CharacterFactory.getInstance();
+        factory.registerStyle("Code", "Courier New", 11, "Green");
+
+        Random random = new Random(13);
+        char[] symbols = new char[4_096];
+        int[] styleOf = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = (char) ('a' + random.nextInt(26));
+            styleOf[i] = random.nextInt(STYLE_NAMES.length);
+        }
+        StyleRegistry.Style[] handles = new StyleRegistry.Style[STYLE_NAMES.length];
+        int[] sizes = new int[STYLE_NAMES.length];
+        for (int s = 0; s < STYLE_NAMES.length; s++) {
+            handles[s] = factory.styleOf(STYLE_NAMES[s]);
+            sizes[s] = Integer.parseInt(STYLE_VALUES[s][1]);
+        }
+
+        System.out.println("=== 스타일 조회 벤치마크 ===");
+        System.out.println("Registered styles: " + factory.getRegisteredStyles());
+
+        for (int round = 0; round < 3; round++) { // 첫 라운드는 JIT 예열
+            long start = System.nanoTime();
+            int checksum = 0;
+            for (int i = 0; i < lookups; i++) {
+                int k = i & (symbols.length - 1);
+                String[] style = STYLE_VALUES[styleOf[k]];
+                checksum += factory.getCharacter(symbols[k], style[0], sizes[styleOf[k]], style[2]).getSize();
+            }
+            report(round, "getCharacter(font, size, color)", lookups, System.nanoTime() - start, checksum);
+
+            start = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < lookups; i++) {
+                int k = i & (symbols.length - 1);
+                checksum += factory.getCharacterWithStyle(symbols[k], STYLE_NAMES[styleOf[k]]).getSize();
+            }
+            report(round, "getCharacterWithStyle(name)", lookups, System.nanoTime() - start, checksum);
+
+            start = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < lookups; i++) {
+                int k = i & (symbols.length - 1);
+                checksum += factory.getCharacterWithStyle(symbols[k], handles[styleOf[k]]).getSize();
+            }
+            report(round, "getCharacterWithStyle(style)", lookups, System.nanoTime() - start, checksum);
+        }
+
+        boolean same = true;
+        for (int k = 0; k < symbols.length; k++) {
+            String[] style = STYLE_VALUES[styleOf[k]];
+            Character direct = factory.getCharacter(symbols[k], style[0], sizes[styleOf[k]], style[2]);
+            same &= direct == factory.getCharacterWithStyle(symbols[k], STYLE_NAMES[styleOf[k]])
+                    && direct == factory.getCharacterWithStyle(symbols[k], handles[styleOf[k]]);
+        }
+        System.out.println("Same flyweight instances: " + (same ? "OK" : "FAILED"));
+
+        // 스타일 표에서만 찾는 글리프도 CLOCK에서 "사용 중"으로 보여 축출되지 않아야 함
+        int capacity = factory.getCapacity();
+        factory.setCapacity(64);
+        Character hot = factory.getCharacterWithStyle('a', handles[0]);
+        boolean survived = true;
+        for (int i = 0; i < 1_000; i++) {
+            factory.getCharacter((char) (0x4E00 + i), "Arial", 12, "Black"); // 새 Flyweight → 축출 발생
+            survived &= factory.getCharacterWithStyle('a', handles[0]) == hot;
+        }
+        String[] title = STYLE_VALUES[0];
+        survived &= factory.findCharacter('a', title[0], sizes[0], title[2]) == hot;
+        factory.setCapacity(capacity);
+        System.out.println("Hot styled glyph kept by CLOCK under eviction: " + (survived ? "OK" : "FAILED"));
+
+        // 이름을 다시 등록해도, 그 전에 얻은 스타일 핸들이 축출된 인스턴스를 돌려주지 않아야 함
+        StyleRegistry.Style stale = factory.styleOf("body");
+        factory.getCharacterWithStyle('q', stale);
+        String[] body = STYLE_VALUES[2];
+        factory.registerStyle("body", body[0], Integer.parseInt(body[1]), body[2]);
+        factory.optimizeCache();
+        boolean current = factory.getCharacterWithStyle('q', stale)
+                == factory.getCharacter('q', body[0], Integer.parseInt(body[1]), body[2]);
+        System.out.println("Replaced style handle returns the live flyweight: " + (current ? "OK" : "FAILED"));
+        System.out.println("============================");
+    }
+
+    private static void report(int round, String label, int lookups, long nanos, int checksum) {
+        if (round == 0) {
+            return;
+        }
+        System.out.printf("%-34s | %8.1f ms | %8.1f M lookups/s (checksum %d)%n",
+                label, nanos / 1e6, lookups / (nanos / 1e9) / 1e6, checksum);
+    }
+}
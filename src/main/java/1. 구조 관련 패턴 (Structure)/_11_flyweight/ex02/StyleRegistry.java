@@ -0,0 +1,177 @@
+package org._11_flyweight.ex02;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * StyleRegistry - 이름 있는 스타일과 스타일별 Flyweight 표
+ *
+ * 기존 getCharacterWithStyle은 문자마다 스타일명을 소문자로 바꾸고 switch로 분기한 뒤
+ * 다시 팩토리 캐시를 조회했습니다. 이 레지스트리는 스타일마다 "문자 → Flyweight" 표를
+ * 두어, 한 번 조회한 문자는 다음부터 배열 인덱스만으로 바로 찾습니다.
+ *
+ * 핵심:
+ * - 기본 스타일: title, heading, body, caption, highlight (이름은 대소문자 구분 없음)
+ * - registerStyle로 실행 중에 사용자 스타일을 추가하거나 기존 스타일을 바꿀 수 있음
+ * - 표는 SymbolIndex와 같은 256 × 256 페이지 구조로, 쓰인 문자 영역만 할당
+ *
+ * 캐시와의 일관성:
+ * FlyweightTable의 Listener로 등록되어, Flyweight가 축출되면 해당 칸을 비우고
+ * 캐시가 비워지면(clearCache) 모든 표를 초기화합니다.
+ */
+class StyleRegistry implements FlyweightTable.Listener {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    /**
+     * 이름 있는 스타일 하나 (폰트/크기/색상 + 문자별 Flyweight 표)
+     *
+     * 표의 칸에는 팩토리 테이블의 항목(Entry)을 기억하여, 표에서 찾을 때도 CLOCK의
+     * referenced 비트를 세웁니다. (자주 쓰는 스타일 글리프가 먼저 축출되지 않도록)
+     * 칸 읽기는 잠금이 없고, 쓰기(remember/forget/reset)는 모두 테이블 잠금 안에서 일어나므로
+     * 이미 축출된 인스턴스가 표에 남지 않습니다.
+     */
+    static class Style {
+        final String name;
+        final String font;
+        final int size;
+        final String color;
+        private volatile FlyweightTable.Entry[][] pages = new FlyweightTable.Entry[PAGE_SIZE][];
+
+        Style(String name, String font, int size, String color) {
+            this.name = name;
+            this.font = font;
+            this.size = size;
+            this.color = color;
+        }
+
+        /**
+         * @return 표에 있는 테이블 항목, 없으면 null
+         */
+        FlyweightTable.Entry cached(char symbol) {
+            FlyweightTable.Entry[] page = pages[symbol >>> PAGE_BITS];
+            return page == null ? null : page[symbol & (PAGE_SIZE - 1)];
+        }
+
+        /**
+         * 테이블 잠금 안에서만 호출 (FlyweightTable.withCurrentEntry)
+         */
+        void remember(FlyweightTable.Entry entry) {
+            FlyweightTable.Entry[][] current = pages;
+            char symbol = entry.value.getSymbol();
+            FlyweightTable.Entry[] page = current[symbol >>> PAGE_BITS];
+            if (page == null) {
+                page = new FlyweightTable.Entry[PAGE_SIZE];
+                current[symbol >>> PAGE_BITS] = page;
+            }
+            page[symbol & (PAGE_SIZE - 1)] = entry;
+        }
+
+        void forget(Character character) {
+            char symbol = character.getSymbol();
+            FlyweightTable.Entry[] page = pages[symbol >>> PAGE_BITS];
+            if (page != null && page[symbol & (PAGE_SIZE - 1)] != null
+                    && page[symbol & (PAGE_SIZE - 1)].value == character) {
+                page[symbol & (PAGE_SIZE - 1)] = null;
+            }
+        }
+
+        void reset() {
+            pages = new FlyweightTable.Entry[PAGE_SIZE][];
+        }
+
+        boolean matches(Character character) {
+            return size == character.getSize()
+                    && font.equals(character.getFont())
+                    && color.equals(character.getColor());
+        }
+    }
+
+    private final ConcurrentMap<String, Style> styles = new ConcurrentHashMap<>();
+
+    /**
+     * 등록되지 않은 이름에 사용하는 기본 스타일
+     */
+    private final Style defaultStyle = new Style("default", "Arial", 12, "Black");
+
+    StyleRegistry() {
+        registerStyle("title", "Arial", 18, "Black");
+        registerStyle("heading", "Times New Roman", 14, "Blue");
+        registerStyle("body", "Arial", 12, "Black");
+        registerStyle("caption", "Arial", 10, "Gray");
+        registerStyle("highlight", "Arial", 12, "Red");
+    }
+
+    /**
+     * 스타일 등록 (같은 이름이 있으면 교체)
+     *
+     * 교체된 스타일 객체는 더 이상 축출 통지를 받지 않으므로 표를 비웁니다.
+     * (이전에 얻은 핸들로 조회해도 팩토리 캐시에서 현재 인스턴스를 다시 찾음)
+     *
+     * @param name 스타일명 (대소문자 구분 없음)
+     * @param font 폰트명
+     * @param size 폰트 크기
+     * @param color 문자 색상
+     * @return 등록된 스타일
+     */
+    public Style registerStyle(String name, String font, int size, String color) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Style style = new Style(key, font, size, color);
+        Style previous = styles.put(key, style);
+        if (previous != null) {
+            previous.reset();
+        }
+        return style;
+    }
+
+    /**
+     * 이름으로 스타일 조회
+     *
+     * 등록할 때 이름을 소문자로 저장하므로, 소문자로 호출하면 변환 없이 한 번에 찾습니다.
+     *
+     * @param name 스타일명
+     * @return 등록된 스타일, 없으면 기본 스타일 (Arial 12pt Black)
+     */
+    public Style find(String name) {
+        Style style = styles.get(name);
+        if (style == null) {
+            style = styles.get(name.toLowerCase(Locale.ROOT));
+        }
+        return style != null ? style : defaultStyle;
+    }
+
+    /**
+     * @return 등록된 스타일명들 (정렬됨)
+     */
+    public Set<String> names() {
+        return new TreeSet<>(styles.keySet());
+    }
+
+    @Override
+    public void added(long key, Character character) {
+        // 표는 getCharacterWithStyle에서 조회할 때 채움
+    }
+
+    @Override
+    public void removed(long key, Character character) {
+        for (Style style : styles.values()) {
+            if (style.matches(character)) {
+                style.forget(character);
+            }
+        }
+        if (defaultStyle.matches(character)) {
+            defaultStyle.forget(character);
+        }
+    }
+
+    @Override
+    public void cleared() {
+        for (Style style : styles.values()) {
+            style.reset();
+        }
+        defaultStyle.reset();
+    }
+}
@@ -0,0 +1,95 @@
+package org._11_flyweight.ex02;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * StyleStatistics - 캐시된 Flyweight의 스타일 분포 카운터
+ *
+ * 기존에는 통계를 볼 때마다 캐시 전체를 순회하며 HashMap 세 개를 새로 만들었습니다.
+ * 이 클래스는 FlyweightTable에 Flyweight가 추가/축출될 때마다 카운터를 갱신하므로
+ * 조회는 항상 O(1)(분포 전체 조회는 O(서로 다른 값의 수))입니다.
+ *
+ * 유지하는 카운터:
+ * - 폰트별, 색상별, 크기별 Flyweight 수
+ * - (폰트, 크기) 조합별 Flyweight 수 - countCharactersWithStyle 용 색인
+ *
+ * 갱신은 FlyweightTable의 잠금 안에서만 일어나고 카운터는 ConcurrentHashMap이므로,
+ * 모니터링 스레드는 팩토리를 멈추지 않고 언제든 값을 읽을 수 있습니다.
+ */
+class StyleStatistics implements FlyweightTable.Listener {
+    private final ConcurrentMap<String, Integer> fonts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> colors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Integer> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * (폰트 ID, 크기) → Flyweight 수
+     *
+     * 키는 압축 키의 [size 16비트 | fontId 16비트] 부분을 그대로 사용합니다.
+     */
+    private final ConcurrentMap<Long, Integer> fontSizes = new ConcurrentHashMap<>();
+
+    @Override
+    public void added(long key, Character character) {
+        update(key, character, 1);
+    }
+
+    @Override
+    public void removed(long key, Character character) {
+        update(key, character, -1);
+    }
+
+    @Override
+    public void cleared() {
+        fonts.clear();
+        colors.clear();
+        sizes.clear();
+        fontSizes.clear();
+    }
+
+    /**
+     * @param fontId 폰트 ID (CharacterFactory에 등록된 값)
+     * @param size 폰트 크기
+     * @return 해당 폰트와 크기를 가진 Flyweight 수
+     */
+    public int countFontSize(int fontId, int size) {
+        return fontSizes.getOrDefault(fontSizeKey(fontId, size), 0);
+    }
+
+    public Map<String, Integer> fontDistribution() {
+        return new HashMap<>(fonts);
+    }
+
+    public Map<String, Integer> colorDistribution() {
+        return new HashMap<>(colors);
+    }
+
+    public Map<Integer, Integer> sizeDistribution() {
+        return new HashMap<>(sizes);
+    }
+
+    /**
+     * 압축 키에서 (폰트 ID, 크기) 부분을 꺼내 색인 키 생성
+     *
+     * 압축 키 형식: [symbol 16비트 | size 16비트 | fontId 16비트 | colorId 16비트]
+     */
+    static long fontSizeKey(int fontId, int size) {
+        return ((long) size << 16) | fontId;
+    }
+
+    private void update(long key, Character character, int delta) {
+        increment(fonts, character.getFont(), delta);
+        increment(colors, character.getColor(), delta);
+        increment(sizes, character.getSize(), delta);
+        increment(fontSizes, (key >>> 16) & 0xFFFF_FFFFL, delta);
+    }
+
+    /**
+     * 카운터 증감 (0이 되면 항목을 제거하여 분포에 남지 않게 함)
+     */
+    private static <K> void increment(ConcurrentMap<K, Integer> counters, K key, int delta) {
+        counters.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
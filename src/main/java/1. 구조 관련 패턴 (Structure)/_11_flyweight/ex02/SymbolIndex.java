@@ -0,0 +1,170 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+
+/**
+ * SymbolIndex - 문자별 위치 역색인 (inverted index)
+ *
+ * 문서에 등장하는 각 문자마다 "등장 위치들의 정렬된 int 배열"을 유지합니다.
+ * 문서 끝에 문자가 추가될 때마다 해당 문자의 배열 끝에 위치를 덧붙이므로
+ * 별도의 정렬 없이 항상 오름차순이 유지됩니다.
+ *
+ * 조회 비용 (n = 문서 길이, k = 해당 문자의 등장 횟수, m = 검색어 길이):
+ * - 개수 조회: O(1)
+ * - 위치 목록: O(k)
+ * - 부분 문자열 검색: O(k_min × m) - 검색어 중 가장 드문 문자를 기준으로 후보를 좁힌 뒤
+ *   후보 위치만 저장소에서 직접 확인
+ *
+ * 문자(char)를 키로 쓰는 65536칸 표를 256 × 256 페이지로 나누어
+ * 실제로 등장한 문자 영역의 페이지만 할당합니다.
+ */
+class SymbolIndex {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 문자 하나의 등장 위치 목록 (정렬된 가변 int 배열)
+     */
+    private static class Postings {
+        int[] positions = new int[4];
+        int count;
+
+        void add(int position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+    }
+
+    private Postings[][] pages = new Postings[PAGE_SIZE][];
+    private int indexedLength;
+
+    /**
+     * 문서 끝에 추가된 문자를 색인에 반영
+     *
+     * @param symbol 추가된 문자 (공백 포함)
+     * @param position 추가된 위치 (지금까지 색인된 길이와 같아야 함)
+     */
+    public void append(char symbol, int position) {
+        postingsFor(symbol, true).add(position);
+        indexedLength = position + 1;
+    }
+
+    /**
+     * 저장소 전체를 다시 읽어 색인을 재구성 (중간 삽입/삭제 이후 사용)
+     *
+     * @param storage 색인할 문서 저장소
+     */
+    public void rebuild(DocumentStorage storage) {
+        pages = new Postings[PAGE_SIZE][];
+        indexedLength = 0;
+        for (int i = 0; i < storage.size(); i++) {
+            append(storage.symbolAt(i), i);
+        }
+    }
+
+    /**
+     * @return 지금까지 색인된 문서 길이
+     */
+    public int indexedLength() {
+        return indexedLength;
+    }
+
+    /**
+     * @param symbol 찾을 문자
+     * @return 문서 내 등장 횟수
+     */
+    public int count(char symbol) {
+        Postings postings = postingsFor(symbol, false);
+        return postings == null ? 0 : postings.count;
+    }
+
+    /**
+     * @param symbol 찾을 문자
+     * @return 등장 위치들 (오름차순, 복사본)
+     */
+    public int[] positionsOf(char symbol) {
+        Postings postings = postingsFor(symbol, false);
+        return postings == null ? EMPTY : Arrays.copyOf(postings.positions, postings.count);
+    }
+
+    /**
+     * 부분 문자열의 모든 시작 위치 검색
+     *
+     * 검색어에서 등장 횟수가 가장 적은 문자를 기준 문자로 고른 뒤,
+     * 그 문자의 위치마다 나머지 문자들이 올바른 자리에 있는지 저장소에서 확인합니다.
+     *
+     * @param pattern 검색어 (비어 있으면 결과 없음)
+     * @param storage 후보 위치를 확인할 문서 저장소 (색인과 같은 내용이어야 함)
+     * @return 일치하는 시작 위치들 (오름차순)
+     */
+    public int[] find(CharSequence pattern, DocumentStorage storage) {
+        int length = pattern.length();
+        if (length == 0 || length > indexedLength) {
+            return EMPTY;
+        }
+
+        // 1. 가장 드문 문자를 기준으로 선택
+        int anchor = 0;
+        Postings anchorPostings = null;
+        for (int i = 0; i < length; i++) {
+            Postings postings = postingsFor(pattern.charAt(i), false);
+            if (postings == null) {
+                return EMPTY; // 검색어의 문자가 문서에 없으면 즉시 종료
+            }
+            if (anchorPostings == null || postings.count < anchorPostings.count) {
+                anchor = i;
+                anchorPostings = postings;
+            }
+        }
+
+        // 2. 기준 문자의 위치마다 후보 시작 위치를 검증
+        int[] matches = new int[16];
+        int found = 0;
+        for (int p = 0; p < anchorPostings.count; p++) {
+            int start = anchorPostings.positions[p] - anchor;
+            if (start < 0 || start + length > indexedLength) {
+                continue;
+            }
+            if (matchesAt(pattern, start, anchor, storage)) {
+                if (found == matches.length) {
+                    matches = Arrays.copyOf(matches, found * 2);
+                }
+                matches[found++] = start;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    /**
+     * 검색어의 각 문자가 start + i 위치에 있는지 확인
+     */
+    private static boolean matchesAt(CharSequence pattern, int start, int anchor, DocumentStorage storage) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (i != anchor && storage.symbolAt(start + i) != pattern.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Postings postingsFor(char symbol, boolean create) {
+        Postings[] page = pages[symbol >>> PAGE_BITS];
+        if (page == null) {
+            if (!create) {
+                return null;
+            }
+            page = new Postings[PAGE_SIZE];
+            pages[symbol >>> PAGE_BITS] = page;
+        }
+
+        Postings postings = page[symbol & (PAGE_SIZE - 1)];
+        if (postings == null && create) {
+            postings = new Postings();
+            page[symbol & (PAGE_SIZE - 1)] = postings;
+        }
+        return postings;
+    }
+}
@@ -0,0 +1,137 @@
+package org._11_flyweight.ex02;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SymbolIndexBenchmark - 역색인 검색 vs 선형 스캔 비교
+ *
+ * 큰 문서(기본 10,000,000자)를 만든 뒤 같은 질의를 두 방식으로 수행합니다.
+ * - 선형 스캔: 문서 전체 텍스트를 처음부터 끝까지 훑음
+ * - 역색인: TextDocument의 SymbolIndex 사용 (countOccurrences, positionsOf, findText)
+ *
+ * 두 방식의 결과가 같은지도 함께 확인합니다.
+ * 실행 인자로 문서 길이를 지정할 수 있습니다.
+ */
+public class SymbolIndexBenchmark {
+    private static final String[] WORDS = {
+            "flyweight", "intrinsic", "extrinsic", "factory", "document", "render",
+            "glyph", "style", "font", "cache", "share", "memory", "position", "editor"
+    };
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        FlyweightTrace.setLevel(FlyweightTrace.Level.OFF);
+        long start = System.nanoTime();
+        TextDocument doc = buildDocument(length);
+        long buildNanos = System.nanoTime() - start;
+        String text = doc.getTextContent();
+
+        System.out.println("=== SymbolIndex 검색 벤치마크 ===");
+        System.out.printf("Document length: %,d (built in %.1f s, index maintained on append)%n",
+                text.length(), buildNanos / 1e9);
+
+        char rare = 'w';
+        char common = 'e';
+        String phrase = "flyweight factory";
+
+        compare("count('" + common + "')",
+                () -> scanCount(text, common), () -> doc.countOccurrences(common));
+        compare("positionsOf('" + rare + "').length",
+                () -> scanPositions(text, rare).length, () -> doc.positionsOf(rare).length);
+        compare("findText(\"" + phrase + "\").length",
+                () -> scanFind(text, phrase).length, () -> doc.findText(phrase).length);
+
+        boolean same = Arrays.equals(scanFind(text, phrase), doc.findText(phrase))
+                && Arrays.equals(scanPositions(text, rare), doc.positionsOf(rare));
+        System.out.println("Results identical: " + (same ? "OK" : "FAILED"));
+        System.out.println("=================================");
+    }
+
+    private static TextDocument buildDocument(int length) {
+        TextDocument doc = new TextDocument("Index Benchmark", StorageLayout.COLUMNAR);
+        Random random = new Random(7);
+        StringBuilder sentence = new StringBuilder();
+
+        int added = 0;
+        while (added < length) {
+            sentence.setLength(0);
+            while (sentence.length() < 64) {
+                sentence.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            int chunk = Math.min(sentence.length(), length - added);
+            doc.addText(sentence.substring(0, chunk), "Arial", 12, "Black");
+            added += chunk;
+        }
+        return doc;
+    }
+
+    /**
+     * 같은 질의를 선형 스캔과 역색인으로 각각 실행하여 최소 시간을 비교
+     */
+    private static void compare(String label, IntQuery scan, IntQuery indexed) {
+        long scanNanos = best(scan);
+        long indexNanos = best(indexed);
+        int scanResult = scan.run();
+        int indexResult = indexed.run();
+
+        System.out.printf("%-34s | scan %9.3f ms | index %9.3f ms | %7.1fx | result %,d%s%n",
+                label, scanNanos / 1e6, indexNanos / 1e6, (double) scanNanos / Math.max(1, indexNanos),
+                indexResult, scanResult == indexResult ? "" : " (MISMATCH " + scanResult + ")");
+    }
+
+    private static long best(IntQuery query) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static int scanCount(String text, char symbol) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == symbol) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int[] scanPositions(String text, char symbol) {
+        int[] positions = new int[16];
+        int found = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == symbol) {
+                if (found == positions.length) {
+                    positions = Arrays.copyOf(positions, found * 2);
+                }
+                positions[found++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, found);
+    }
+
+    private static int[] scanFind(String text, String pattern) {
+        int[] positions = new int[16];
+        int found = 0;
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+            if (found == positions.length) {
+                positions = Arrays.copyOf(positions, found * 2);
+            }
+            positions[found++] = i;
+        }
+        return Arrays.copyOf(positions, found);
+    }
+
+    /**
+     * 정수 결과를 내는 질의 (결과를 사용하여 JIT 제거를 방지)
+     */
+    private interface IntQuery {
+        int run();
+    }
+}
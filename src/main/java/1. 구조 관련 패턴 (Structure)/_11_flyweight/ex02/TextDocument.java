@@ -1,7 +1,22 @@
 package org._11_flyweight.ex02;
 
-import java.util.ArrayList;
-import java.util.List;
+import org._11_flyweight.ex02.FlyweightTrace.Event;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * TextDocument - 텍스트 문서 클래스 (Context/Client)
@@ -18,38 +33,111 @@ import java.util.List;
  * 외재적 상태 관리:
  * - 위치 정보 (line, column, position)
  * - 컨텍스트 정보 (문서명, 섹션 등)
+ *
+ * 외재적 상태를 어떤 메모리 레이아웃으로 보관할지는 StorageLayout으로 선택합니다.
+ * (기본값은 문자마다 객체를 만드는 OBJECTS, 대용량 문서에는 COLUMNAR)
  */
 class TextDocument {
+    /**
+     * 대량 추가 시 한 번에 처리하는 문자 수 / 파일을 매핑하는 구간 크기
+     */
+    private static final int INGEST_CHUNK = 64 * 1024;
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+
     /**
      * 문서의 제목
      */
     private String title;
 
     /**
-     * 문서를 구성하는 문자 요소들의 리스트
+     * 문서를 구성하는 문자들의 저장소
      *
-     * 각 CharacterElement는 다음을 포함합니다:
+     * 각 위치마다 다음을 보관합니다:
      * - Character Flyweight에 대한 참조 (내재적 상태)
      * - 외재적 상태 (위치, 줄번호, 컬럼번호 등)
      */
-    private List<CharacterElement> characters;
+    private DocumentStorage characters;
+
+    /**
+     * 문자별 위치 역색인
+     *
+     * 문서 끝에 추가될 때마다 함께 갱신되며, 중간 삽입/삭제가 일어나면
+     * 위치가 한꺼번에 바뀌므로 다음 조회 시점에 한 번 재구성합니다.
+     */
+    private SymbolIndex index;
+    private boolean indexStale;
 
     /**
      * Character Flyweight를 제공하는 팩토리
      */
     private CharacterFactory factory;
 
+    /**
+     * 이 문서가 사용 중인 Flyweight들 (팩토리에 retain으로 알린 것)
+     *
+     * 문서가 열려 있는 동안 팩토리는 이 Flyweight들을 축출하지 않으며,
+     * close() 시 한꺼번에 release합니다.
+     */
+    private final Set<Character> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 렌더링 파이프라인 (출력 버퍼를 문서 단위로 재사용)
+     */
+    private final RenderPipeline renderer = new RenderPipeline();
+
     /**
      * 문서 생성자
      *
      * @param title 문서 제목
      */
     public TextDocument(String title) {
+        this(title, StorageLayout.OBJECTS);
+    }
+
+    /**
+     * 저장소 레이아웃을 지정하는 문서 생성자
+     *
+     * @param title 문서 제목
+     * @param layout 외재적 상태 저장 레이아웃
+     */
+    public TextDocument(String title, StorageLayout layout) {
+        this(title, layout.createStorage());
+    }
+
+    private TextDocument(String title, DocumentStorage storage) {
         this.title = title;
-        this.characters = new ArrayList<>();
+        this.characters = storage;
+        this.index = new SymbolIndex();
+        this.indexStale = storage.size() > 0; // 기존 내용이 있으면 첫 검색 시 색인 구성
         this.factory = CharacterFactory.getInstance();
     }
 
+    /**
+     * 저장된 문서 파일을 메모리 매핑으로 열기 (읽기 전용)
+     *
+     * 헤더와 스타일 테이블을 읽고 스타일 번호만 검증한 뒤 바로 열리며,
+     * 렌더링/검색 시 필요한 위치의 글리프만 Flyweight로 찾습니다.
+     * 열린 문서에 문자를 추가/삽입/삭제하면 UnsupportedOperationException이 발생합니다.
+     *
+     * @param path save로 저장한 파일
+     * @return 읽기 전용 문서
+     * @throws IOException 읽기 실패 또는 형식이 맞지 않는 경우
+     */
+    public static TextDocument open(Path path) throws IOException {
+        MappedDocumentStorage storage = DocumentFile.open(path);
+        return new TextDocument(storage.title(), storage);
+    }
+
+    /**
+     * 문서를 바이너리 파일로 저장 (스타일 테이블 + 위치당 4바이트 글리프 레코드)
+     *
+     * @param path 저장할 파일 (있으면 덮어씀)
+     * @throws IOException 쓰기 실패 시
+     */
+    public void save(Path path) throws IOException {
+        DocumentFile.write(title, characters, path);
+    }
+
     /**
      * 문서에 문자 추가 (기본 스타일)
      *
@@ -71,17 +159,15 @@ class TextDocument {
         // 1. Factory에서 Character Flyweight 획득
         Character character = factory.getCharacter(symbol, font, size, color);
 
-        // 2. 현재 위치 계산 (외재적 상태)
+        // 2. 외재적 상태와 함께 문서에 추가
         int position = characters.size();
-        int line = calculateLine(position);
-        int column = calculateColumn(position);
+        appendToStorage(character);
 
-        // 3. 외재적 상태와 함께 문서에 추가
-        CharacterElement element = new CharacterElement(character, position, line, column);
-        characters.add(element);
-
-        System.out.printf("Added '%c' at position %d (Line %d, Col %d)\n",
-                symbol, position, line, column);
+        // 3. 추적이 켜져 있을 때만 위치 정보(외재적 상태)를 계산하여 기록
+        if (FlyweightTrace.record(Event.CHARACTER_ADDED)) {
+            FlyweightTrace.emit(Event.CHARACTER_ADDED, String.format("Added '%c' at position %d (Line %d, Col %d)",
+                    symbol, position, calculateLine(position), calculateColumn(position)));
+        }
     }
 
     /**
@@ -94,14 +180,12 @@ class TextDocument {
         Character character = factory.getCharacterWithStyle(symbol, style);
 
         int position = characters.size();
-        int line = calculateLine(position);
-        int column = calculateColumn(position);
+        appendToStorage(character);
 
-        CharacterElement element = new CharacterElement(character, position, line, column);
-        characters.add(element);
-
-        System.out.printf("Added '%c' with style '%s' at position %d\n",
-                symbol, style, position);
+        if (FlyweightTrace.record(Event.CHARACTER_ADDED)) {
+            FlyweightTrace.emit(Event.CHARACTER_ADDED, String.format("Added '%c' with style '%s' at position %d",
+                    symbol, style, position));
+        }
     }
 
     /**
@@ -113,77 +197,267 @@ class TextDocument {
      * @param color 문자 색상
      */
     public void addText(String text, String font, int size, String color) {
-        System.out.printf("Adding text: \"%s\" [%s %dpt %s]\n", text, font, size, color);
+        if (FlyweightTrace.record(Event.DOCUMENT_EDITED)) {
+            FlyweightTrace.emit(Event.DOCUMENT_EDITED, String.format("Adding text: \"%s\" [%s %dpt %s]",
+                    text, font, size, color));
+        }
 
         for (char c : text.toCharArray()) {
             if (c != ' ') { // 공백은 건너뛰고 실제 문자만 추가
                 addCharacter(c, font, size, color);
             } else {
                 // 공백도 위치 계산에 포함
-                int position = characters.size();
-                characters.add(null); // 공백을 나타내는 플레이스홀더
+                appendToStorage(null);
+            }
+        }
+
+        if (FlyweightTrace.record(Event.DOCUMENT_EDITED)) {
+            FlyweightTrace.emit(Event.DOCUMENT_EDITED, "Text addition completed.");
+        }
+    }
+
+    /**
+     * 문자열을 한 번에 문서 끝에 추가 (대량 추가용)
+     *
+     * addText와 결과는 같지만 문자마다 로그를 남기거나 팩토리를 호출하지 않습니다.
+     * 같은 스타일 안에서 각 문자의 Flyweight는 처음 등장할 때 한 번만 조회하고,
+     * 저장소에 필요한 공간도 미리 확보합니다.
+     *
+     * @param text 추가할 문자열 (공백은 위치만 차지)
+     * @param font 폰트명
+     * @param size 폰트 크기
+     * @param color 문자 색상
+     * @return 추가된 위치 수
+     */
+    public int appendText(CharSequence text, String font, int size, String color) {
+        GlyphResolver resolver = new GlyphResolver(factory, font, size, color, this::retain);
+        characters.reserve(text.length());
+
+        char[] chunk = new char[Math.min(INGEST_CHUNK, text.length())];
+        for (int from = 0; from < text.length(); from += chunk.length) {
+            int to = Math.min(text.length(), from + chunk.length);
+            if (text instanceof String string) {
+                string.getChars(from, to, chunk, 0);
+            } else {
+                for (int i = from; i < to; i++) {
+                    chunk[i - from] = text.charAt(i);
+                }
             }
+            ingest(chunk, to - from, resolver);
         }
 
-        System.out.println("Text addition completed.");
+        traceBulkAppend(text.length(), "text", resolver, font, size, color);
+        return text.length();
+    }
+
+    /**
+     * Reader의 내용을 끝까지 읽어 문서 끝에 추가 (대량 추가용)
+     *
+     * @param reader 읽을 입력 (닫지 않음)
+     * @return 추가된 위치 수
+     * @throws IOException 읽기 실패 시
+     */
+    public int appendText(Reader reader, String font, int size, String color) throws IOException {
+        GlyphResolver resolver = new GlyphResolver(factory, font, size, color, this::retain);
+        char[] chunk = new char[INGEST_CHUNK];
+        int total = 0;
+
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            characters.reserve(read);
+            ingest(chunk, read, resolver);
+            total += read;
+        }
+
+        traceBulkAppend(total, "reader", resolver, font, size, color);
+        return total;
+    }
+
+    /**
+     * 파일을 메모리 매핑하여 문서 끝에 추가 (대량 추가용)
+     *
+     * 파일을 MAP_WINDOW 크기 구간으로 나누어 매핑하고, 구간 경계에서 잘린
+     * 멀티바이트 문자는 다음 구간에서 이어서 디코딩합니다.
+     * 잘못된 바이트열은 대체 문자(U+FFFD)로 바꿉니다.
+     *
+     * @param path 읽을 텍스트 파일
+     * @param charset 파일 인코딩
+     * @return 추가된 위치 수
+     * @throws IOException 읽기 실패 시
+     */
+    public int appendFile(Path path, Charset charset, String font, int size, String color) throws IOException {
+        GlyphResolver resolver = new GlyphResolver(factory, font, size, color, this::retain);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chunk = CharBuffer.allocate(INGEST_CHUNK);
+        int total = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            boolean last = false;
+
+            while (!last) {
+                long window = Math.min(MAP_WINDOW, fileSize - position);
+                last = position + window == fileSize;
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chunk, last);
+                    total += drain(chunk, resolver);
+                    if (result.isError()) {
+                        result.throwException();
+                    }
+                } while (result.isOverflow());
+
+                // 디코딩하지 못한 꼬리 바이트(잘린 멀티바이트 문자)는 다음 구간에 다시 포함
+                position += window - bytes.remaining();
+            }
+
+            while (decoder.flush(chunk).isOverflow()) {
+                total += drain(chunk, resolver);
+            }
+            total += drain(chunk, resolver);
+        } catch (CharacterCodingException e) {
+            throw new IOException("Cannot decode " + path + " as " + charset, e);
+        }
+
+        traceBulkAppend(total, path.toString(), resolver, font, size, color);
+        return total;
+    }
+
+    /**
+     * 문서 중간에 문자열 삽입
+     *
+     * @param position 삽입 위치 (0 ~ 문서 길이)
+     * @param text 삽입할 문자열 (공백은 위치만 차지)
+     * @param font 폰트명
+     * @param size 폰트 크기
+     * @param color 문자 색상
+     *
+     * 뒤쪽 문자들의 위치/줄/컬럼은 한 칸씩 밀립니다.
+     * ROPE 레이아웃에서는 문자당 O(log n), 나머지 레이아웃에서는 O(n)입니다.
+     */
+    public void insertText(int position, String text, String font, int size, String color) {
+        if (FlyweightTrace.record(Event.DOCUMENT_EDITED)) {
+            FlyweightTrace.emit(Event.DOCUMENT_EDITED, String.format("Inserting text at %d: \"%s\" [%s %dpt %s]",
+                    position, text, font, size, color));
+        }
+
+        int offset = position;
+        for (char c : text.toCharArray()) {
+            Character character = c != ' ' ? factory.getCharacter(c, font, size, color) : null;
+            characters.insert(offset++, character);
+            retain(character); // 삽입에 성공한 뒤에만 (읽기 전용 문서에서 고정이 남지 않도록)
+        }
+        indexStale = true;
+    }
+
+    /**
+     * 문서의 구간 삭제
+     *
+     * @param startPos 시작 위치 (포함)
+     * @param endPos 끝 위치 (제외)
+     */
+    public void deleteRange(int startPos, int endPos) {
+        characters.delete(startPos, endPos);
+        indexStale = true;
+        if (FlyweightTrace.record(Event.DOCUMENT_EDITED)) {
+            FlyweightTrace.emit(Event.DOCUMENT_EDITED,
+                    String.format("Deleted positions %d to %d", startPos, endPos - 1));
+        }
+    }
+
+    /**
+     * @return 문서의 전체 위치 수 (문자 + 공백)
+     */
+    public int length() {
+        return characters.size();
     }
 
     /**
      * 전체 문서 렌더링
      *
      * 모든 문자들을 순서대로 렌더링하여 문서를 화면에 표시합니다.
-     * 각 Character Flyweight의 render 메서드를 외재적 상태와 함께 호출합니다.
+     * 같은 줄에서 같은 스타일을 쓰는 연속 문자들은 하나의 런으로 묶어 출력합니다.
      */
     public void renderDocument() {
         System.out.println("=== Rendering Document: " + title + " ===");
 
-        if (characters.isEmpty()) {
+        if (characters.size() == 0) {
             System.out.println("Document is empty.");
         } else {
-            for (CharacterElement element : characters) {
-                if (element != null) { // null은 공백
-                    // 화면 좌표 계산 (외재적 상태)
-                    int x = element.column * 10; // 가정: 문자당 10픽셀 너비
-                    int y = element.line * 20;    // 가정: 줄당 20픽셀 높이
-
-                    // Character Flyweight의 render 메서드 호출
-                    element.character.render(x, y, title);
-                }
-            }
+            renderDocument(RenderSink.console(), false);
         }
 
         System.out.println("======================================");
 
         /*
          * 렌더링 과정에서의 Flyweight 활용:
-         * 1. 각 CharacterElement가 Character Flyweight 참조
+         * 1. 각 위치가 Character Flyweight 참조
          * 2. 동일한 문자들은 같은 Flyweight 인스턴스 공유
          * 3. 외재적 상태(위치)는 개별적으로 관리
          * 4. 렌더링 시 내재적 상태 + 외재적 상태 조합 사용
          */
     }
 
+    /**
+     * 전체 문서를 지정한 출력 대상으로 렌더링
+     *
+     * @param sink 출력 대상 (콘솔, 파일 채널, 메모리 등)
+     * @param parallel true이면 줄 단위 구간으로 나누어 병렬 렌더링 (출력 순서는 유지)
+     * @return 출력한 런 개수
+     */
+    public int renderDocument(RenderSink sink, boolean parallel) {
+        return renderPositions(sink, 0, characters.size(), parallel);
+    }
+
+    /**
+     * 문서의 일부 구간을 지정한 출력 대상으로 렌더링
+     *
+     * @param sink 출력 대상
+     * @param startPos 시작 위치 (포함)
+     * @param endPos 끝 위치 (제외)
+     * @param parallel true이면 줄 단위 구간으로 나누어 병렬 렌더링
+     * @return 출력한 런 개수
+     */
+    public int renderPositions(RenderSink sink, int startPos, int endPos, boolean parallel) {
+        if (parallel) {
+            return renderer.renderParallel(characters, title, startPos, endPos, sink);
+        }
+        return renderer.render(characters, title, startPos, endPos, sink);
+    }
+
     /**
      * 문서의 특정 범위 렌더링
      *
      * @param startPos 시작 위치
-     * @param endPos 끝 위치
+     * @param endPos 끝 위치 (포함)
      */
     public void renderRange(int startPos, int endPos) {
         System.out.printf("=== Rendering Document Range: %d to %d ===\n", startPos, endPos);
 
-        for (int i = Math.max(0, startPos); i <= Math.min(characters.size() - 1, endPos); i++) {
-            CharacterElement element = characters.get(i);
-            if (element != null) {
-                int x = element.column * 10;
-                int y = element.line * 20;
-                element.character.render(x, y, title + " (partial)");
-            }
-        }
+        renderer.render(characters, title + " (partial)", startPos, endPos + 1, RenderSink.console());
 
         System.out.println("=======================================");
     }
 
+    /**
+     * 문서 닫기
+     *
+     * 이 문서가 사용하던 Flyweight들을 팩토리에 release하여
+     * 다른 문서가 쓰지 않는 것들은 축출될 수 있게 합니다.
+     * (삭제된 구간의 Flyweight도 문서가 닫힐 때까지는 사용 중으로 취급합니다)
+     */
+    public void close() {
+        for (Character character : retained) {
+            factory.release(character);
+        }
+        retained.clear();
+    }
+
     /**
      * 문서 통계 정보 출력
      */
@@ -208,21 +482,49 @@ class TextDocument {
         System.out.println("===========================");
     }
 
+    /**
+     * 저장소 레이아웃의 메모리 사용량 추정치 출력
+     *
+     * Flyweight 자체는 문서 간에 공유되므로 제외하고,
+     * 문서가 직접 소유한 외재적 상태만 계산합니다.
+     */
+    public void displayMemoryFootprint() {
+        long bytes = characters.estimateMemoryBytes();
+        System.out.println("=== Document Memory Footprint ===");
+        System.out.println("Title: " + title);
+        System.out.println("Layout: " + characters.layoutName());
+        System.out.println("Positions: " + characters.size());
+        System.out.printf("Estimated bytes: %,d\n", bytes);
+        if (characters.size() > 0) {
+            System.out.printf("Bytes per position: %.2f\n", (double) bytes / characters.size());
+        }
+        System.out.println("=================================");
+    }
+
+    /**
+     * @return 저장소 레이아웃의 메모리 사용량 추정치 (바이트)
+     */
+    public long estimateMemoryBytes() {
+        return characters.estimateMemoryBytes();
+    }
+
     /**
      * 특정 문자의 모든 출현 위치 찾기
      *
      * @param symbol 찾을 문자
+     *
+     * 문서 전체를 훑지 않고 역색인에서 해당 문자의 위치 목록만 읽습니다.
      */
     public void findCharacterPositions(char symbol) {
         System.out.printf("=== Positions of character '%c' ===\n", symbol);
 
         boolean found = false;
-        for (int i = 0; i < characters.size(); i++) {
-            CharacterElement element = characters.get(i);
-            if (element != null && element.character.getSymbol() == symbol) {
+        for (int i : positionsOf(symbol)) {
+            Character character = characters.characterAt(i);
+            if (character != null) {
                 System.out.printf("Position %d: Line %d, Column %d | %s\n",
-                        i, element.line, element.column,
-                        element.character.getStyleInfo());
+                        i, characters.lineAt(i), characters.columnAt(i),
+                        character.getStyleInfo());
                 found = true;
             }
         }
@@ -234,6 +536,152 @@ class TextDocument {
         System.out.println("===================================");
     }
 
+    /**
+     * 특정 문자의 출현 위치 목록 (공백 포함)
+     *
+     * @param symbol 찾을 문자
+     * @return 오름차순 위치 배열
+     */
+    public int[] positionsOf(char symbol) {
+        return currentIndex().positionsOf(symbol);
+    }
+
+    /**
+     * 특정 문자의 출현 횟수 (O(1))
+     *
+     * @param symbol 찾을 문자
+     * @return 출현 횟수
+     */
+    public int countOccurrences(char symbol) {
+        return currentIndex().count(symbol);
+    }
+
+    /**
+     * 부분 문자열 검색
+     *
+     * @param text 찾을 문자열
+     * @return 일치하는 시작 위치들 (오름차순)
+     */
+    public int[] findText(String text) {
+        return currentIndex().find(text, characters);
+    }
+
+    /**
+     * 여러 문자 중 하나라도 해당하는 모든 위치 검색
+     *
+     * 역색인을 쓰지 않고 문서를 구간별로 나누어 병렬로 훑으므로,
+     * 중간 편집 직후에도 색인 재구성 없이 바로 검색할 수 있습니다.
+     *
+     * @param symbols 찾을 문자들
+     * @return 일치하는 위치들 (오름차순)
+     */
+    public int[] findAny(char... symbols) {
+        return DocumentAnalytics.findAny(characters, symbols);
+    }
+
+    /**
+     * 문서 전체 분석 (문자 히스토그램, 스타일별 글리프 수, 단어/줄 수)
+     *
+     * 문서를 구간으로 나누어 fork/join으로 병렬 집계합니다.
+     *
+     * @return 분석 결과 스냅샷
+     */
+    public DocumentSummary analyze() {
+        return DocumentAnalytics.summarize(characters);
+    }
+
+    /**
+     * 문서 분석 결과 출력
+     */
+    public void displayAnalytics() {
+        DocumentSummary summary = analyze();
+        System.out.println("=== Document Analytics ===");
+        System.out.println("Title: " + title);
+        System.out.println("Positions: " + summary.getLength());
+        System.out.println("Words: " + summary.getWords());
+        System.out.println("Lines: " + summary.getLines() + " (non-blank " + summary.getNonBlankLines() + ")");
+        System.out.println("Distinct symbols: " + summary.getDistinctSymbols());
+        summary.getStyleCounts().forEach((style, count) ->
+                System.out.printf("  %s: %d glyphs\n", style, count));
+        System.out.println("==========================");
+    }
+
+    /**
+     * 저장소에 추가하면서 역색인도 함께 갱신
+     *
+     * @param character 추가할 Flyweight, 공백이면 null
+     */
+    private void appendToStorage(Character character) {
+        int position = characters.size();
+        if (character != null) {
+            characters.append(character);
+            retain(character); // 추가에 성공한 뒤에만 (읽기 전용 문서에서 고정이 남지 않도록)
+            index.append(character.getSymbol(), position);
+        } else {
+            characters.appendSpace();
+            index.append(' ', position);
+        }
+    }
+
+    /**
+     * 버퍼의 문자들을 저장소와 역색인에 직접 추가 (공백은 위치만 차지)
+     */
+    private void ingest(char[] chunk, int length, GlyphResolver resolver) {
+        if (length > 0 && characters.isReadOnly()) {
+            // resolver가 Flyweight를 retain하기 전에 거부
+            throw new UnsupportedOperationException("Document is read-only: " + title);
+        }
+        int position = characters.size();
+        for (int i = 0; i < length; i++, position++) {
+            char symbol = chunk[i];
+            if (symbol != ' ') {
+                characters.append(resolver.resolve(symbol)); // retain은 resolver가 처음 한 번만 호출
+            } else {
+                characters.appendSpace();
+            }
+            index.append(symbol, position);
+        }
+    }
+
+    /**
+     * 디코딩된 문자 버퍼를 문서에 추가하고 비움
+     */
+    private int drain(CharBuffer chunk, GlyphResolver resolver) {
+        int length = chunk.position();
+        ingest(chunk.array(), length, resolver);
+        chunk.clear();
+        return length;
+    }
+
+    private void traceBulkAppend(int count, String source, GlyphResolver resolver,
+                                 String font, int size, String color) {
+        if (FlyweightTrace.record(Event.DOCUMENT_EDITED)) {
+            FlyweightTrace.emit(Event.DOCUMENT_EDITED, String.format(
+                    "Appended %d positions from %s [%s %dpt %s] (%d distinct flyweights resolved)",
+                    count, source, font, size, color, resolver.resolvedCount()));
+        }
+    }
+
+    /**
+     * 처음 사용하는 Flyweight라면 팩토리에 사용 중임을 알림
+     */
+    private void retain(Character character) {
+        if (character != null && retained.add(character)) {
+            factory.retain(character);
+        }
+    }
+
+    /**
+     * 중간 편집 이후라면 역색인을 재구성한 뒤 반환
+     */
+    private SymbolIndex currentIndex() {
+        if (indexStale) {
+            index.rebuild(characters);
+            indexStale = false;
+        }
+        return index;
+    }
+
     /**
      * 줄 번호 계산 (외재적 상태)
      *
@@ -262,61 +710,7 @@ class TextDocument {
      * @return 문서의 전체 텍스트 내용
      */
     public String getTextContent() {
-        StringBuilder content = new StringBuilder();
-
-        for (CharacterElement element : characters) {
-            if (element != null) {
-                content.append(element.character.getSymbol());
-            } else {
-                content.append(' '); // 공백 추가
-            }
-        }
-
-        return content.toString();
-    }
-
-    /**
-     * CharacterElement 내부 클래스
-     *
-     * 외재적 상태를 관리하는 클래스로, Character Flyweight에 대한 참조와
-     * 함께 각 문자의 위치 정보를 저장합니다.
-     */
-    private static class CharacterElement {
-        /**
-         * Character Flyweight에 대한 참조 (내재적 상태)
-         */
-        private Character character;
-
-        /**
-         * 외재적 상태들
-         */
-        private int position;    // 문서 내 절대 위치
-        private int line;        // 줄 번호
-        private int column;      // 컬럼 번호
-
-        /**
-         * CharacterElement 생성자
-         *
-         * @param character Character Flyweight 인스턴스
-         * @param position 문서 내 위치 (외재적 상태)
-         * @param line 줄 번호 (외재적 상태)
-         * @param column 컬럼 번호 (외재적 상태)
-         */
-        public CharacterElement(Character character, int position, int line, int column) {
-            this.character = character;
-            this.position = position;
-            this.line = line;
-            this.column = column;
-        }
-
-        /**
-         * 요소 정보 반환
-         *
-         * @return 문자 요소의 상세 정보
-         */
-        public String getElementInfo() {
-            return String.format("Element[pos=%d, line=%d, col=%d]: %s",
-                    position, line, column, character.getIdentity());
-        }
+        // 큰 문서는 구간별로 나누어 병렬로 복사 (공백은 ' '로 저장됨)
+        return new String(DocumentAnalytics.symbols(characters));
     }
 }
\ No newline at end of file